@@ -0,0 +1,90 @@
+package com.example.demo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.services.BookService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The hot GET /api/books/{id} path through BookService, over a working set
+ * that fits the caches: the cached JSON bytes against the cached DTO encoded
+ * by Jackson on every read, which is what the endpoint did before. Run with
+ * -prof gc to compare the bytes allocated per read.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BookByIdBenchmark {
+
+	@Param({ "1000" })
+	private int books;
+
+	@Param({ "true", "false" })
+	private boolean jsonCache;
+
+	private ConfigurableApplicationContext context;
+	private BookService bookService;
+	private ObjectMapper objectMapper;
+	private int book;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(DemoApplication.class).web(WebApplicationType.NONE)
+				.properties("logging.level.root=WARN", "book.json-cache.enabled=" + jsonCache).run();
+		// SYSTEM_RANGE names its column X, which DATABASE_TO_LOWER would otherwise look up as x
+		context.getBean(JdbcTemplate.class).update("INSERT INTO book (id, title, author, published_date, isbn) "
+				+ "SELECT \"X\", CONCAT('Title ', \"X\", ' volume ', MOD(\"X\", 97)), CONCAT('Author ', MOD(\"X\", 5000)), "
+				+ "DATEADD('DAY', MOD(\"X\", 3650), DATE '2000-01-01'), CONCAT('ISBN-', \"X\") FROM SYSTEM_RANGE(1, " + books + ")");
+		bookService = context.getBean(BookService.class);
+		objectMapper = context.getBean(ObjectMapper.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Object cachedJson() {
+		return bookService.getBookJsonById(nextBook(), false).getBody();
+	}
+
+	@Benchmark
+	public Object cachedJsonGzip() {
+		return bookService.getBookJsonById(nextBook(), true).getBody();
+	}
+
+	@Benchmark
+	public byte[] cachedDtoEncodedPerRead() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(bookService.getBookById(nextBook()).getBody());
+	}
+
+	private long nextBook() {
+		book = book % books + 1;
+		return book;
+	}
+
+}
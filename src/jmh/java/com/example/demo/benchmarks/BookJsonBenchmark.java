@@ -0,0 +1,79 @@
+package com.example.demo.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.demo.dto.BookDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson serialization of the response bodies of GET /api/books/{id} and
+ * GET /api/books, with the same object mapper defaults Spring Boot uses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookJsonBenchmark {
+
+	private ObjectMapper objectMapper;
+	private BookDto bookDto;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		bookDto = new BookDto(1L, "Title 0", "Author 0", LocalDate.of(2000, 1, 1), "978-0");
+	}
+
+	@State(Scope.Benchmark)
+	public static class PageState {
+
+		@Param({ "20", "100" })
+		private int pageSize;
+
+		private Page<BookDto> page;
+
+		@Setup
+		public void setUp() {
+			List<BookDto> content = new ArrayList<>();
+			for (int i = 0; i < pageSize; i++) {
+				content.add(new BookDto(i + 1, "Title " + i, "Author " + i % 50, LocalDate.of(2000, 1, 1).plusDays(i),
+						"978-" + i));
+			}
+			page = new PageImpl<>(content, PageRequest.of(0, pageSize), 100_000);
+		}
+
+	}
+
+	@Benchmark
+	public byte[] serializeBookDto() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(bookDto);
+	}
+
+	@Benchmark
+	public byte[] serializePage(PageState state) throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(state.page);
+	}
+
+}
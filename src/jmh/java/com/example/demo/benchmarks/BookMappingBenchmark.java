@@ -0,0 +1,62 @@
+package com.example.demo.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.demo.dto.BookDto;
+import com.example.demo.entities.Book;
+import com.example.demo.services.BookService;
+
+/**
+ * Cost of the entity/DTO mapping and of request validation, which run on
+ * every write and on every entity read.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookMappingBenchmark {
+
+	private Book book;
+	private BookDto bookDto;
+	private BookService bookService;
+
+	@Setup
+	public void setUp() {
+		bookDto = new BookDto(42L, "The Pragmatic Programmer", "Andrew Hunt", LocalDate.of(1999, 10, 20),
+				"978-0-201-61622-4");
+		book = new Book(bookDto);
+		bookService = new BookService();
+	}
+
+	@Benchmark
+	public BookDto bookToDto() {
+		return new BookDto(book);
+	}
+
+	@Benchmark
+	public Book dtoToBook() {
+		return new Book(bookDto);
+	}
+
+	@Benchmark
+	public void validateBookDto(Blackhole blackhole) {
+		bookService.validateBookDto(bookDto);
+		blackhole.consume(bookDto);
+	}
+
+}
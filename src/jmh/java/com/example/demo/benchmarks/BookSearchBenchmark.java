@@ -0,0 +1,78 @@
+package com.example.demo.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.dto.BookDto;
+import com.example.demo.dto.BookSearchResult;
+import com.example.demo.services.BookCatalogLoader;
+import com.example.demo.services.BookService;
+
+/**
+ * The search endpoints through BookService, against the embedded H2 database
+ * of the test configuration: the JPQL prefix search behind GET /api/search
+ * and the in-memory ranked search behind GET /api/search/ranked.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BookSearchBenchmark {
+
+	@Param({ "100000" })
+	private int books;
+
+	private ConfigurableApplicationContext context;
+	private BookService bookService;
+	private int query;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(DemoApplication.class).web(WebApplicationType.NONE)
+				.properties("logging.level.root=WARN").run();
+		// SYSTEM_RANGE names its column X, which DATABASE_TO_LOWER would otherwise look up as x
+		context.getBean(JdbcTemplate.class).update("INSERT INTO book (id, title, author, published_date, isbn) "
+				+ "SELECT \"X\", CONCAT('Title ', \"X\", ' volume ', MOD(\"X\", 97)), CONCAT('Author ', MOD(\"X\", 5000)), "
+				+ "DATEADD('DAY', MOD(\"X\", 3650), DATE '2000-01-01'), CONCAT('ISBN-', \"X\") FROM SYSTEM_RANGE(1, " + books + ")");
+		context.getBean(BookCatalogLoader.class).loadCatalog();
+		bookService = context.getBean(BookService.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<BookDto> jpqlPrefixSearch() {
+		return bookService.getBooksByAuthorOrTile("Author " + (query++ * 37 % 5000));
+	}
+
+	@Benchmark
+	public BookSearchResult rankedSearch() {
+		int i = query++;
+		return bookService.searchBooks("Author " + (i * 37 % 5000) + " volume " + (i % 97), 0, 20);
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.example.demo.admission;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit adjusted by AIMD on observed latency. Every request that
+ * finishes within the latency target while the limit was at least half used
+ * raises the limit by 1/limit, so by about one per window of requests; a
+ * request slower than the target or failed by overload cuts it by the
+ * backoff ratio. Only requests started after the last cut may cut again, so a
+ * burst of slow requests counts as one signal instead of collapsing the limit.
+ */
+public class AdaptiveLimit {
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final long latencyTargetNanos;
+	private final double backoffRatio;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private double limit;
+	private volatile int currentLimit;
+	private boolean decreased;
+	private long lastDecreaseNanos;
+
+	public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget, double backoffRatio) {
+		if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+			throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+		}
+		if (backoffRatio <= 0 || backoffRatio >= 1) {
+			throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+		}
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.latencyTargetNanos = latencyTarget.toNanos();
+		this.backoffRatio = backoffRatio;
+		this.limit = initialLimit;
+		this.currentLimit = initialLimit;
+	}
+
+	/**
+	 * Admits a request if fewer than {@code share} of the limit are in flight,
+	 * at least one. Lower priority requests pass a smaller share, so they are
+	 * turned away first as the limit shrinks. Never waits.
+	 */
+	public boolean tryAcquire(double share) {
+		int allowed = Math.max(1, (int) (currentLimit * share));
+		while (true) {
+			int current = inFlight.get();
+			if (current >= allowed) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Releases an admitted request and adjusts the limit to its outcome.
+	 */
+	public void release(long startNanos, boolean overloaded) {
+		long now = System.nanoTime();
+		int inFlightBefore = inFlight.getAndDecrement();
+		synchronized (this) {
+			if (overloaded || now - startNanos > latencyTargetNanos) {
+				if (!decreased || startNanos - lastDecreaseNanos > 0) {
+					limit = Math.max(minLimit, limit * backoffRatio);
+					decreased = true;
+					lastDecreaseNanos = now;
+				}
+			} else if (inFlightBefore * 2 >= limit) {
+				// An idle limit says nothing about capacity, so it only grows when in use
+				limit = Math.min(maxLimit, limit + 1 / limit);
+			}
+			currentLimit = (int) limit;
+		}
+	}
+
+	public int getLimit() {
+		return currentLimit;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+}
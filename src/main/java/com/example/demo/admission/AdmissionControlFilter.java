@@ -0,0 +1,154 @@
+package com.example.demo.admission;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control in front of the API. Reads and writes each get an
+ * {@link AdaptiveLimit} on concurrent requests, and a request over its limit
+ * is answered 503 with {@code Retry-After} at once instead of waiting in the
+ * Tomcat queue, so the requests that are admitted still finish in time.
+ * Searches draw on the read limit but only up to the search share of it, so
+ * they are shed before any other read. Streaming import and export run long
+ * by design and are left out.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "book.admission.enabled", havingValue = "true")
+public class AdmissionControlFilter extends OncePerRequestFilter implements MeterBinder {
+
+	public static final String READ = "read";
+	public static final String SEARCH = "search";
+	public static final String WRITE = "write";
+
+	private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+	private final AdaptiveLimit readLimit;
+	private final AdaptiveLimit writeLimit;
+	private final double searchShare;
+	private final String retryAfterSeconds;
+	private final List<String> excludedPaths;
+	private final AtomicLong readRejections = new AtomicLong();
+	private final AtomicLong searchRejections = new AtomicLong();
+	private final AtomicLong writeRejections = new AtomicLong();
+	Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+	public AdmissionControlFilter(@Value("${book.admission.read.initial-limit:20}") int readInitialLimit,
+			@Value("${book.admission.read.max-limit:200}") int readMaxLimit,
+			@Value("${book.admission.read.latency-target:PT0.1S}") Duration readLatencyTarget,
+			@Value("${book.admission.write.initial-limit:10}") int writeInitialLimit,
+			@Value("${book.admission.write.max-limit:50}") int writeMaxLimit,
+			@Value("${book.admission.write.latency-target:PT0.25S}") Duration writeLatencyTarget,
+			@Value("${book.admission.min-limit:2}") int minLimit,
+			@Value("${book.admission.backoff-ratio:0.9}") double backoffRatio,
+			@Value("${book.admission.search-share:0.5}") double searchShare,
+			@Value("${book.admission.retry-after:PT1S}") Duration retryAfter,
+			@Value("${book.admission.excluded-paths:/api/books/export,/api/books/import}") List<String> excludedPaths) {
+		if (searchShare <= 0 || searchShare > 1) {
+			throw new IllegalArgumentException("book.admission.search-share must be above 0 and at most 1");
+		}
+		this.readLimit = new AdaptiveLimit(readInitialLimit, minLimit, readMaxLimit, readLatencyTarget, backoffRatio);
+		this.writeLimit = new AdaptiveLimit(writeInitialLimit, minLimit, writeMaxLimit, writeLatencyTarget, backoffRatio);
+		this.searchShare = searchShare;
+		this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+		this.excludedPaths = excludedPaths;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		return !path.startsWith("/api/") || excludedPaths.contains(path);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String requestClass = classify(request);
+		AdaptiveLimit limit = WRITE.equals(requestClass) ? writeLimit : readLimit;
+		if (!limit.tryAcquire(SEARCH.equals(requestClass) ? searchShare : 1)) {
+			rejections(requestClass).incrementAndGet();
+			logger.debug("Rejected {} {} over the {} limit of {}", request.getMethod(), request.getRequestURI(),
+					requestClass, limit.getLimit());
+			response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+			response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+			response.getWriter().write("Server is busy, retry later");
+			return;
+		}
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			filterChain.doFilter(request, response);
+			failed = response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+		} finally {
+			limit.release(start, failed);
+		}
+	}
+
+	private String classify(HttpServletRequest request) {
+		if (!READ_METHODS.contains(request.getMethod())) {
+			return WRITE;
+		}
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		return path.startsWith("/api/search") ? SEARCH : READ;
+	}
+
+	private AtomicLong rejections(String requestClass) {
+		return switch (requestClass) {
+		case SEARCH -> searchRejections;
+		case WRITE -> writeRejections;
+		default -> readRejections;
+		};
+	}
+
+	AdaptiveLimit getReadLimit() {
+		return readLimit;
+	}
+
+	AdaptiveLimit getWriteLimit() {
+		return writeLimit;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		bindLimit(registry, READ, readLimit);
+		bindLimit(registry, WRITE, writeLimit);
+		for (String requestClass : List.of(READ, SEARCH, WRITE)) {
+			FunctionCounter.builder("book.admission.rejected", rejections(requestClass), AtomicLong::get)
+					.description("Requests answered 503 over the concurrency limit").tag("class", requestClass)
+					.register(registry);
+		}
+	}
+
+	private static void bindLimit(MeterRegistry registry, String budget, AdaptiveLimit limit) {
+		Gauge.builder("book.admission.limit", limit, AdaptiveLimit::getLimit)
+				.description("Current adaptive concurrency limit").tag("budget", budget).register(registry);
+		Gauge.builder("book.admission.in-flight", limit, AdaptiveLimit::getInFlight)
+				.description("Admitted requests in progress").tag("budget", budget).register(registry);
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.example.demo.cache;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.BookCacheStats;
+import com.example.demo.dto.BookDto;
+import com.example.demo.services.BookChangeListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Read-through cache of {@link BookDto} by book id, bounded by size and time
+ * to live. Entries are dropped when {@code BookService} updates or deletes the
+ * book; a load that races with such a write is discarded by the cache rather
+ * than left behind stale. Disabled caches pass every read to the loader.
+ */
+@Component
+public class BookDtoCache implements BookChangeListener, MeterBinder {
+
+	private final boolean enabled;
+	private final Cache<Long, BookDto> cache;
+
+	public BookDtoCache(@Value("${book.cache.enabled:true}") boolean enabled,
+			@Value("${book.cache.maximum-size:10000}") long maximumSize, @Value("${book.cache.ttl:PT10M}") Duration ttl) {
+		this.enabled = enabled;
+		this.cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+	}
+
+	/**
+	 * Returns the cached book, or loads and caches it. Loaders return null for
+	 * missing books, which are not cached.
+	 */
+	public BookDto get(long bookId, Function<Long, BookDto> loader) {
+		if (!enabled) {
+			return loader.apply(bookId);
+		}
+		return cache.get(bookId, loader);
+	}
+
+	public BookCacheStats getStats() {
+		CacheStats stats = cache.stats();
+		return new BookCacheStats(enabled, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+				stats.evictionCount(), stats.hitRate());
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "book.dto");
+	}
+
+	@Override
+	public void bookUpdated(BookDto bookDto) {
+		cache.invalidate(bookDto.getId());
+	}
+
+	@Override
+	public void bookDeleted(long bookId) {
+		cache.invalidate(bookId);
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.example.demo.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.example.demo.dto.BookDto;
+import com.example.demo.services.BookChangeListener;
+import com.example.demo.services.BookETags;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache of books already encoded as JSON, and gzipped when that is smaller,
+ * bounded by the bytes it holds and by the same time to live as
+ * {@link BookDtoCache}. GET /api/books/{id} writes the cached bytes straight
+ * to the response, so a hit builds no DTO and runs no Jackson or gzip.
+ * Entries are dropped on the same writes as in {@link BookDtoCache}. Turned
+ * off by {@code book.json-cache.enabled} or, like every book cache, by
+ * {@code book.cache.enabled}; disabled caches encode the book on every read.
+ */
+@Component
+public class BookJsonCache implements BookChangeListener, MeterBinder {
+
+	// Bytes of bookkeeping per entry besides the arrays themselves
+	private static final int ENTRY_OVERHEAD = 128;
+
+	private final ObjectMapper objectMapper;
+	private final boolean enabled;
+	private final Cache<Long, EncodedBook> cache;
+
+	public BookJsonCache(ObjectMapper objectMapper, @Value("${book.cache.enabled:true}") boolean cacheEnabled,
+			@Value("${book.json-cache.enabled:true}") boolean enabled,
+			@Value("${book.json-cache.maximum-size:64MB}") DataSize maximumSize, @Value("${book.cache.ttl:PT10M}") Duration ttl) {
+		this.objectMapper = objectMapper;
+		this.enabled = cacheEnabled && enabled;
+		// Rows changed by other nodes or directly in the database are only picked up once an entry expires
+		this.cache = Caffeine.newBuilder().maximumWeight(maximumSize.toBytes())
+				.weigher((Long bookId, EncodedBook book) -> book.weight()).expireAfterWrite(ttl).recordStats().build();
+	}
+
+	/**
+	 * Returns the cached encoding of the book, or loads, encodes and caches it.
+	 * Loaders return null for missing books, which are not cached.
+	 */
+	public EncodedBook get(long bookId, Function<Long, BookDto> loader) {
+		if (!enabled) {
+			return encode(loader.apply(bookId));
+		}
+		return cache.get(bookId, id -> encode(loader.apply(id)));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "book.json");
+	}
+
+	@Override
+	public void bookUpdated(BookDto bookDto) {
+		cache.invalidate(bookDto.getId());
+	}
+
+	@Override
+	public void bookDeleted(long bookId) {
+		cache.invalidate(bookId);
+	}
+
+	private EncodedBook encode(BookDto bookDto) {
+		if (bookDto == null) {
+			return null;
+		}
+		try {
+			byte[] json = objectMapper.writeValueAsBytes(bookDto);
+			ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+				gzip.write(json);
+			}
+			// Small books grow when gzipped, so only keep the gzip encoding when it saves bytes
+			byte[] gzip = gzipped.size() < json.length ? gzipped.toByteArray() : null;
+			long lastModified = bookDto.getUpdatedAt() != null ? bookDto.getUpdatedAt().toEpochMilli() : -1;
+			return new EncodedBook(json, gzip, BookETags.of(bookDto), lastModified);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public static class EncodedBook {
+
+		private final byte[] json;
+		private final byte[] gzip;
+		private final String eTag;
+		private final String gzipETag;
+		private final long lastModified;
+
+		public EncodedBook(byte[] json, byte[] gzip, String eTag, long lastModified) {
+			this.json = json;
+			this.gzip = gzip;
+			this.eTag = eTag;
+			this.gzipETag = BookETags.gzip(eTag);
+			this.lastModified = lastModified;
+		}
+
+		public byte[] getJson() {
+			return json;
+		}
+
+		/**
+		 * Returns the gzipped JSON, or null when gzip would not make it smaller.
+		 */
+		public byte[] getGzip() {
+			return gzip;
+		}
+
+		public String getETag() {
+			return eTag;
+		}
+
+		public String getGzipETag() {
+			return gzipETag;
+		}
+
+		/**
+		 * Returns the modification time in epoch milliseconds, or -1 if unknown.
+		 */
+		public long getLastModified() {
+			return lastModified;
+		}
+
+		private int weight() {
+			return ENTRY_OVERHEAD + json.length + (gzip != null ? gzip.length : 0);
+		}
+
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.example.demo.config;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.example.demo.profiling.ProfilingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class DataSourceConfig {
+
+	// Hikari applies its default pool size only when the pool starts
+	private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+	/**
+	 * Wraps the connection pool in a {@link BoundedDataSource} with one permit
+	 * per pooled connection, so waiting for a connection is bounded in time and
+	 * served in arrival order whether requests run on platform or virtual
+	 * threads ({@code spring.threads.virtual.enabled}). With the request
+	 * profiler enabled a {@link ProfilingDataSource} goes on top, so the time
+	 * spent waiting for a permit is not counted as database time. With replicas
+	 * configured the primary goes behind a {@link LazyConnectionDataSourceProxy}
+	 * that takes the connections of read-only transactions from a
+	 * {@link ReadReplicaDataSource}; the proxy only opens a connection at the
+	 * first statement, once the transaction has marked it read-only.
+	 */
+	@Bean
+	public static BeanPostProcessor boundedDataSourcePostProcessor(
+			@Value("${book.datasource.acquire-timeout:PT3S}") Duration acquireTimeout,
+			@Value("${book.profiler.enabled:false}") boolean profilerEnabled,
+			@Value("${book.profiler.slow-query-threshold:PT0.2S}") Duration slowQueryThreshold,
+			ObjectProvider<ReplicaPool> replicaPool) {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof HikariDataSource hikariDataSource) {
+					int poolSize = hikariDataSource.getMaximumPoolSize() > 0 ? hikariDataSource.getMaximumPoolSize()
+							: HIKARI_DEFAULT_POOL_SIZE;
+					DataSource dataSource = new BoundedDataSource(hikariDataSource, poolSize, acquireTimeout);
+					ReplicaPool replicas = replicaPool.getIfAvailable();
+					if (replicas != null) {
+						LazyConnectionDataSourceProxy routingDataSource = new LazyConnectionDataSourceProxy(dataSource);
+						routingDataSource.setReadOnlyDataSource(new ReadReplicaDataSource(dataSource, replicas));
+						dataSource = routingDataSource;
+					}
+					return profilerEnabled ? new ProfilingDataSource(dataSource, slowQueryThreshold) : dataSource;
+				}
+				return bean;
+			}
+
+		};
+	}
+
+	/**
+	 * Publishes the free permits and the number of callers waiting in the
+	 * {@link BoundedDataSource}, next to the hikaricp pool gauges.
+	 */
+	@Bean
+	public MeterBinder boundedDataSourceMetrics(DataSource dataSource) {
+		return registry -> {
+			BoundedDataSource boundedDataSource = unwrapBoundedDataSource(dataSource);
+			if (boundedDataSource != null) {
+				Gauge.builder("book.datasource.permits.available", boundedDataSource, BoundedDataSource::getAvailablePermits)
+						.description("Connections that can be acquired without waiting").register(registry);
+				Gauge.builder("book.datasource.permits.waiting", boundedDataSource, BoundedDataSource::getQueueLength)
+						.description("Callers waiting for a connection").register(registry);
+			}
+		};
+	}
+
+	private static BoundedDataSource unwrapBoundedDataSource(DataSource dataSource) {
+		try {
+			return dataSource.isWrapperFor(BoundedDataSource.class) ? dataSource.unwrap(BoundedDataSource.class) : null;
+		} catch (SQLException e) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.example.demo.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Source of the connections of read-only transactions, set as the read-only
+ * data source of a {@link LazyConnectionDataSourceProxy}. Tries the healthy
+ * replicas in the order the {@link ReplicaPool} picks, marks down a replica
+ * that cannot connect, and falls back to the primary when none is left, when
+ * a replica pool times out under load, or while the current request is pinned
+ * to the primary after a write.
+ */
+public class ReadReplicaDataSource extends AbstractDataSource {
+
+	private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+	private final DataSource primary;
+	private final ReplicaPool replicaPool;
+
+	public ReadReplicaDataSource(DataSource primary, ReplicaPool replicaPool) {
+		this.primary = primary;
+		this.replicaPool = replicaPool;
+	}
+
+	/**
+	 * Sends the reads of the current thread to the primary, so a client sees its
+	 * own writes before they reach the replicas.
+	 */
+	public static void pinToPrimary() {
+		PINNED_TO_PRIMARY.set(Boolean.TRUE);
+	}
+
+	public static void unpin() {
+		PINNED_TO_PRIMARY.remove();
+	}
+
+	/**
+	 * Runs the read on the primary and restores the pin of the current thread
+	 * afterwards. For reads whose result is shared with every client, such as
+	 * cache fills: a row read from a lagging replica would be served from the
+	 * cache even to the client that just wrote it. Only reaches the primary if
+	 * the current transaction has not opened its connection yet.
+	 */
+	public static <T> T onPrimary(Supplier<T> read) {
+		Boolean pinned = PINNED_TO_PRIMARY.get();
+		PINNED_TO_PRIMARY.set(Boolean.TRUE);
+		try {
+			return read.get();
+		} finally {
+			if (pinned == null) {
+				PINNED_TO_PRIMARY.remove();
+			}
+		}
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (PINNED_TO_PRIMARY.get() == null) {
+			for (ReplicaPool.Replica replica : replicaPool.candidates()) {
+				try {
+					return replica.getConnection();
+				} catch (SQLException e) {
+					if (ReplicaPool.isPoolTimeout(e)) {
+						// A busy replica is not a broken one, so only this read goes elsewhere
+						break;
+					}
+					replicaPool.markDown(replica, e);
+				}
+			}
+		}
+		replicaPool.primaryRead();
+		return primary.getConnection();
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		throw new UnsupportedOperationException("Replicas use the credentials of book.datasource.replica");
+	}
+
+}
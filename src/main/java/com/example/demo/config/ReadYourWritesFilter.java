@@ -0,0 +1,85 @@
+package com.example.demo.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Read-your-writes for clients of the read replicas. A write request sets a
+ * cookie holding the end of the read-your-writes window, and every request
+ * that brings it back before then reads from the primary, so a client does
+ * not miss its own write while the replicas catch up. Clients that drop
+ * cookies get no such guarantee.
+ */
+@Component
+@ConditionalOnProperty(name = "book.datasource.replica.urls")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+	public static final String COOKIE = "book-primary-until";
+
+	private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+	private final long windowMillis;
+
+	public ReadYourWritesFilter(@Value("${book.datasource.replica.read-your-writes-window:PT5S}") Duration window) {
+		this.windowMillis = window.toMillis();
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !request.getRequestURI().substring(request.getContextPath().length()).startsWith("/api/");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		long now = System.currentTimeMillis();
+		boolean write = !READ_METHODS.contains(request.getMethod());
+		if (write) {
+			// Set before the chain runs, since the response may be committed by the time it returns
+			Cookie cookie = new Cookie(COOKIE, Long.toString(now + windowMillis));
+			cookie.setPath("/");
+			cookie.setHttpOnly(true);
+			cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+			response.addCookie(cookie);
+		}
+		// The cookie comes from the client, so an end beyond one window from now is ignored
+		long pinnedUntil = pinnedUntil(request);
+		if (write || (pinnedUntil > now && pinnedUntil - now <= windowMillis)) {
+			ReadReplicaDataSource.pinToPrimary();
+		}
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			ReadReplicaDataSource.unpin();
+		}
+	}
+
+	private static long pinnedUntil(HttpServletRequest request) {
+		Cookie[] cookies = request.getCookies();
+		if (cookies != null) {
+			for (Cookie cookie : cookies) {
+				if (cookie.getName().equals(COOKIE)) {
+					try {
+						return Long.parseLong(cookie.getValue());
+					} catch (NumberFormatException e) {
+						return 0;
+					}
+				}
+			}
+		}
+		return 0;
+	}
+
+}
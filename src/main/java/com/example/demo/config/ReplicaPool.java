@@ -0,0 +1,226 @@
+package com.example.demo.config;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Connection pools of the read replicas listed in
+ * {@code book.datasource.replica.urls}, each bounded like the primary. Hands
+ * out the healthy replicas in the order reads should try them, round-robin or
+ * least connections first. A replica that fails to connect is marked down
+ * until the periodic health check, which probes each replica with a
+ * connection of its own rather than one from the pool, finds it valid again.
+ */
+@Component
+@ConditionalOnProperty(name = "book.datasource.replica.urls")
+public class ReplicaPool implements MeterBinder, DisposableBean {
+
+	public static final String ROUND_ROBIN = "round-robin";
+	public static final String LEAST_CONNECTIONS = "least-connections";
+
+	private final List<Replica> replicas = new ArrayList<>();
+	private final boolean leastConnections;
+	private final Duration healthCheckTimeout;
+	private final int healthCheckTimeoutSeconds;
+	private final ExecutorService healthChecks = Executors
+			.newThreadPerTaskExecutor(Thread.ofVirtual().name("replica-health-check-", 0).factory());
+	private final AtomicInteger next = new AtomicInteger();
+	private final AtomicLong primaryReads = new AtomicLong();
+	Logger logger = LoggerFactory.getLogger(ReplicaPool.class);
+
+	public ReplicaPool(@Value("${book.datasource.replica.urls}") List<String> urls,
+			@Value("${book.datasource.replica.username:${spring.datasource.username:}}") String username,
+			@Value("${book.datasource.replica.password:${spring.datasource.password:}}") String password,
+			@Value("${book.datasource.replica.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int maximumPoolSize,
+			@Value("${book.datasource.replica.selection:round-robin}") String selection,
+			@Value("${book.datasource.acquire-timeout:PT3S}") Duration acquireTimeout,
+			@Value("${book.datasource.replica.health-check-timeout:PT1S}") Duration healthCheckTimeout) {
+		if (!selection.equals(ROUND_ROBIN) && !selection.equals(LEAST_CONNECTIONS)) {
+			throw new IllegalArgumentException(
+					"book.datasource.replica.selection must be " + ROUND_ROBIN + " or " + LEAST_CONNECTIONS);
+		}
+		this.leastConnections = selection.equals(LEAST_CONNECTIONS);
+		this.healthCheckTimeout = healthCheckTimeout;
+		this.healthCheckTimeoutSeconds = (int) Math.max(1, healthCheckTimeout.toSeconds());
+		for (String url : urls) {
+			HikariConfig config = new HikariConfig();
+			config.setPoolName("replica-" + (replicas.size() + 1));
+			config.setJdbcUrl(url.trim());
+			config.setUsername(username);
+			config.setPassword(password);
+			config.setMaximumPoolSize(maximumPoolSize);
+			config.setConnectionTimeout(acquireTimeout.toMillis());
+			// A replica that is down at startup must not keep the application from starting
+			config.setInitializationFailTimeout(-1);
+			HikariDataSource pool = new HikariDataSource(config);
+			replicas.add(new Replica(config.getPoolName(), config.getJdbcUrl(), username, password, pool,
+					new BoundedDataSource(pool, maximumPoolSize, acquireTimeout)));
+		}
+	}
+
+	/**
+	 * Returns the healthy replicas in the order a read should try them. Empty
+	 * when every replica is down, in which case reads go to the primary.
+	 */
+	public List<Replica> candidates() {
+		List<Replica> healthy = new ArrayList<>(replicas.size());
+		if (leastConnections) {
+			for (Replica replica : replicas) {
+				if (replica.healthy) {
+					healthy.add(replica);
+				}
+			}
+			healthy.sort((a, b) -> Integer.compare(b.dataSource.getAvailablePermits(), a.dataSource.getAvailablePermits()));
+			return healthy;
+		}
+		int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+		for (int i = 0; i < replicas.size(); i++) {
+			Replica replica = replicas.get((start + i) % replicas.size());
+			if (replica.healthy) {
+				healthy.add(replica);
+			}
+		}
+		return healthy;
+	}
+
+	/**
+	 * Whether the exception only says that no pooled connection became free in
+	 * time. Hikari attaches the last failure to open a connection as the cause
+	 * of its timeout, so a timeout with a cause means the replica is unreachable.
+	 */
+	public static boolean isPoolTimeout(SQLException e) {
+		return e instanceof SQLTransientConnectionException
+				&& (e.getCause() == null || e.getCause() instanceof InterruptedException);
+	}
+
+	public void markDown(Replica replica, SQLException e) {
+		if (replica.healthy) {
+			replica.healthy = false;
+			logger.warn("Replica {} marked down, reads fail over", replica.name, e);
+		}
+		// Connections opened before the failure are likely broken as well
+		replica.pool.getHikariPoolMXBean().softEvictConnections();
+	}
+
+	void primaryRead() {
+		primaryReads.incrementAndGet();
+	}
+
+	@Scheduled(fixedDelayString = "${book.datasource.replica.health-check-interval:PT5S}")
+	public void checkHealth() {
+		for (Replica replica : replicas) {
+			boolean healthy = probe(replica);
+			if (healthy != replica.healthy) {
+				logger.warn("Replica {} is {}", replica.name, healthy ? "back up" : "down");
+				if (!healthy) {
+					replica.pool.getHikariPoolMXBean().softEvictConnections();
+				}
+			}
+			replica.healthy = healthy;
+		}
+	}
+
+	// A busy pool would make a healthy replica look down, and a hung connect must not stall the other checks
+	private boolean probe(Replica replica) {
+		Future<Boolean> probe = healthChecks.submit(() -> {
+			try (Connection connection = DriverManager.getConnection(replica.url, replica.username, replica.password)) {
+				return connection.isValid(healthCheckTimeoutSeconds);
+			}
+		});
+		try {
+			return probe.get(healthCheckTimeout.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (ExecutionException | TimeoutException e) {
+			probe.cancel(true);
+			return false;
+		} catch (InterruptedException e) {
+			probe.cancel(true);
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		for (Replica replica : replicas) {
+			Gauge.builder("book.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+					.description("Whether the replica takes reads").tag("replica", replica.name).register(registry);
+			FunctionCounter.builder("book.datasource.reads", replica.reads, AtomicLong::get)
+					.description("Read-only connections handed out").tag("target", replica.name).register(registry);
+		}
+		FunctionCounter.builder("book.datasource.reads", primaryReads, AtomicLong::get)
+				.description("Read-only connections handed out").tag("target", "primary").register(registry);
+	}
+
+	@Override
+	public void destroy() {
+		healthChecks.shutdownNow();
+		replicas.forEach(replica -> replica.pool.close());
+	}
+
+	public static class Replica {
+
+		private final String name;
+		private final String url;
+		private final String username;
+		private final String password;
+		private final HikariDataSource pool;
+		private final BoundedDataSource dataSource;
+		private final AtomicLong reads = new AtomicLong();
+		private volatile boolean healthy = true;
+
+		Replica(String name, String url, String username, String password, HikariDataSource pool,
+				BoundedDataSource dataSource) {
+			this.name = name;
+			this.url = url;
+			this.username = username;
+			this.password = password;
+			this.pool = pool;
+			this.dataSource = dataSource;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public boolean isHealthy() {
+			return healthy;
+		}
+
+		Connection getConnection() throws SQLException {
+			Connection connection = dataSource.getConnection();
+			reads.incrementAndGet();
+			return connection;
+		}
+
+	}
+
+}
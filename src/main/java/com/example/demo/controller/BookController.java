@@ -1,5 +1,9 @@
 package com.example.demo.controller;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -8,18 +12,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.demo.dto.BookCursorPage;
 import com.example.demo.dto.BookDto;
+import com.example.demo.dto.BookSlice;
+import com.example.demo.exceptions.BookWriteTimeoutException;
+import com.example.demo.exceptions.DuplicateIsbnException;
+import com.example.demo.services.BookETags;
+import com.example.demo.services.BookRecordReader;
 import com.example.demo.services.BookService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -37,11 +53,15 @@ public class BookController {
 	@Operation(summary = "Create a new book", description = "Create a new book with the provided details")
 	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Successfully created the book"),
 			@ApiResponse(responseCode = "400", description = "Invalid input provided"),
-			@ApiResponse(responseCode = "500", description = "Internal server error") })
+			@ApiResponse(responseCode = "500", description = "Internal server error"),
+			@ApiResponse(responseCode = "503", description = "Timed out waiting for a coalesced commit") })
 	@PostMapping("/books")
 	public ResponseEntity<?> createBook(@RequestBody BookDto bookDto) {
 		try {
 			return ResponseEntity.status(200).body(bookService.addNewBook(bookDto));
+		} catch (DuplicateIsbnException e) {
+			logger.debug(e.getLocalizedMessage());
+			return ResponseEntity.status(400).body("Book with the same ISBN already exists");
 		} catch (DataIntegrityViolationException e) {
 			logger.error(e.getLocalizedMessage());
 			if (e.getMessage().contains("ConstraintViolationException") || e.getMessage().contains("isbn")) {
@@ -49,6 +69,9 @@ public class BookController {
 			} else {
 				return ResponseEntity.status(500).body("Failed to save book");
 			}
+		} catch (BookWriteTimeoutException e) {
+			logger.warn(e.getLocalizedMessage());
+			return ResponseEntity.status(503).body(e.getLocalizedMessage());
 		} catch (IllegalArgumentException e) {
 			logger.info(e.getLocalizedMessage());
 			return ResponseEntity.status(400).body(e.getLocalizedMessage());
@@ -59,30 +82,145 @@ public class BookController {
 
 	}
 
-	@Operation(summary = "Get all books from database with Pagination", description = "Get All Books based on user input like page number and size")
+	@Operation(summary = "Create many books at once", description = "Create up to 10000 books inserted in JDBC batches, "
+			+ "reporting validation errors and ISBN conflicts per item instead of failing the whole batch")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Successfully processed the batch and return per item results"),
+			@ApiResponse(responseCode = "400", description = "Empty or too large batch provided"),
+			@ApiResponse(responseCode = "500", description = "Internal server error") })
+	@PostMapping("/books/batch")
+	public ResponseEntity<?> createBooks(@RequestBody List<BookDto> bookDtos) {
+		try {
+			return ResponseEntity.status(200).body(bookService.addNewBooks(bookDtos));
+		} catch (IllegalArgumentException e) {
+			logger.info(e.getLocalizedMessage());
+			return ResponseEntity.status(400).body(e.getLocalizedMessage());
+		} catch (Exception e) {
+			logger.error(e.getLocalizedMessage());
+			return ResponseEntity.status(500).body("Failed to save books");
+		}
+	}
+
+	@Operation(summary = "Import books from NDJSON or CSV", description = "Stream an application/x-ndjson or text/csv body into the database "
+			+ "in chunked transactions and return accepted, rejected and duplicate ISBN counts with per-line errors")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Successfully imported the body and return the summary"),
+			@ApiResponse(responseCode = "400", description = "Invalid CSV header provided"),
+			@ApiResponse(responseCode = "500", description = "Internal server error") })
+	@PostMapping(value = "/books/import", consumes = { "application/x-ndjson", "text/csv" })
+	public ResponseEntity<?> importBooks(InputStream body, @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+		try {
+			String format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+					? BookRecordReader.CSV
+					: BookRecordReader.NDJSON;
+			return ResponseEntity.status(200)
+					.body(bookService.importBooks(new InputStreamReader(body, StandardCharsets.UTF_8), format));
+		} catch (IllegalArgumentException e) {
+			logger.info(e.getLocalizedMessage());
+			return ResponseEntity.status(400).body(e.getLocalizedMessage());
+		} catch (Exception e) {
+			logger.error(e.getLocalizedMessage());
+			return ResponseEntity.status(500).body("Failed to import books");
+		}
+	}
+
+	@Operation(summary = "Get all books from database with Pagination", description = "Get All Books based on user input like page number and size. "
+			+ "Passing 'after' (empty for the first page) switches to cursor pagination, which seeks past the given cursor "
+			+ "instead of skipping rows and returns the cursor of the next page. Passing 'slice=true' skips the COUNT query and "
+			+ "reports 'hasNext' instead, with 'withTotal=true' adding the total maintained by the application. 'publishedFrom' and "
+			+ "'publishedTo' (inclusive ISO dates, either may be left open) limit pages and slices to a publishedDate range. Sorting "
+			+ "is limited to one of id, title, author or publishedDate, each backed by an index, and a range only sorts by publishedDate")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Successfully find all the books from database and return to end user"),
+			@ApiResponse(responseCode = "304", description = "Page not modified since the ETag sent in If-None-Match"),
+			@ApiResponse(responseCode = "400", description = "Invalid cursor, date range or unsupported sort provided"),
 			@ApiResponse(responseCode = "500", description = "Internal server error") })
 	@GetMapping("/books")
-	public ResponseEntity<?> getAllBook(Pageable pageable) {
+	public ResponseEntity<?> getAllBook(Pageable pageable, @RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "false") boolean slice, @RequestParam(defaultValue = "false") boolean withTotal,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedFrom,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedTo) {
 		try {
-			Page<BookDto> booksPage = bookService.getAllBook(pageable);
-			return ResponseEntity.status(200).body(booksPage);
+			// Tagged with a digest of the ids and versions on the page, so a matching
+			// If-None-Match is answered with 304 without serializing the page
+			if (after != null) {
+				if (publishedFrom != null || publishedTo != null) {
+					throw new IllegalArgumentException("Cursor pagination cannot be combined with a publishedDate range");
+				}
+				BookCursorPage cursorPage = bookService.getBooksAfterCursor(after, pageable);
+				return ResponseEntity.status(200).eTag(BookETags.of(cursorPage.getContent(), cursorPage.getSize(),
+						cursorPage.getNextCursor()))
+						.body(cursorPage);
+			}
+			if (slice) {
+				BookSlice bookSlice = bookService.getBookSlice(pageable, withTotal, publishedFrom, publishedTo);
+				return ResponseEntity.status(200).eTag(BookETags.of(bookSlice.getContent(), bookSlice.getPage(),
+						bookSlice.getSize(), bookSlice.isHasNext(), bookSlice.getTotalElements())).body(bookSlice);
+			}
+			Page<BookDto> booksPage = bookService.getAllBook(pageable, publishedFrom, publishedTo);
+			return ResponseEntity.status(200).eTag(BookETags.of(booksPage.getContent(), booksPage.getNumber(),
+					booksPage.getSize(), booksPage.getTotalElements(), booksPage.getSort())).body(booksPage);
+		} catch (IllegalArgumentException e) {
+			logger.info(e.getLocalizedMessage());
+			return ResponseEntity.status(400).body(e.getLocalizedMessage());
 		} catch (Exception e) {
 			logger.error(e.getLocalizedMessage());
 			return ResponseEntity.status(500).body("Failed to fetch books");
 		}
 	}
 
-	@Operation(summary = "Get particular book from database", description = "Get Book from database for the given bookId")
+	@Operation(summary = "Export all books as NDJSON", description = "Stream every book as one JSON object per line straight from a "
+			+ "database scroll, gzip encoded when gzip is true")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Successfully streamed all the books to end user"),
+			@ApiResponse(responseCode = "500", description = "Internal server error") })
+	@GetMapping("/books/export")
+	public ResponseEntity<StreamingResponseBody> exportBooks(@RequestParam(defaultValue = "false") boolean gzip) {
+		StreamingResponseBody body = outputStream -> {
+			try {
+				bookService.exportBooks(outputStream, gzip);
+			} catch (Exception e) {
+				// The status is already committed, so the client sees a truncated stream
+				logger.error(e.getLocalizedMessage());
+				throw e;
+			}
+		};
+		ResponseEntity.BodyBuilder response = ResponseEntity.status(200).contentType(MediaType.parseMediaType("application/x-ndjson"));
+		if (gzip) {
+			response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		return response.body(body);
+	}
+
+	@Operation(summary = "Get book counts by author and year", description = "Get the top authors by number of books and the number of "
+			+ "books per published year, over the books whose author or title starts with prefix or the whole catalog. Counts are "
+			+ "kept in memory and updated on every write, so no query is run")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Successfully return the facet counts to end user"),
+			@ApiResponse(responseCode = "400", description = "Invalid top provided"),
+			@ApiResponse(responseCode = "500", description = "Internal server error") })
+	@GetMapping("/books/facets")
+	public ResponseEntity<?> getFacets(@RequestParam(required = false) String prefix,
+			@RequestParam(defaultValue = "10") int top) {
+		try {
+			return ResponseEntity.status(200).body(bookService.getFacets(prefix, top));
+		} catch (IllegalArgumentException e) {
+			logger.info(e.getLocalizedMessage());
+			return ResponseEntity.status(400).body(e.getLocalizedMessage());
+		} catch (Exception e) {
+			logger.error(e.getLocalizedMessage());
+			return ResponseEntity.status(500).body("Failed to fetch facets");
+		}
+	}
+
+	@Operation(summary = "Get particular book from database", description = "Get Book from database for the given bookId. The JSON is "
+			+ "encoded once and served from a byte cache, gzipped when Accept-Encoding allows it and it is smaller")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Successfully find the book from database and return to end user"),
+			@ApiResponse(responseCode = "304", description = "Book not modified since the ETag or date sent in If-None-Match or If-Modified-Since"),
 			@ApiResponse(responseCode = "404", description = "Book not found"),
 			@ApiResponse(responseCode = "500", description = "Internal server error") })
 	@GetMapping("/books/{id}")
-	public ResponseEntity<?> getBookByBookId(@PathVariable("id") long bookId) {
+	public ResponseEntity<?> getBookByBookId(@PathVariable("id") long bookId,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 		try {
-			return bookService.getBookById(bookId);
+			return bookService.getBookJsonById(bookId, acceptsGzip(acceptEncoding));
 		} catch (Exception e) {
 			logger.error(e.getLocalizedMessage());
 			return ResponseEntity.status(500).body("Failed to fetch book");
@@ -90,15 +228,38 @@ public class BookController {
 
 	}
 
-	@Operation(summary = "Update book details in the database", description = "Update Book into database for the given bookId with given details")
+	@Operation(summary = "Get particular book by ISBN", description = "Get Book for the given ISBN. Unknown ISBNs are answered from memory "
+			+ "without querying the database, and HEAD requests check existence without a body")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Successfully find the book and return to end user"),
+			@ApiResponse(responseCode = "304", description = "Book not modified since the ETag or date sent in If-None-Match or If-Modified-Since"),
+			@ApiResponse(responseCode = "404", description = "Book not found"),
+			@ApiResponse(responseCode = "500", description = "Internal server error") })
+	@GetMapping("/books/by-isbn/{isbn}")
+	public ResponseEntity<?> getBookByIsbn(@PathVariable("isbn") String isbn) {
+		try {
+			return bookService.getBookByIsbn(isbn);
+		} catch (Exception e) {
+			logger.error(e.getLocalizedMessage());
+			return ResponseEntity.status(500).body("Failed to fetch book");
+		}
+	}
+
+	@Operation(summary = "Update book details in the database", description = "Update Book into database for the given bookId with given details. "
+			+ "With If-Match set to the book's ETag the update only applies if the book was not modified since")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Successfully find the book from database and updated the book and return to end user"),
 			@ApiResponse(responseCode = "404", description = "Book not found"),
+			@ApiResponse(responseCode = "412", description = "Book was modified since the ETag sent in If-Match"),
 			@ApiResponse(responseCode = "500", description = "Internal server error") })
 	@PutMapping("/books/{id}")
-	public ResponseEntity<?> updateBookByBookId(@PathVariable("id") long bookId, @RequestBody BookDto bookDto) {
+	public ResponseEntity<?> updateBookByBookId(@PathVariable("id") long bookId, @RequestBody BookDto bookDto,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 		try {
-			return bookService.updateBookById(bookId, bookDto);
+			return bookService.updateBookById(bookId, bookDto, ifMatch == null ? null : BookETags.parseIfMatch(ifMatch));
+		} catch (DuplicateIsbnException e) {
+			logger.debug(e.getLocalizedMessage());
+			return ResponseEntity.status(400).body("Book with the same ISBN already exists");
 		} catch (DataIntegrityViolationException e) {
 			logger.error(e.getLocalizedMessage());
 			if (e.getMessage().contains("ConstraintViolationException") || e.getMessage().contains("isbn")) {
@@ -116,6 +277,36 @@ public class BookController {
 		}
 	}
 
+	@Operation(summary = "Partially update book details in the database", description = "Update only the fields sent for the given bookId "
+			+ "in a single UPDATE statement, keeping the stored value of the fields left out")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Successfully updated the given fields and return the book to end user"),
+			@ApiResponse(responseCode = "400", description = "Invalid input provided"),
+			@ApiResponse(responseCode = "404", description = "Book not found"),
+			@ApiResponse(responseCode = "500", description = "Internal server error") })
+	@PatchMapping("/books/{id}")
+	public ResponseEntity<?> patchBookByBookId(@PathVariable("id") long bookId, @RequestBody BookDto bookDto) {
+		try {
+			return bookService.patchBookById(bookId, bookDto);
+		} catch (DuplicateIsbnException e) {
+			logger.debug(e.getLocalizedMessage());
+			return ResponseEntity.status(400).body("Book with the same ISBN already exists");
+		} catch (DataIntegrityViolationException e) {
+			logger.error(e.getLocalizedMessage());
+			if (e.getMessage().contains("ConstraintViolationException") || e.getMessage().contains("isbn")) {
+				return ResponseEntity.status(400).body("Book with the same ISBN already exists");
+			} else {
+				return ResponseEntity.status(500).body("Failed to update book");
+			}
+		} catch (IllegalArgumentException e) {
+			logger.info(e.getLocalizedMessage());
+			return ResponseEntity.status(400).body(e.getLocalizedMessage());
+		} catch (Exception e) {
+			logger.error(e.getLocalizedMessage());
+			return ResponseEntity.status(500).body("Failed to update book");
+		}
+	}
+
 	@Operation(summary = "Delete particular book from database", description = "Delete Book from database for the given bookId")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Successfully deleted the book from database and return success message to end user"),
@@ -131,6 +322,25 @@ public class BookController {
 		}
 	}
 
+	@Operation(summary = "Delete many books from database", description = "Delete up to 1000 books for the given ids in a single "
+			+ "DELETE statement and return how many were deleted")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Successfully deleted the existing books and return the counts to end user"),
+			@ApiResponse(responseCode = "400", description = "Empty or too many ids provided"),
+			@ApiResponse(responseCode = "500", description = "Internal server error") })
+	@DeleteMapping("/books")
+	public ResponseEntity<?> deleteBooksByIds(@RequestParam List<Long> ids) {
+		try {
+			return ResponseEntity.status(200).body(bookService.deleteBooksByIds(ids));
+		} catch (IllegalArgumentException e) {
+			logger.info(e.getLocalizedMessage());
+			return ResponseEntity.status(400).body(e.getLocalizedMessage());
+		} catch (Exception e) {
+			logger.error(e.getLocalizedMessage());
+			return ResponseEntity.status(500).body("Failed to delete books");
+		}
+	}
+
 	@Operation(summary = "Get all filtered books from database", description = "Get all books from database filtered by author or title for given text")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Successfully find the filtered books from the database or empty list and return end user"),
@@ -146,4 +356,67 @@ public class BookController {
 		}
 
 	}
+
+	@Operation(summary = "Full-text search for books", description = "Get books matching every word of the query in title, author or ISBN, "
+			+ "ranked by relevance and paged by page and size")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Successfully find the ranked books or empty list and return end user"),
+			@ApiResponse(responseCode = "400", description = "Invalid page or size provided"),
+			@ApiResponse(responseCode = "500", description = "Internal server error") })
+	@GetMapping("/search/ranked")
+	public ResponseEntity<?> searchBooks(@RequestParam String q, @RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "20") int size) {
+		try {
+			return ResponseEntity.status(200).body(bookService.searchBooks(q, page, size));
+		} catch (IllegalArgumentException e) {
+			logger.info(e.getLocalizedMessage());
+			return ResponseEntity.status(400).body(e.getLocalizedMessage());
+		} catch (Exception e) {
+			logger.error(e.getLocalizedMessage());
+			return ResponseEntity.status(500).body("Failed to fetch book");
+		}
+	}
+
+	@Operation(summary = "Get typeahead suggestions", description = "Get up to k titles or authors starting with the given text, most frequent first, "
+			+ "served from memory without querying the database")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Successfully find the suggestions or empty list and return end user"),
+			@ApiResponse(responseCode = "500", description = "Internal server error") })
+	@GetMapping("/suggest")
+	public ResponseEntity<?> getSuggestions(@RequestParam String q, @RequestParam(defaultValue = "10") int k) {
+		try {
+			return ResponseEntity.status(200).body(bookService.getSuggestions(q, k));
+		} catch (Exception e) {
+			logger.error(e.getLocalizedMessage());
+			return ResponseEntity.status(500).body("Failed to fetch suggestions");
+		}
+	}
+
+	@Operation(summary = "Get book cache statistics", description = "Get hit, miss and eviction counts of the book-by-id cache")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Successfully return the cache statistics"),
+			@ApiResponse(responseCode = "500", description = "Internal server error") })
+	@GetMapping("/cache/stats")
+	public ResponseEntity<?> getCacheStats() {
+		try {
+			return ResponseEntity.status(200).body(bookService.getCacheStats());
+		} catch (Exception e) {
+			logger.error(e.getLocalizedMessage());
+			return ResponseEntity.status(500).body("Failed to fetch cache statistics");
+		}
+	}
+
+	// True unless gzip is missing from Accept-Encoding or refused with q=0
+	private static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.trim().split(";");
+			if (parts[0].trim().equalsIgnoreCase("gzip")) {
+				return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
+	}
+
 }
@@ -0,0 +1,57 @@
+package com.example.demo.dto;
+
+public class BookBatchItemResult {
+
+	public static final String CREATED = "CREATED";
+	public static final String INVALID = "INVALID";
+	public static final String DUPLICATE_ISBN = "DUPLICATE_ISBN";
+	public static final String FAILED = "FAILED";
+
+	private int index;
+	private String status;
+	private String message;
+	private BookDto book;
+
+	public BookBatchItemResult() {
+	}
+
+	public BookBatchItemResult(int index, String status, String message, BookDto book) {
+		this.index = index;
+		this.status = status;
+		this.message = message;
+		this.book = book;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public void setIndex(int index) {
+		this.index = index;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	public BookDto getBook() {
+		return book;
+	}
+
+	public void setBook(BookDto book) {
+		this.book = book;
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class BookBatchResult {
+
+	private int created;
+	private int failed;
+	private List<BookBatchItemResult> items;
+
+	public BookBatchResult() {
+	}
+
+	public BookBatchResult(int created, int failed, List<BookBatchItemResult> items) {
+		this.created = created;
+		this.failed = failed;
+		this.items = items;
+	}
+
+	public int getCreated() {
+		return created;
+	}
+
+	public void setCreated(int created) {
+		this.created = created;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	public void setFailed(int failed) {
+		this.failed = failed;
+	}
+
+	public List<BookBatchItemResult> getItems() {
+		return items;
+	}
+
+	public void setItems(List<BookBatchItemResult> items) {
+		this.items = items;
+	}
+
+}
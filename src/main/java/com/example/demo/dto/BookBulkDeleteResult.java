@@ -0,0 +1,32 @@
+package com.example.demo.dto;
+
+public class BookBulkDeleteResult {
+
+	private int requested;
+	private int deleted;
+
+	public BookBulkDeleteResult() {
+	}
+
+	public BookBulkDeleteResult(int requested, int deleted) {
+		this.requested = requested;
+		this.deleted = deleted;
+	}
+
+	public int getRequested() {
+		return requested;
+	}
+
+	public void setRequested(int requested) {
+		this.requested = requested;
+	}
+
+	public int getDeleted() {
+		return deleted;
+	}
+
+	public void setDeleted(int deleted) {
+		this.deleted = deleted;
+	}
+
+}
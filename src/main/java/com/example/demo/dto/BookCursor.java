@@ -0,0 +1,68 @@
+package com.example.demo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Position of the last book returned by a keyset (cursor) page. The cursor
+ * carries the sort key, the value of that key for the last book and its id as a
+ * tiebreaker, and is handed to clients as an opaque URL-safe token.
+ */
+public class BookCursor {
+
+	public static final List<String> SORT_KEYS = List.of("id", "title", "author", "publishedDate");
+
+	private static final String SEPARATOR = "\n";
+
+	private final String sortKey;
+	private final String value;
+	private final long id;
+
+	public BookCursor(String sortKey, String value, long id) {
+		this.sortKey = sortKey;
+		this.value = value;
+		this.id = id;
+	}
+
+	public static BookCursor of(String sortKey, BookDto bookDto) {
+		String value = switch (sortKey) {
+		case "title" -> bookDto.getTitle();
+		case "author" -> bookDto.getAuthor();
+		case "publishedDate" -> bookDto.getPublishedDate().toString();
+		default -> "";
+		};
+		return new BookCursor(sortKey, value, bookDto.getId());
+	}
+
+	public String encode() {
+		String raw = sortKey + SEPARATOR + id + SEPARATOR + value;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static BookCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = raw.split(SEPARATOR, 3);
+			if (parts.length != 3 || !SORT_KEYS.contains(parts[0])) {
+				throw new IllegalArgumentException("Invalid cursor");
+			}
+			return new BookCursor(parts[0], parts[2], Long.parseLong(parts[1]));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+	}
+
+	public String getSortKey() {
+		return sortKey;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class BookCursorPage {
+
+	private List<BookDto> content;
+	private int size;
+	private String nextCursor;
+
+	public BookCursorPage() {
+	}
+
+	public BookCursorPage(List<BookDto> content, int size, String nextCursor) {
+		this.content = content;
+		this.size = size;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<BookDto> getContent() {
+		return content;
+	}
+
+	public void setContent(List<BookDto> content) {
+		this.content = content;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public void setSize(int size) {
+		this.size = size;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+}
@@ -1,8 +1,10 @@
 package com.example.demo.dto;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 import com.example.demo.entities.Book;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 public class BookDto {
 
@@ -11,16 +13,39 @@ public class BookDto {
 	private String author;
 	private LocalDate publishedDate;
 	private String isbn;
+	// Sent as the ETag and Last-Modified headers rather than in the body
+	@JsonIgnore
+	private long version;
+	@JsonIgnore
+	private Instant updatedAt;
 
 	public BookDto() {
 	}
 
+	public BookDto(long id, String title, String author, LocalDate publishedDate, String isbn) {
+		this.id = id;
+		this.title = title;
+		this.author = author;
+		this.publishedDate = publishedDate;
+		this.isbn = isbn;
+	}
+
+	// Used by JPQL constructor expressions to read rows straight into DTOs
+	public BookDto(long id, String title, String author, LocalDate publishedDate, String isbn, long version,
+			Instant updatedAt) {
+		this(id, title, author, publishedDate, isbn);
+		this.version = version;
+		this.updatedAt = updatedAt;
+	}
+
 	public BookDto(Book book) {
 		this.id = book.getId();
 		this.title = book.getTitle();
 		this.author = book.getAuthor();
 		this.publishedDate = book.getPublishedDate();
 		this.isbn = book.getIsbn();
+		this.version = book.getVersion();
+		this.updatedAt = book.getUpdatedAt();
 	}
 
 	public long getId() {
@@ -63,4 +88,20 @@ public class BookDto {
 		this.isbn = isbn;
 	}
 
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
+	public Instant getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(Instant updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+
 }
@@ -0,0 +1,32 @@
+package com.example.demo.dto;
+
+public class BookFacetCount {
+
+	private String value;
+	private long count;
+
+	public BookFacetCount() {
+	}
+
+	public BookFacetCount(String value, long count) {
+		this.value = value;
+		this.count = count;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public void setValue(String value) {
+		this.value = value;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public void setCount(long count) {
+		this.count = count;
+	}
+
+}
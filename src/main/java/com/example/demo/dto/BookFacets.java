@@ -0,0 +1,54 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class BookFacets {
+
+	private String prefix;
+	private long total;
+	private List<BookFacetCount> authors;
+	private List<BookFacetCount> years;
+
+	public BookFacets() {
+	}
+
+	public BookFacets(String prefix, long total, List<BookFacetCount> authors, List<BookFacetCount> years) {
+		this.prefix = prefix;
+		this.total = total;
+		this.authors = authors;
+		this.years = years;
+	}
+
+	public String getPrefix() {
+		return prefix;
+	}
+
+	public void setPrefix(String prefix) {
+		this.prefix = prefix;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public void setTotal(long total) {
+		this.total = total;
+	}
+
+	public List<BookFacetCount> getAuthors() {
+		return authors;
+	}
+
+	public void setAuthors(List<BookFacetCount> authors) {
+		this.authors = authors;
+	}
+
+	public List<BookFacetCount> getYears() {
+		return years;
+	}
+
+	public void setYears(List<BookFacetCount> years) {
+		this.years = years;
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.example.demo.dto;
+
+public class BookImportError {
+
+	private long line;
+	private String status;
+	private String message;
+
+	public BookImportError() {
+	}
+
+	public BookImportError(long line, String status, String message) {
+		this.line = line;
+		this.status = status;
+		this.message = message;
+	}
+
+	public long getLine() {
+		return line;
+	}
+
+	public void setLine(long line) {
+		this.line = line;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookImportResult {
+
+	private long accepted;
+	private long rejected;
+	private long duplicates;
+	private List<BookImportError> errors = new ArrayList<>();
+	private boolean errorsTruncated;
+
+	public long getAccepted() {
+		return accepted;
+	}
+
+	public void setAccepted(long accepted) {
+		this.accepted = accepted;
+	}
+
+	public long getRejected() {
+		return rejected;
+	}
+
+	public void setRejected(long rejected) {
+		this.rejected = rejected;
+	}
+
+	public long getDuplicates() {
+		return duplicates;
+	}
+
+	public void setDuplicates(long duplicates) {
+		this.duplicates = duplicates;
+	}
+
+	public List<BookImportError> getErrors() {
+		return errors;
+	}
+
+	public void setErrors(List<BookImportError> errors) {
+		this.errors = errors;
+	}
+
+	public boolean isErrorsTruncated() {
+		return errorsTruncated;
+	}
+
+	public void setErrorsTruncated(boolean errorsTruncated) {
+		this.errorsTruncated = errorsTruncated;
+	}
+
+}
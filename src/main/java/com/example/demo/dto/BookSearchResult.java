@@ -0,0 +1,54 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class BookSearchResult {
+
+	private List<BookDto> content;
+	private int page;
+	private int size;
+	private long totalHits;
+
+	public BookSearchResult() {
+	}
+
+	public BookSearchResult(List<BookDto> content, int page, int size, long totalHits) {
+		this.content = content;
+		this.page = page;
+		this.size = size;
+		this.totalHits = totalHits;
+	}
+
+	public List<BookDto> getContent() {
+		return content;
+	}
+
+	public void setContent(List<BookDto> content) {
+		this.content = content;
+	}
+
+	public int getPage() {
+		return page;
+	}
+
+	public void setPage(int page) {
+		this.page = page;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public void setSize(int size) {
+		this.size = size;
+	}
+
+	public long getTotalHits() {
+		return totalHits;
+	}
+
+	public void setTotalHits(long totalHits) {
+		this.totalHits = totalHits;
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class BookSlice {
+
+	private List<BookDto> content;
+	private int page;
+	private int size;
+	private boolean hasNext;
+	private Long totalElements;
+
+	public BookSlice() {
+	}
+
+	public BookSlice(List<BookDto> content, int page, int size, boolean hasNext, Long totalElements) {
+		this.content = content;
+		this.page = page;
+		this.size = size;
+		this.hasNext = hasNext;
+		this.totalElements = totalElements;
+	}
+
+	public List<BookDto> getContent() {
+		return content;
+	}
+
+	public void setContent(List<BookDto> content) {
+		this.content = content;
+	}
+
+	public int getPage() {
+		return page;
+	}
+
+	public void setPage(int page) {
+		this.page = page;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public void setSize(int size) {
+		this.size = size;
+	}
+
+	public boolean isHasNext() {
+		return hasNext;
+	}
+
+	public void setHasNext(boolean hasNext) {
+		this.hasNext = hasNext;
+	}
+
+	public Long getTotalElements() {
+		return totalElements;
+	}
+
+	public void setTotalElements(Long totalElements) {
+		this.totalElements = totalElements;
+	}
+
+}
@@ -1,6 +1,10 @@
 package com.example.demo.entities;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import org.hibernate.annotations.ColumnDefault;
 
 import com.example.demo.dto.BookDto;
 
@@ -9,12 +13,18 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 
 @Entity
 public class Book {
 
+	// Pooled sequence ids are assigned before the INSERT, which lets Hibernate
+	// batch inserts; IDENTITY would force one round-trip per row
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+	@SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
 	private long id;
 	@Column(nullable = false)
 	private String title;
@@ -24,6 +34,13 @@ public class Book {
 	private LocalDate publishedDate;
 	@Column(nullable = false, unique = true)
 	private String isbn;
+	// Back the ETag and Last-Modified headers of book responses; rows written
+	// outside Hibernate start at version 0
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private long version;
+	private Instant updatedAt;
 
 	public Book() {
 	}
@@ -36,6 +53,13 @@ public class Book {
 		this.isbn = bookDto.getIsbn();
 	}
 
+	@PrePersist
+	void prePersist() {
+		if (updatedAt == null) {
+			updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+		}
+	}
+
 	public long getId() {
 		return id;
 	}
@@ -76,4 +100,20 @@ public class Book {
 		this.isbn = isbn;
 	}
 
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
+	public Instant getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(Instant updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+
 }
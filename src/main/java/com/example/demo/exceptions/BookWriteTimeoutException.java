@@ -0,0 +1,16 @@
+package com.example.demo.exceptions;
+
+/**
+ * Thrown when a coalesced book create is not committed within the submit
+ * timeout. A book still waiting in the queue is dropped; one whose batch was
+ * already being written may still be created.
+ */
+public class BookWriteTimeoutException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public BookWriteTimeoutException(String message) {
+		super(message);
+	}
+
+}
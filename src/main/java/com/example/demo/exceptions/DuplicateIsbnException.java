@@ -0,0 +1,16 @@
+package com.example.demo.exceptions;
+
+/**
+ * Thrown when a book is written with an ISBN that another book already holds.
+ * Duplicates are an expected outcome of partner feeds rather than a fault, so
+ * no stack trace is captured.
+ */
+public class DuplicateIsbnException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public DuplicateIsbnException(String isbn) {
+		super("Book with the same ISBN already exists: " + isbn, null, false, false);
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.example.demo.profiling;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Swaps the Jackson converters for ones that add the time spent writing JSON
+ * to the current {@link RequestProfile}. Only loaded with the profiler
+ * enabled, so regular responses go through the stock converter.
+ */
+@Configuration
+@ConditionalOnProperty(name = "book.profiler.enabled", havingValue = "true")
+public class ProfilingConfig implements WebMvcConfigurer {
+
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		for (int i = 0; i < converters.size(); i++) {
+			if (converters.get(i) instanceof MappingJackson2HttpMessageConverter converter) {
+				converters.set(i, new ProfilingJackson2HttpMessageConverter(converter.getObjectMapper()));
+			}
+		}
+	}
+
+	static class ProfilingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+		ProfilingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+			super(objectMapper);
+		}
+
+		@Override
+		protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+				throws IOException, HttpMessageNotWritableException {
+			RequestProfile profile = RequestProfile.current();
+			long start = System.nanoTime();
+			try {
+				super.writeInternal(object, type, outputMessage);
+			} finally {
+				if (profile != null) {
+					profile.serialized(System.nanoTime() - start);
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,143 @@
+package com.example.demo.profiling;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Times every statement run through its connections and adds the time, the
+ * SQL and the number of bound parameters to the current {@link RequestProfile}.
+ * Statements slower than the slow query threshold are logged as key=value
+ * pairs whether or not they run inside a profiled request.
+ */
+public class ProfilingDataSource extends DelegatingDataSource {
+
+	Logger logger = LoggerFactory.getLogger(ProfilingDataSource.class);
+
+	private final long slowQueryNanos;
+
+	public ProfilingDataSource(DataSource targetDataSource, Duration slowQueryThreshold) {
+		super(targetDataSource);
+		this.slowQueryNanos = slowQueryThreshold.toNanos();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return profile(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return profile(super.getConnection(username, password));
+	}
+
+	private Connection profile(Connection connection) {
+		return proxy(Connection.class, connection, (proxy, method, args) -> {
+			Object result = invoke(connection, method, args);
+			if (result instanceof Statement statement) {
+				String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+				return proxy(method.getReturnType(), statement, new StatementHandler(statement, sql));
+			}
+			return result;
+		});
+	}
+
+	private void executed(String sql, long nanos, int binds) {
+		RequestProfile profile = RequestProfile.current();
+		if (profile != null) {
+			profile.statementExecuted(sql, nanos, binds);
+		}
+		if (nanos >= slowQueryNanos) {
+			logger.warn("slow_query duration_ms={} binds={} sql={}", RequestProfile.millis(nanos), binds,
+					RequestProfile.quote(String.valueOf(sql)));
+		}
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+
+	private class StatementHandler implements InvocationHandler {
+
+		private final Statement statement;
+		private String sql;
+		private int binds;
+
+		StatementHandler(Statement statement, String sql) {
+			this.statement = statement;
+			this.sql = sql;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.startsWith("execute")) {
+				if (args != null && args.length > 0 && args[0] instanceof String text) {
+					sql = text;
+				}
+				long start = System.nanoTime();
+				try {
+					return wrapResultSet(ProfilingDataSource.invoke(statement, method, args));
+				} finally {
+					executed(sql, System.nanoTime() - start, binds);
+					binds = 0;
+				}
+			}
+			// Parameter setters are declared on PreparedStatement and CallableStatement only
+			if (name.startsWith("set") && (method.getDeclaringClass() == PreparedStatement.class
+					|| method.getDeclaringClass() == CallableStatement.class)) {
+				binds++;
+			} else if (name.equals("addBatch") && args != null && args.length == 1) {
+				sql = (String) args[0];
+			} else if (name.equals("getResultSet")) {
+				return wrapResultSet(ProfilingDataSource.invoke(statement, method, args));
+			}
+			return ProfilingDataSource.invoke(statement, method, args);
+		}
+
+		private Object wrapResultSet(Object result) {
+			if (!(result instanceof ResultSet resultSet)) {
+				return result;
+			}
+			return proxy(ResultSet.class, resultSet, (proxy, method, args) -> {
+				if (!method.getName().equals("next")) {
+					return ProfilingDataSource.invoke(resultSet, method, args);
+				}
+				long start = System.nanoTime();
+				try {
+					return ProfilingDataSource.invoke(resultSet, method, args);
+				} finally {
+					RequestProfile profile = RequestProfile.current();
+					if (profile != null) {
+						profile.rowsFetched(System.nanoTime() - start);
+					}
+				}
+			});
+		}
+
+	}
+
+}
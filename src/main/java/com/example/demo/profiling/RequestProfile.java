@@ -0,0 +1,120 @@
+package com.example.demo.profiling;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Time spent by the current request in the database, in entity-to-DTO mapping
+ * and in JSON serialization. A profile is bound to the request thread by
+ * {@link RequestProfilingFilter}; while the profiler is disabled nothing is
+ * bound and {@link #mapping(Supplier)} only reads a static flag.
+ */
+public final class RequestProfile {
+
+	private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+	private static volatile boolean enabled;
+
+	private final long startNanos = System.nanoTime();
+	private long dbNanos;
+	private int statements;
+	private int binds;
+	private long mappingNanos;
+	private long serializationNanos;
+	private String slowestSql;
+	private long slowestSqlNanos = -1;
+	private int slowestSqlBinds;
+
+	private RequestProfile() {
+	}
+
+	static void setEnabled(boolean enabled) {
+		RequestProfile.enabled = enabled;
+	}
+
+	static RequestProfile start() {
+		RequestProfile profile = new RequestProfile();
+		CURRENT.set(profile);
+		return profile;
+	}
+
+	static void end() {
+		CURRENT.remove();
+	}
+
+	static RequestProfile current() {
+		return enabled ? CURRENT.get() : null;
+	}
+
+	/**
+	 * Runs the mapping and adds its duration to the current profile, if any.
+	 */
+	public static <T> T mapping(Supplier<T> mapping) {
+		RequestProfile profile = current();
+		if (profile == null) {
+			return mapping.get();
+		}
+		long start = System.nanoTime();
+		try {
+			return mapping.get();
+		} finally {
+			profile.mappingNanos += System.nanoTime() - start;
+		}
+	}
+
+	void statementExecuted(String sql, long nanos, int bindCount) {
+		dbNanos += nanos;
+		statements++;
+		binds += bindCount;
+		if (nanos > slowestSqlNanos) {
+			slowestSql = sql;
+			slowestSqlNanos = nanos;
+			slowestSqlBinds = bindCount;
+		}
+	}
+
+	// Rows fetched after the statement ran, e.g. by a driver using cursor fetch
+	void rowsFetched(long nanos) {
+		dbNanos += nanos;
+	}
+
+	void serialized(long nanos) {
+		serializationNanos += nanos;
+	}
+
+	long elapsedNanos() {
+		return System.nanoTime() - startNanos;
+	}
+
+	/**
+	 * Formats the profile as a Server-Timing header value, with durations in
+	 * milliseconds.
+	 */
+	String toServerTiming(long totalNanos) {
+		return "db;dur=" + millis(dbNanos) + ";desc=\"" + statements + " statements, " + binds + " binds\", map;dur="
+				+ millis(mappingNanos) + ", ser;dur=" + millis(serializationNanos) + ", total;dur=" + millis(totalNanos);
+	}
+
+	/**
+	 * Formats the profile as key=value pairs for the slow request log.
+	 */
+	String toLogFields(long totalNanos) {
+		StringBuilder fields = new StringBuilder().append("total_ms=").append(millis(totalNanos)).append(" db_ms=")
+				.append(millis(dbNanos)).append(" statements=").append(statements).append(" binds=").append(binds)
+				.append(" mapping_ms=").append(millis(mappingNanos)).append(" serialization_ms=")
+				.append(millis(serializationNanos));
+		if (slowestSql != null) {
+			fields.append(" slowest_sql_ms=").append(millis(slowestSqlNanos)).append(" slowest_sql_binds=")
+					.append(slowestSqlBinds).append(" slowest_sql=").append(quote(slowestSql));
+		}
+		return fields.toString();
+	}
+
+	static String millis(long nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+	}
+
+	static String quote(String value) {
+		return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"").replaceAll("\\s+", " ") + '"';
+	}
+
+}
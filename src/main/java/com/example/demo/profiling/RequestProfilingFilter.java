@@ -0,0 +1,73 @@
+package com.example.demo.profiling;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Profiles every API request and sends the breakdown in a
+ * {@code Server-Timing} header. The response body is buffered until the
+ * request completes, since the header has to go out before it; streamed
+ * responses such as the export are therefore left out. Requests slower than
+ * the slow request threshold are logged as key=value pairs.
+ */
+@Component
+@ConditionalOnProperty(name = "book.profiler.enabled", havingValue = "true")
+public class RequestProfilingFilter extends OncePerRequestFilter {
+
+	public static final String SERVER_TIMING = "Server-Timing";
+
+	Logger logger = LoggerFactory.getLogger(RequestProfilingFilter.class);
+
+	private final long slowRequestNanos;
+	private final List<String> excludedPaths;
+
+	public RequestProfilingFilter(@Value("${book.profiler.slow-request-threshold:PT1S}") Duration slowRequestThreshold,
+			@Value("${book.profiler.excluded-paths:/api/books/export}") List<String> excludedPaths) {
+		this.slowRequestNanos = slowRequestThreshold.toNanos();
+		this.excludedPaths = excludedPaths;
+		RequestProfile.setEnabled(true);
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		return !path.startsWith("/api/") || excludedPaths.contains(path);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		RequestProfile profile = RequestProfile.start();
+		ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+		try {
+			filterChain.doFilter(request, responseWrapper);
+		} finally {
+			RequestProfile.end();
+			long totalNanos = profile.elapsedNanos();
+			if (!response.isCommitted()) {
+				response.setHeader(SERVER_TIMING, profile.toServerTiming(totalNanos));
+			}
+			if (totalNanos >= slowRequestNanos) {
+				logger.warn("slow_request method={} uri={} status={} {}", request.getMethod(),
+						RequestProfile.quote(request.getRequestURI()), responseWrapper.getStatus(),
+						profile.toLogFields(totalNanos));
+			}
+			responseWrapper.copyBodyToResponse();
+		}
+	}
+
+}
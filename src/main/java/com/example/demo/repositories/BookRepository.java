@@ -1,15 +1,156 @@
 package com.example.demo.repositories;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.dto.BookDto;
 import com.example.demo.entities.Book;
 
+import jakarta.persistence.QueryHint;
+
 public interface BookRepository extends JpaRepository<Book, Long> {
 
 	@Query("SELECT b FROM Book b WHERE b.author LIKE ?1% OR b.title LIKE ?1%")
 	List<Book> findByAuthorOrTitle(String searchText);
 
+	// DTO projections for the read path: rows are read straight into BookDto, so
+	// no managed entities, snapshots or dirty checks are involved
+
+	@Query(value = "SELECT new com.example.demo.dto.BookDto(b.id, b.title, b.author, b.publishedDate, b.isbn, b.version, b.updatedAt) FROM Book b",
+			countQuery = "SELECT COUNT(b) FROM Book b")
+	Page<BookDto> findAllBookDtos(Pageable pageable);
+
+	// Range scans on idx_book_published_date_id, which also returns the rows in
+	// publishedDate order, the only sort accepted together with the range
+	@Query(value = "SELECT new com.example.demo.dto.BookDto(b.id, b.title, b.author, b.publishedDate, b.isbn, b.version, b.updatedAt) FROM Book b "
+			+ "WHERE b.publishedDate BETWEEN :publishedFrom AND :publishedTo",
+			countQuery = "SELECT COUNT(b) FROM Book b WHERE b.publishedDate BETWEEN :publishedFrom AND :publishedTo")
+	Page<BookDto> findBookDtosByPublishedDateBetween(@Param("publishedFrom") LocalDate publishedFrom,
+			@Param("publishedTo") LocalDate publishedTo, Pageable pageable);
+
+	// Read-only transactions of their own, so the services can check their
+	// caches first and only take a connection on a miss
+	@Transactional(readOnly = true)
+	@Query("SELECT new com.example.demo.dto.BookDto(b.id, b.title, b.author, b.publishedDate, b.isbn, b.version, b.updatedAt) FROM Book b WHERE b.id = :id")
+	Optional<BookDto> findBookDtoById(@Param("id") long id);
+
+	@Query("SELECT new com.example.demo.dto.BookDto(b.id, b.title, b.author, b.publishedDate, b.isbn, b.version, b.updatedAt) FROM Book b "
+			+ "WHERE b.author LIKE ?1% OR b.title LIKE ?1%")
+	List<BookDto> findBookDtosByAuthorOrTitle(String searchText);
+
+	// Read-only on its own, like findBookDtoById
+	@Transactional(readOnly = true)
+	@Query("SELECT new com.example.demo.dto.BookDto(b.id, b.title, b.author, b.publishedDate, b.isbn, b.version, b.updatedAt) FROM Book b WHERE b.isbn = :isbn")
+	Optional<BookDto> findBookDtoByIsbn(@Param("isbn") String isbn);
+
+	// In no particular order, callers put the rows back in the order of the ids
+	@Query("SELECT new com.example.demo.dto.BookDto(b.id, b.title, b.author, b.publishedDate, b.isbn, b.version, b.updatedAt) FROM Book b WHERE b.id IN :ids")
+	List<BookDto> findBookDtosByIds(@Param("ids") Collection<Long> ids);
+
+	// Single-statement writes: the affected-row count tells whether the book
+	// existed, so no SELECT is needed before the UPDATE or DELETE. Updates bump
+	// the version themselves, since bulk JPQL bypasses Hibernate's versioning.
+
+	@Modifying
+	@Query("UPDATE Book b SET b.title = :title, b.author = :author, b.publishedDate = :publishedDate, b.isbn = :isbn, "
+			+ "b.version = b.version + 1, b.updatedAt = :updatedAt WHERE b.id = :id")
+	int updateBookById(@Param("id") long id, @Param("title") String title, @Param("author") String author,
+			@Param("publishedDate") LocalDate publishedDate, @Param("isbn") String isbn, @Param("updatedAt") Instant updatedAt);
+
+	// Compare-and-set on the version, so a write based on a stale read changes nothing
+	@Modifying
+	@Query("UPDATE Book b SET b.title = :title, b.author = :author, b.publishedDate = :publishedDate, b.isbn = :isbn, "
+			+ "b.version = b.version + 1, b.updatedAt = :updatedAt WHERE b.id = :id AND b.version = :version")
+	int updateBookByIdAndVersion(@Param("id") long id, @Param("version") long version, @Param("title") String title,
+			@Param("author") String author, @Param("publishedDate") LocalDate publishedDate, @Param("isbn") String isbn,
+			@Param("updatedAt") Instant updatedAt);
+
+	// Null parameters keep the current column value
+	@Modifying
+	@Query("UPDATE Book b SET b.title = COALESCE(:title, b.title), b.author = COALESCE(:author, b.author), "
+			+ "b.publishedDate = COALESCE(:publishedDate, b.publishedDate), b.isbn = COALESCE(:isbn, b.isbn), "
+			+ "b.version = b.version + 1, b.updatedAt = :updatedAt WHERE b.id = :id")
+	int patchBookById(@Param("id") long id, @Param("title") String title, @Param("author") String author,
+			@Param("publishedDate") LocalDate publishedDate, @Param("isbn") String isbn, @Param("updatedAt") Instant updatedAt);
+
+	@Modifying
+	@Query("DELETE FROM Book b WHERE b.id = :id")
+	int deleteBookById(@Param("id") long id);
+
+	@Modifying
+	@Query("DELETE FROM Book b WHERE b.id IN :ids")
+	int deleteBooksByIds(@Param("ids") Collection<Long> ids);
+
+	@Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+	List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+	@Query("SELECT b.id FROM Book b WHERE b.isbn = :isbn")
+	Optional<Long> findIdByIsbn(@Param("isbn") String isbn);
+
+	// Forward-only scroll for exports: rows are fetched from the driver in fixed
+	// size chunks and the entities are read-only, so no snapshots are kept
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	@Query("SELECT b FROM Book b ORDER BY b.id")
+	Stream<Book> streamAllBy();
+
+	// Returning a Slice makes Spring Data fetch one extra row instead of running a COUNT query
+	@Query("SELECT new com.example.demo.dto.BookDto(b.id, b.title, b.author, b.publishedDate, b.isbn, b.version, b.updatedAt) FROM Book b")
+	Slice<BookDto> findBookDtoSliceBy(Pageable pageable);
+
+	@Query("SELECT new com.example.demo.dto.BookDto(b.id, b.title, b.author, b.publishedDate, b.isbn, b.version, b.updatedAt) FROM Book b "
+			+ "WHERE b.publishedDate BETWEEN :publishedFrom AND :publishedTo")
+	Slice<BookDto> findBookDtoSliceByPublishedDateBetween(@Param("publishedFrom") LocalDate publishedFrom,
+			@Param("publishedTo") LocalDate publishedTo, Pageable pageable);
+
+	// Keyset (seek) queries, projected into BookDto like the reads above: the page
+	// size comes from the Pageable, which must not carry an offset or a sort, so no
+	// COUNT query is issued and no rows are skipped.
+	// The leading >= on the sort column lets the (column, id) index seek to the
+	// cursor; with only an OR of the two cases it is read from the start instead.
+
+	@Query("SELECT new com.example.demo.dto.BookDto(b.id, b.title, b.author, b.publishedDate, b.isbn, b.version, b.updatedAt) FROM Book b "
+			+ "WHERE b.id > :afterId ORDER BY b.id")
+	List<BookDto> findNextBookDtosById(@Param("afterId") long afterId, Pageable pageable);
+
+	@Query("SELECT new com.example.demo.dto.BookDto(b.id, b.title, b.author, b.publishedDate, b.isbn, b.version, b.updatedAt) FROM Book b "
+			+ "ORDER BY b.title, b.id")
+	List<BookDto> findBookDtoPageOrderedByTitle(Pageable pageable);
+
+	@Query("SELECT new com.example.demo.dto.BookDto(b.id, b.title, b.author, b.publishedDate, b.isbn, b.version, b.updatedAt) FROM Book b "
+			+ "WHERE b.title >= :title AND (b.title > :title OR b.id > :afterId) ORDER BY b.title, b.id")
+	List<BookDto> findNextBookDtosByTitle(@Param("title") String title, @Param("afterId") long afterId, Pageable pageable);
+
+	@Query("SELECT new com.example.demo.dto.BookDto(b.id, b.title, b.author, b.publishedDate, b.isbn, b.version, b.updatedAt) FROM Book b "
+			+ "ORDER BY b.author, b.id")
+	List<BookDto> findBookDtoPageOrderedByAuthor(Pageable pageable);
+
+	@Query("SELECT new com.example.demo.dto.BookDto(b.id, b.title, b.author, b.publishedDate, b.isbn, b.version, b.updatedAt) FROM Book b "
+			+ "WHERE b.author >= :author AND (b.author > :author OR b.id > :afterId) ORDER BY b.author, b.id")
+	List<BookDto> findNextBookDtosByAuthor(@Param("author") String author, @Param("afterId") long afterId, Pageable pageable);
+
+	@Query("SELECT new com.example.demo.dto.BookDto(b.id, b.title, b.author, b.publishedDate, b.isbn, b.version, b.updatedAt) FROM Book b "
+			+ "ORDER BY b.publishedDate, b.id")
+	List<BookDto> findBookDtoPageOrderedByPublishedDate(Pageable pageable);
+
+	@Query("SELECT new com.example.demo.dto.BookDto(b.id, b.title, b.author, b.publishedDate, b.isbn, b.version, b.updatedAt) FROM Book b "
+			+ "WHERE b.publishedDate >= :publishedDate AND (b.publishedDate > :publishedDate OR b.id > :afterId) ORDER BY b.publishedDate, b.id")
+	List<BookDto> findNextBookDtosByPublishedDate(@Param("publishedDate") LocalDate publishedDate, @Param("afterId") long afterId,
+			Pageable pageable);
+
 }
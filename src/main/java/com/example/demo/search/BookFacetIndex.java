@@ -0,0 +1,233 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.BookDto;
+import com.example.demo.dto.BookFacetCount;
+import com.example.demo.dto.BookFacets;
+import com.example.demo.services.BookChangeListener;
+
+/**
+ * Book counts by author and by published year, kept up to date on every write
+ * instead of being grouped by the database per request. Authors are also kept
+ * ranked by count, so the unfiltered top authors are read off the front of the
+ * ranking. A prefix narrows the facets to the books whose normalized author or
+ * title starts with it, like GET /api/search, and costs the matching authors
+ * plus the books matched by title only.
+ */
+@Component
+public class BookFacetIndex implements BookChangeListener {
+
+	public static final int MAX_AUTHORS = 100;
+
+	private static final Comparator<AuthorCount> RANKING = Comparator.comparingLong((AuthorCount author) -> author.count)
+			.reversed().thenComparing(author -> author.key);
+
+	private final Map<Long, Entry> entries = new HashMap<>();
+	private final NavigableMap<String, AuthorCount> authors = new TreeMap<>();
+	private final NavigableSet<AuthorCount> ranking = new TreeSet<>(RANKING);
+	private final NavigableMap<Integer, Long> years = new TreeMap<>();
+	private final NavigableMap<String, Set<Long>> booksByTitle = new TreeMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Returns the top authors by book count, at most {@link #MAX_AUTHORS}, and
+	 * the number of books per published year in ascending order, over the books
+	 * matching the prefix or the whole catalog when it is blank.
+	 */
+	public BookFacets facets(String prefix, int top) {
+		int k = Math.max(1, Math.min(top, MAX_AUTHORS));
+		String key = TextNormalizer.normalize(prefix);
+		lock.readLock().lock();
+		try {
+			if (key.isEmpty()) {
+				List<BookFacetCount> topAuthors = new ArrayList<>(k);
+				Iterator<AuthorCount> ranked = ranking.iterator();
+				while (ranked.hasNext() && topAuthors.size() < k) {
+					AuthorCount author = ranked.next();
+					topAuthors.add(new BookFacetCount(author.name, author.count));
+				}
+				return new BookFacets(prefix, entries.size(), topAuthors, yearCounts(years));
+			}
+			String end = key + Character.MAX_VALUE;
+			Map<AuthorCount, Long> authorCounts = new HashMap<>();
+			NavigableMap<Integer, Long> yearCounts = new TreeMap<>();
+			long total = 0;
+			for (AuthorCount author : authors.subMap(key, true, end, false).values()) {
+				authorCounts.put(author, author.count);
+				author.years.forEach((year, count) -> yearCounts.merge(year, count, Long::sum));
+				total += author.count;
+			}
+			// Books whose author already matched were counted with their author
+			for (Set<Long> bookIds : booksByTitle.subMap(key, true, end, false).values()) {
+				for (Long bookId : bookIds) {
+					Entry entry = entries.get(bookId);
+					if (entry.authorKey.startsWith(key)) {
+						continue;
+					}
+					AuthorCount author = authors.get(entry.authorKey);
+					if (author != null) {
+						authorCounts.merge(author, 1L, Long::sum);
+					}
+					if (entry.year != null) {
+						yearCounts.merge(entry.year, 1L, Long::sum);
+					}
+					total++;
+				}
+			}
+			List<Map.Entry<AuthorCount, Long>> ranked = new ArrayList<>(authorCounts.entrySet());
+			ranked.sort(Map.Entry.<AuthorCount, Long>comparingByValue().reversed()
+					.thenComparing(entry -> entry.getKey().key));
+			List<BookFacetCount> topAuthors = new ArrayList<>(Math.min(k, ranked.size()));
+			for (Map.Entry<AuthorCount, Long> entry : ranked.subList(0, Math.min(k, ranked.size()))) {
+				topAuthors.add(new BookFacetCount(entry.getKey().name, entry.getValue()));
+			}
+			return new BookFacets(prefix, total, topAuthors, yearCounts(yearCounts));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return entries.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void bookLoaded(BookDto bookDto) {
+		bookUpdated(bookDto);
+	}
+
+	@Override
+	public void bookCreated(BookDto bookDto) {
+		bookUpdated(bookDto);
+	}
+
+	@Override
+	public void bookUpdated(BookDto bookDto) {
+		Entry entry = new Entry(TextNormalizer.normalize(bookDto.getAuthor()),
+				TextNormalizer.normalize(bookDto.getTitle()),
+				bookDto.getPublishedDate() != null ? bookDto.getPublishedDate().getYear() : null);
+		lock.writeLock().lock();
+		try {
+			// The previous entry tells which author and year lose the book when they changed
+			Entry previous = entries.put(bookDto.getId(), entry);
+			if (previous != null) {
+				remove(bookDto.getId(), previous);
+			}
+			add(bookDto.getId(), entry, bookDto.getAuthor());
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void bookDeleted(long bookId) {
+		lock.writeLock().lock();
+		try {
+			Entry previous = entries.remove(bookId);
+			if (previous != null) {
+				remove(bookId, previous);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void add(long bookId, Entry entry, String authorName) {
+		if (!entry.authorKey.isEmpty()) {
+			AuthorCount author = authors.computeIfAbsent(entry.authorKey, key -> new AuthorCount(key, authorName.trim()));
+			ranking.remove(author);
+			author.count++;
+			ranking.add(author);
+			if (entry.year != null) {
+				author.years.merge(entry.year, 1L, Long::sum);
+			}
+		}
+		if (entry.year != null) {
+			years.merge(entry.year, 1L, Long::sum);
+		}
+		booksByTitle.computeIfAbsent(entry.titleKey, key -> new HashSet<>(2)).add(bookId);
+	}
+
+	private void remove(long bookId, Entry entry) {
+		AuthorCount author = authors.get(entry.authorKey);
+		if (author != null) {
+			ranking.remove(author);
+			author.count--;
+			if (entry.year != null) {
+				decrement(author.years, entry.year);
+			}
+			if (author.count == 0) {
+				authors.remove(entry.authorKey);
+			} else {
+				ranking.add(author);
+			}
+		}
+		if (entry.year != null) {
+			decrement(years, entry.year);
+		}
+		Set<Long> bookIds = booksByTitle.get(entry.titleKey);
+		if (bookIds != null && bookIds.remove(bookId) && bookIds.isEmpty()) {
+			booksByTitle.remove(entry.titleKey);
+		}
+	}
+
+	private static void decrement(Map<Integer, Long> counts, int year) {
+		counts.computeIfPresent(year, (y, count) -> count == 1 ? null : count - 1);
+	}
+
+	private static List<BookFacetCount> yearCounts(NavigableMap<Integer, Long> counts) {
+		List<BookFacetCount> yearCounts = new ArrayList<>(counts.size());
+		counts.forEach((year, count) -> yearCounts.add(new BookFacetCount(String.valueOf(year), count)));
+		return yearCounts;
+	}
+
+	private static class Entry {
+
+		private final String authorKey;
+		private final String titleKey;
+		private final Integer year;
+
+		private Entry(String authorKey, String titleKey, Integer year) {
+			this.authorKey = authorKey;
+			this.titleKey = titleKey;
+			this.year = year;
+		}
+
+	}
+
+	private static class AuthorCount {
+
+		private final String key;
+		private final String name;
+		private final Map<Integer, Long> years = new HashMap<>(4);
+		private long count;
+
+		private AuthorCount(String key, String name) {
+			this.key = key;
+			this.name = name;
+		}
+
+	}
+
+}
@@ -0,0 +1,211 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.BookDto;
+import com.example.demo.services.BookChangeListener;
+
+/**
+ * Inverted index over the title, author and ISBN of all books. Queries are
+ * tokenized like the documents, matched against the postings lists of their
+ * terms and ranked with BM25, so multi-word queries never scan the catalog.
+ */
+@Component
+public class BookSearchIndex implements BookChangeListener {
+
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+	private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+	private final Map<Long, List<String>> tokensByBook = new HashMap<>();
+	private long totalTokens;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Returns the ids of the books containing every query term for the
+	 * requested page, best first, together with the total number of matching
+	 * books. Candidates come from the rarest term's postings only, so common
+	 * words in a query do not widen the work to the whole catalog.
+	 */
+	public SearchHits search(String query, int page, int size) {
+		Set<String> terms = new LinkedHashSet<>(tokenize(query));
+		lock.readLock().lock();
+		try {
+			List<Map<Long, Integer>> termPostings = new ArrayList<>();
+			for (String term : terms) {
+				Map<Long, Integer> postingsOfTerm = postings.get(term);
+				if (postingsOfTerm == null) {
+					return new SearchHits(new ArrayList<>(), 0);
+				}
+				termPostings.add(postingsOfTerm);
+			}
+			if (termPostings.isEmpty()) {
+				return new SearchHits(new ArrayList<>(), 0);
+			}
+			termPostings.sort(Comparator.comparingInt(Map::size));
+			int documents = tokensByBook.size();
+			double averageLength = (double) totalTokens / documents;
+			double[] idf = new double[termPostings.size()];
+			for (int i = 0; i < idf.length; i++) {
+				int frequency = termPostings.get(i).size();
+				idf[i] = Math.log(1 + (documents - frequency + 0.5) / (frequency + 0.5));
+			}
+			Map<Long, Double> scores = new HashMap<>();
+			candidates: for (Long bookId : termPostings.get(0).keySet()) {
+				double lengthNorm = K1 * (1 - B + B * tokensByBook.get(bookId).size() / averageLength);
+				double score = 0;
+				for (int i = 0; i < idf.length; i++) {
+					Integer frequency = termPostings.get(i).get(bookId);
+					if (frequency == null) {
+						continue candidates;
+					}
+					score += idf[i] * frequency * (K1 + 1) / (frequency + lengthNorm);
+				}
+				scores.put(bookId, score);
+			}
+			return new SearchHits(topIds(scores, page, size), scores.size());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return tokensByBook.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void bookLoaded(BookDto bookDto) {
+		bookUpdated(bookDto);
+	}
+
+	@Override
+	public void bookCreated(BookDto bookDto) {
+		bookUpdated(bookDto);
+	}
+
+	@Override
+	public void bookUpdated(BookDto bookDto) {
+		List<String> tokens = new ArrayList<>();
+		tokens.addAll(tokenize(bookDto.getTitle()));
+		tokens.addAll(tokenize(bookDto.getAuthor()));
+		tokens.addAll(tokenizeIsbn(bookDto.getIsbn()));
+		lock.writeLock().lock();
+		try {
+			removeBook(bookDto.getId());
+			for (String token : tokens) {
+				postings.computeIfAbsent(token, t -> new HashMap<>(4)).merge(bookDto.getId(), 1, Integer::sum);
+			}
+			tokensByBook.put(bookDto.getId(), tokens);
+			totalTokens += tokens.size();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void bookDeleted(long bookId) {
+		lock.writeLock().lock();
+		try {
+			removeBook(bookId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void removeBook(long bookId) {
+		List<String> tokens = tokensByBook.remove(bookId);
+		if (tokens == null) {
+			return;
+		}
+		totalTokens -= tokens.size();
+		for (String token : tokens) {
+			Map<Long, Integer> termPostings = postings.get(token);
+			if (termPostings != null && termPostings.remove(bookId) != null && termPostings.isEmpty()) {
+				postings.remove(token);
+			}
+		}
+	}
+
+	private List<Long> topIds(Map<Long, Double> scores, int page, int size) {
+		long wanted = (long) (page + 1) * size;
+		if (wanted > Integer.MAX_VALUE || scores.isEmpty()) {
+			return new ArrayList<>();
+		}
+		// Keep only the best (page + 1) * size hits instead of sorting every match
+		PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(
+				(a, b) -> a.getValue().equals(b.getValue()) ? Long.compare(b.getKey(), a.getKey())
+						: Double.compare(a.getValue(), b.getValue()));
+		for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+			best.add(entry);
+			if (best.size() > wanted) {
+				best.poll();
+			}
+		}
+		List<Long> ranked = new ArrayList<>(best.size());
+		while (!best.isEmpty()) {
+			ranked.add(best.poll().getKey());
+		}
+		Collections.reverse(ranked);
+		int from = Math.min(page * size, ranked.size());
+		return new ArrayList<>(ranked.subList(from, ranked.size()));
+	}
+
+	static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		for (String token : TOKEN_SEPARATOR.split(TextNormalizer.normalize(text))) {
+			if (!token.isEmpty()) {
+				tokens.add(token);
+			}
+		}
+		return tokens;
+	}
+
+	private static List<String> tokenizeIsbn(String isbn) {
+		List<String> tokens = tokenize(isbn);
+		// Also index the ISBN without separators so "978-3-16-148410-0" also matches "9783161484100"
+		if (tokens.size() > 1) {
+			tokens.add(String.join("", tokens));
+		}
+		return tokens;
+	}
+
+	public static class SearchHits {
+
+		private final List<Long> bookIds;
+		private final long totalHits;
+
+		public SearchHits(List<Long> bookIds, long totalHits) {
+			this.bookIds = bookIds;
+			this.totalHits = totalHits;
+		}
+
+		public List<Long> getBookIds() {
+			return bookIds;
+		}
+
+		public long getTotalHits() {
+			return totalHits;
+		}
+
+	}
+
+}
@@ -0,0 +1,199 @@
+package com.example.demo.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.BookDto;
+import com.example.demo.services.BookChangeListener;
+
+/**
+ * Prefix trie over the normalized titles and authors of all books, used for
+ * typeahead suggestions. Every node keeps the {@link #MAX_SUGGESTIONS} most
+ * frequent entries below it, so a lookup only walks the prefix and never the
+ * subtree underneath.
+ */
+@Component
+public class BookSuggestIndex implements BookChangeListener {
+
+	public static final int MAX_SUGGESTIONS = 10;
+
+	private static final Comparator<Node> RANKING = Comparator.comparingInt((Node node) -> node.count).reversed()
+			.thenComparing(node -> node.text);
+
+	private final Node root = new Node();
+	private final Map<Long, String[]> termsByBook = new HashMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	public List<String> suggest(String prefix, int limit) {
+		int k = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+		String key = TextNormalizer.normalize(prefix);
+		lock.readLock().lock();
+		try {
+			Node node = root;
+			for (int i = 0; i < key.length() && node != null; i++) {
+				node = node.children.get(key.charAt(i));
+			}
+			List<String> suggestions = new ArrayList<>();
+			if (node != null) {
+				for (int i = 0; i < Math.min(k, node.top.size()); i++) {
+					suggestions.add(node.top.get(i).text);
+				}
+			}
+			return suggestions;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return termsByBook.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void bookLoaded(BookDto bookDto) {
+		bookUpdated(bookDto);
+	}
+
+	@Override
+	public void bookCreated(BookDto bookDto) {
+		bookUpdated(bookDto);
+	}
+
+	@Override
+	public void bookUpdated(BookDto bookDto) {
+		String[] terms = { bookDto.getTitle(), bookDto.getAuthor() };
+		lock.writeLock().lock();
+		try {
+			String[] previous = termsByBook.put(bookDto.getId(), terms);
+			if (previous != null) {
+				for (String term : previous) {
+					remove(term);
+				}
+			}
+			for (String term : terms) {
+				add(term);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void bookDeleted(long bookId) {
+		lock.writeLock().lock();
+		try {
+			String[] previous = termsByBook.remove(bookId);
+			if (previous != null) {
+				for (String term : previous) {
+					remove(term);
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void add(String text) {
+		String key = TextNormalizer.normalize(text);
+		if (key.isEmpty()) {
+			return;
+		}
+		Deque<Node> path = new ArrayDeque<>();
+		Node node = root;
+		path.push(node);
+		for (int i = 0; i < key.length(); i++) {
+			node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+			path.push(node);
+		}
+		if (node.count == 0) {
+			node.text = text.trim();
+		}
+		node.count++;
+		// A higher count can only move this entry up, so ancestors are patched in place
+		for (Node ancestor : path) {
+			List<Node> top = ancestor.top;
+			if (!top.contains(node)) {
+				if (top.size() == MAX_SUGGESTIONS && RANKING.compare(node, top.get(top.size() - 1)) > 0) {
+					continue;
+				}
+				top.add(node);
+			}
+			top.sort(RANKING);
+			if (top.size() > MAX_SUGGESTIONS) {
+				top.remove(top.size() - 1);
+			}
+		}
+	}
+
+	private void remove(String text) {
+		String key = TextNormalizer.normalize(text);
+		if (key.isEmpty()) {
+			return;
+		}
+		Deque<Node> path = new ArrayDeque<>();
+		Deque<Character> edges = new ArrayDeque<>();
+		Node node = root;
+		path.push(node);
+		for (int i = 0; i < key.length(); i++) {
+			node = node.children.get(key.charAt(i));
+			if (node == null) {
+				return;
+			}
+			path.push(node);
+			edges.push(key.charAt(i));
+		}
+		if (node.count == 0) {
+			return;
+		}
+		node.count--;
+		// A lower count can let entries from sibling subtrees in, so rebuild the
+		// top lists bottom-up along the path and prune nodes that became empty
+		Node child = null;
+		for (Node ancestor : path) {
+			if (child != null) {
+				char edge = edges.pop();
+				if (child.count == 0 && child.children.isEmpty()) {
+					ancestor.children.remove(edge);
+				}
+			}
+			ancestor.top = collectTop(ancestor);
+			child = ancestor;
+		}
+	}
+
+	private List<Node> collectTop(Node node) {
+		List<Node> candidates = new ArrayList<>();
+		if (node.count > 0) {
+			candidates.add(node);
+		}
+		for (Node child : node.children.values()) {
+			candidates.addAll(child.top);
+		}
+		candidates.sort(RANKING);
+		return new ArrayList<>(candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())));
+	}
+
+	private static class Node {
+
+		private final Map<Character, Node> children = new HashMap<>(4);
+		private List<Node> top = new ArrayList<>(2);
+		private String text;
+		private int count;
+
+	}
+
+}
@@ -0,0 +1,27 @@
+package com.example.demo.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Case and accent folding shared by the in-memory search structures, so
+ * "Émile Zola" and "emile  zola" end up as the same key.
+ */
+public final class TextNormalizer {
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private TextNormalizer() {
+	}
+
+	public static String normalize(String text) {
+		if (text == null) {
+			return "";
+		}
+		String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+		return WHITESPACE.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.example.demo.services;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.entities.Book;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Inserts a chunk of new books in one transaction. With pooled sequence ids
+ * and {@code hibernate.jdbc.batch_size} set, the flush sends the INSERTs as
+ * JDBC batches; clearing afterwards keeps the persistence context from growing
+ * across chunks.
+ */
+@Component
+public class BookBatchWriter {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Transactional
+	public List<Book> insertAll(List<Book> books) {
+		for (Book book : books) {
+			entityManager.persist(book);
+		}
+		entityManager.flush();
+		entityManager.clear();
+		return books;
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.example.demo.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.config.ReadReplicaDataSource;
+import com.example.demo.dto.BookDto;
+import com.example.demo.repositories.BookRepository;
+
+/**
+ * Reads the whole {@code Book} table once at startup, in keyset pages, and
+ * hands every book to the {@link BookChangeListener} beans so in-memory
+ * indexes start out in sync with the database. Reads from the primary, since
+ * a lagging replica would leave the indexes missing its latest books.
+ *
+ * The load runs once every singleton exists but before the context starts its
+ * lifecycle beans, so the web server and scheduled tasks only start after it.
+ * No write can reach {@link BookService} while the load is running, so a
+ * loaded row never overwrites a later update or brings back a deleted book.
+ */
+@Component
+public class BookCatalogLoader implements SmartInitializingSingleton {
+
+	private static final int BATCH_SIZE = 1000;
+
+	@Autowired
+	private BookRepository bookRepository;
+	@Autowired(required = false)
+	private List<BookChangeListener> bookChangeListeners = new ArrayList<>();
+	Logger logger = LoggerFactory.getLogger(BookCatalogLoader.class);
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		loadCatalog();
+	}
+
+	public void loadCatalog() {
+		long loaded = ReadReplicaDataSource.onPrimary(this::loadBooks);
+		bookChangeListeners.forEach(BookChangeListener::catalogLoaded);
+		logger.info("Loaded {} books into {} listeners", loaded, bookChangeListeners.size());
+	}
+
+	private long loadBooks() {
+		long loaded = 0;
+		long afterId = 0;
+		List<BookDto> books;
+		do {
+			books = bookRepository.findNextBookDtosById(afterId, PageRequest.of(0, BATCH_SIZE));
+			for (BookDto bookDto : books) {
+				bookChangeListeners.forEach(listener -> listener.bookLoaded(bookDto));
+				afterId = bookDto.getId();
+			}
+			loaded += books.size();
+		} while (books.size() == BATCH_SIZE);
+		return loaded;
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.BookDto;
+
+/**
+ * Callback for components that keep in-memory state derived from the
+ * {@code Book} table. {@link BookService} notifies every listener bean after a
+ * write has been saved, and {@link BookCatalogLoader} hands every existing book
+ * to {@link #bookLoaded(BookDto)} once at startup, followed by a single
+ * {@link #catalogLoaded()}.
+ */
+public interface BookChangeListener {
+
+	default void bookLoaded(BookDto bookDto) {
+	}
+
+	default void catalogLoaded() {
+	}
+
+	default void bookCreated(BookDto bookDto) {
+	}
+
+	default void bookUpdated(BookDto bookDto) {
+	}
+
+	default void bookDeleted(long bookId) {
+	}
+
+}
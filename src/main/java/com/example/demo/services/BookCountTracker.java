@@ -0,0 +1,66 @@
+package com.example.demo.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.BookDto;
+import com.example.demo.repositories.BookRepository;
+
+/**
+ * Total number of books kept up to date by the writes made through
+ * {@link BookService}, so paged listings can report a total without a COUNT
+ * query per request. It is reconciled with the table periodically to pick up
+ * writes made by other nodes or directly in the database.
+ */
+@Component
+public class BookCountTracker implements BookChangeListener {
+
+	private static final long UNKNOWN = -1;
+
+	@Autowired
+	private BookRepository bookRepository;
+	private final AtomicLong total = new AtomicLong(UNKNOWN);
+	Logger logger = LoggerFactory.getLogger(BookCountTracker.class);
+
+	public long getTotal() {
+		long current = total.get();
+		if (current == UNKNOWN) {
+			reconcile();
+			current = total.get();
+		}
+		return current;
+	}
+
+	@Scheduled(initialDelayString = "${book.count.reconcile-interval:PT5M}", fixedDelayString = "${book.count.reconcile-interval:PT5M}")
+	public void reconcile() {
+		long counted = bookRepository.count();
+		long previous = total.getAndSet(counted);
+		if (previous != UNKNOWN && previous != counted) {
+			logger.info("Reconciled book count from {} to {}", previous, counted);
+		}
+	}
+
+	/**
+	 * Forgets the current total when a write cannot tell exactly how many rows
+	 * it changed, so the next read reconciles with the table.
+	 */
+	public void invalidate() {
+		total.set(UNKNOWN);
+	}
+
+	@Override
+	public void bookCreated(BookDto bookDto) {
+		total.updateAndGet(current -> current == UNKNOWN ? UNKNOWN : current + 1);
+	}
+
+	@Override
+	public void bookDeleted(long bookId) {
+		total.updateAndGet(current -> current == UNKNOWN ? UNKNOWN : Math.max(0, current - 1));
+	}
+
+}
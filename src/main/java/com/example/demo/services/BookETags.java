@@ -0,0 +1,70 @@
+package com.example.demo.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.util.DigestUtils;
+
+import com.example.demo.dto.BookDto;
+
+/**
+ * Strong entity tags for book responses. A single book is tagged with its
+ * version, which every write increments; a list is tagged with a digest of
+ * the ids and versions it holds and of its paging details, so the tag changes
+ * whenever a book in it is written, added or removed.
+ */
+public final class BookETags {
+
+	// Never a stored version, so a malformed If-Match matches no book
+	public static final long NO_MATCH = -1;
+	// Strong tags must differ between content codings of the same version
+	private static final String GZIP_SUFFIX = "-gzip";
+
+	private BookETags() {
+	}
+
+	public static String of(BookDto bookDto) {
+		return "\"" + bookDto.getVersion() + "\"";
+	}
+
+	public static String gzip(String eTag) {
+		return eTag.substring(0, eTag.length() - 1) + GZIP_SUFFIX + "\"";
+	}
+
+	public static String of(List<BookDto> books, Object... paging) {
+		StringBuilder content = new StringBuilder(books.size() * 16);
+		for (BookDto bookDto : books) {
+			content.append(bookDto.getId()).append(':').append(bookDto.getVersion()).append(',');
+		}
+		for (Object value : paging) {
+			content.append('|').append(value);
+		}
+		return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+	}
+
+	/**
+	 * Returns the version an If-Match header asks for, in either content
+	 * coding, null for {@code *}, or {@link #NO_MATCH} for weak, multiple or
+	 * malformed tags, which can never match under the strong comparison
+	 * If-Match requires.
+	 */
+	public static Long parseIfMatch(String ifMatch) {
+		String value = ifMatch.trim();
+		if (value.equals("*")) {
+			return null;
+		}
+		if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+			return NO_MATCH;
+		}
+		String version = value.substring(1, value.length() - 1);
+		if (version.endsWith(GZIP_SUFFIX)) {
+			version = version.substring(0, version.length() - GZIP_SUFFIX.length());
+		}
+		try {
+			return Long.parseLong(version);
+		} catch (NumberFormatException e) {
+			return NO_MATCH;
+		}
+	}
+
+}
@@ -0,0 +1,127 @@
+package com.example.demo.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.BookDto;
+
+/**
+ * In-memory map of every ISBN to the id of the book holding it, so duplicate
+ * ISBNs are rejected before any database write. A Bloom filter answers most
+ * lookups of unknown ISBNs without touching the maps; it cannot forget deleted
+ * ISBNs, so it is rebuilt from the exact map once enough stale or extra
+ * entries have accumulated.
+ *
+ * Until {@link BookCatalogLoader} has finished, or for books written by other
+ * nodes, an ISBN missing here may still exist in the table. Callers treat a
+ * miss as "not known" and keep the unique constraint as the final check.
+ * Books deleted or changed by other nodes, or outside the application, leave
+ * entries behind, so callers confirm a hit against the table before acting on
+ * it and {@link #forget} the entries it disproves.
+ */
+@Component
+public class BookIsbnRegistry implements BookChangeListener {
+
+	private static final double FALSE_POSITIVE_RATE = 0.01;
+
+	private final long expectedBooks;
+	private final Map<String, Long> bookIdsByIsbn = new ConcurrentHashMap<>();
+	private final Map<Long, String> isbnsByBookId = new ConcurrentHashMap<>();
+	private volatile BloomFilter filter;
+	private long filterCapacity;
+	private long filterInsertions;
+	private volatile boolean complete;
+
+	public BookIsbnRegistry(@Value("${book.isbn.expected-books:1000000}") long expectedBooks) {
+		this.expectedBooks = expectedBooks;
+		this.filterCapacity = expectedBooks;
+		this.filter = new BloomFilter(filterCapacity, FALSE_POSITIVE_RATE);
+	}
+
+	/**
+	 * Returns the id of the book holding the given ISBN, or null when no known
+	 * book holds it.
+	 */
+	public Long findBookId(String isbn) {
+		if (isbn == null || !filter.mightContain(isbn)) {
+			return null;
+		}
+		return bookIdsByIsbn.get(isbn);
+	}
+
+	/**
+	 * Drops the ISBN of the book, if still registered, once the table showed
+	 * that the book no longer holds it.
+	 */
+	public synchronized void forget(String isbn, long bookId) {
+		if (bookIdsByIsbn.remove(isbn, bookId)) {
+			isbnsByBookId.remove(bookId, isbn);
+		}
+	}
+
+	/**
+	 * Whether every book in the table at startup has been registered, so a
+	 * miss means the ISBN was not in the table then and was not written since
+	 * through this node.
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	public int size() {
+		return bookIdsByIsbn.size();
+	}
+
+	@Override
+	public void bookLoaded(BookDto bookDto) {
+		bookUpdated(bookDto);
+	}
+
+	@Override
+	public void catalogLoaded() {
+		complete = true;
+	}
+
+	@Override
+	public void bookCreated(BookDto bookDto) {
+		bookUpdated(bookDto);
+	}
+
+	@Override
+	public synchronized void bookUpdated(BookDto bookDto) {
+		String previous = isbnsByBookId.put(bookDto.getId(), bookDto.getIsbn());
+		if (previous != null && !previous.equals(bookDto.getIsbn())) {
+			bookIdsByIsbn.remove(previous, bookDto.getId());
+		}
+		bookIdsByIsbn.put(bookDto.getIsbn(), bookDto.getId());
+		if (!bookDto.getIsbn().equals(previous)) {
+			addToFilter(bookDto.getIsbn());
+		}
+	}
+
+	@Override
+	public synchronized void bookDeleted(long bookId) {
+		String isbn = isbnsByBookId.remove(bookId);
+		if (isbn != null) {
+			bookIdsByIsbn.remove(isbn, bookId);
+		}
+	}
+
+	private void addToFilter(String isbn) {
+		// Deleted ISBNs keep their bits, so insertions rather than the live size
+		// decide when the filter is past its capacity
+		if (++filterInsertions > filterCapacity) {
+			filterCapacity = Math.max(expectedBooks, 2L * bookIdsByIsbn.size());
+			BloomFilter rebuilt = new BloomFilter(filterCapacity, FALSE_POSITIVE_RATE);
+			bookIdsByIsbn.keySet().forEach(rebuilt::add);
+			filterInsertions = bookIdsByIsbn.size();
+			filter = rebuilt;
+		} else {
+			filter.add(isbn);
+		}
+	}
+
+}
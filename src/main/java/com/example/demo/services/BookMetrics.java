@@ -0,0 +1,75 @@
+package com.example.demo.services;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.BookBatchItemResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts the failed outcomes of {@link BookService} operations as
+ * {@code book.failures}, tagged with the operation and the outcome, so
+ * duplicates, invalid input and missing books can be told apart from errors.
+ */
+@Component
+public class BookMetrics {
+
+	public static final String INVALID = "invalid";
+	public static final String DUPLICATE_ISBN = "duplicate_isbn";
+	public static final String INTEGRITY_VIOLATION = "integrity_violation";
+	public static final String NOT_FOUND = "not_found";
+	public static final String PRECONDITION_FAILED = "precondition_failed";
+	public static final String FAILED = "failed";
+	public static final String TIMEOUT = "timeout";
+
+	private final MeterRegistry meterRegistry;
+
+	public BookMetrics(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	public void failure(String operation, String outcome) {
+		failures(operation, outcome, 1);
+	}
+
+	/**
+	 * Counts every item of a batch or import chunk that was not created, using
+	 * the lower-cased item status as the outcome.
+	 */
+	public void itemFailures(String operation, BookBatchItemResult[] results) {
+		int invalid = 0;
+		int duplicates = 0;
+		int failed = 0;
+		for (BookBatchItemResult result : results) {
+			if (BookBatchItemResult.INVALID.equals(result.getStatus())) {
+				invalid++;
+			} else if (BookBatchItemResult.DUPLICATE_ISBN.equals(result.getStatus())) {
+				duplicates++;
+			} else if (BookBatchItemResult.FAILED.equals(result.getStatus())) {
+				failed++;
+			}
+		}
+		failures(operation, INVALID, invalid);
+		failures(operation, DUPLICATE_ISBN, duplicates);
+		failures(operation, FAILED, failed);
+	}
+
+	/**
+	 * Records how many single-book creates one group commit of
+	 * {@link BookWriteCoalescer} wrote, as {@code book.write.coalesced.batch}.
+	 */
+	public void coalescedBatch(int size) {
+		DistributionSummary.builder("book.write.coalesced.batch").description("Books written per coalesced commit")
+				.register(meterRegistry).record(size);
+	}
+
+	private void failures(String operation, String outcome, int count) {
+		if (count > 0) {
+			Counter.builder("book.failures").description("Book operations that did not succeed, by outcome")
+					.tag("operation", operation).tag("outcome", outcome).register(meterRegistry).increment(count);
+		}
+	}
+
+}
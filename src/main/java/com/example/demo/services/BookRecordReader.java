@@ -0,0 +1,150 @@
+package com.example.demo.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.demo.dto.BookDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads books one line at a time from an NDJSON or CSV body, so an import
+ * never holds more than the current line in memory. CSV input starts with a
+ * header naming the title, author, publishedDate and isbn columns in any
+ * order; fields may be double-quoted.
+ */
+public class BookRecordReader {
+
+	public static final String NDJSON = "ndjson";
+	public static final String CSV = "csv";
+
+	private final BufferedReader reader;
+	private final String format;
+	private final ObjectMapper objectMapper;
+	private long lineNumber;
+	private int[] columns;
+
+	public BookRecordReader(Reader reader, String format, ObjectMapper objectMapper) {
+		this.reader = new BufferedReader(reader);
+		this.format = format;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Returns the next record, or null at the end of the input. Records that
+	 * cannot be parsed carry an error message instead of a book.
+	 */
+	public BookRecord next() throws IOException {
+		String line;
+		do {
+			line = reader.readLine();
+			lineNumber++;
+			if (line == null) {
+				return null;
+			}
+		} while (line.isBlank());
+		if (CSV.equals(format) && columns == null) {
+			readHeader(line);
+			return next();
+		}
+		try {
+			BookDto bookDto = CSV.equals(format) ? parseCsv(line) : objectMapper.readValue(line, BookDto.class);
+			return new BookRecord(lineNumber, bookDto, null);
+		} catch (JsonProcessingException e) {
+			return new BookRecord(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+		} catch (DateTimeParseException e) {
+			return new BookRecord(lineNumber, null, "Malformed publishedDate: " + e.getParsedString());
+		} catch (IllegalArgumentException e) {
+			return new BookRecord(lineNumber, null, e.getLocalizedMessage());
+		}
+	}
+
+	private void readHeader(String line) {
+		List<String> header = splitCsv(line);
+		columns = new int[] { header.indexOf("title"), header.indexOf("author"), header.indexOf("publishedDate"),
+				header.indexOf("isbn") };
+		for (int column : columns) {
+			if (column < 0) {
+				throw new IllegalArgumentException("CSV header must name the title, author, publishedDate and isbn columns");
+			}
+		}
+	}
+
+	private BookDto parseCsv(String line) {
+		List<String> fields = splitCsv(line);
+		BookDto bookDto = new BookDto();
+		bookDto.setTitle(field(fields, columns[0]));
+		bookDto.setAuthor(field(fields, columns[1]));
+		String publishedDate = field(fields, columns[2]);
+		bookDto.setPublishedDate(publishedDate == null || publishedDate.isEmpty() ? null : LocalDate.parse(publishedDate));
+		bookDto.setIsbn(field(fields, columns[3]));
+		return bookDto;
+	}
+
+	private String field(List<String> fields, int column) {
+		return column < fields.size() ? fields.get(column) : null;
+	}
+
+	static List<String> splitCsv(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString().trim());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		if (quoted) {
+			throw new IllegalArgumentException("Unterminated quoted field");
+		}
+		fields.add(field.toString().trim());
+		return fields;
+	}
+
+	public static class BookRecord {
+
+		private final long line;
+		private final BookDto bookDto;
+		private final String error;
+
+		public BookRecord(long line, BookDto bookDto, String error) {
+			this.line = line;
+			this.bookDto = bookDto;
+			this.error = error;
+		}
+
+		public long getLine() {
+			return line;
+		}
+
+		public BookDto getBookDto() {
+			return bookDto;
+		}
+
+		public String getError() {
+			return error;
+		}
+
+	}
+
+}
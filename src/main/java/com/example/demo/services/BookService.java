@@ -1,75 +1,806 @@
 package com.example.demo.services;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.example.demo.cache.BookDtoCache;
+import com.example.demo.cache.BookJsonCache;
+import com.example.demo.config.ReadReplicaDataSource;
+import com.example.demo.dto.BookBatchItemResult;
+import com.example.demo.dto.BookBatchResult;
+import com.example.demo.dto.BookBulkDeleteResult;
+import com.example.demo.dto.BookCacheStats;
+import com.example.demo.dto.BookCursor;
+import com.example.demo.dto.BookCursorPage;
 import com.example.demo.dto.BookDto;
+import com.example.demo.dto.BookFacets;
+import com.example.demo.dto.BookImportError;
+import com.example.demo.dto.BookImportResult;
+import com.example.demo.dto.BookSearchResult;
+import com.example.demo.dto.BookSlice;
 import com.example.demo.entities.Book;
+import com.example.demo.exceptions.BookWriteTimeoutException;
+import com.example.demo.exceptions.DuplicateIsbnException;
+import com.example.demo.profiling.RequestProfile;
 import com.example.demo.repositories.BookRepository;
+import com.example.demo.search.BookFacetIndex;
+import com.example.demo.search.BookSearchIndex;
+import com.example.demo.search.BookSuggestIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import io.micrometer.core.annotation.Timed;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
+@Timed(value = "book.service", description = "Time spent in BookService methods", histogram = true)
 public class BookService {
 
+	private static final int MAX_SEARCH_PAGE_SIZE = 100;
+	private static final int MAX_BATCH_SIZE = 10_000;
+	private static final int BATCH_CHUNK_SIZE = 500;
+	private static final int MAX_IMPORT_ERRORS = 1000;
+	private static final int MAX_BULK_DELETE_SIZE = 1000;
+	// Bounds of the MySQL DATE type, used for the open end of a publishedDate range
+	private static final LocalDate MIN_PUBLISHED_DATE = LocalDate.of(1000, 1, 1);
+	private static final LocalDate MAX_PUBLISHED_DATE = LocalDate.of(9999, 12, 31);
+
 	@Autowired
 	private BookRepository bookRepository;
+	@Autowired
+	private BookCountTracker bookCountTracker;
+	@Autowired
+	private BookSuggestIndex bookSuggestIndex;
+	@Autowired
+	private BookSearchIndex bookSearchIndex;
+	@Autowired
+	private BookFacetIndex bookFacetIndex;
+	@Autowired
+	private BookDtoCache bookDtoCache;
+	@Autowired
+	private BookJsonCache bookJsonCache;
+	@Autowired
+	private BookBatchWriter bookBatchWriter;
+	@Autowired
+	private BookIsbnRegistry bookIsbnRegistry;
+	@Autowired
+	private BookMetrics bookMetrics;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@PersistenceContext
+	private EntityManager entityManager;
+	@Value("${book.import.chunk-size:1000}")
+	private int importChunkSize;
+	@Autowired(required = false)
+	private List<BookChangeListener> bookChangeListeners = new ArrayList<>();
+	@Value("${book.write-coalescing.enabled:false}")
+	private boolean writeCoalescingEnabled;
+	@Value("${book.write-coalescing.max-batch-size:100}")
+	private int writeCoalescingMaxBatchSize;
+	@Value("${book.write-coalescing.max-delay:PT0.002S}")
+	private Duration writeCoalescingMaxDelay;
+	@Value("${book.write-coalescing.submit-timeout:PT10S}")
+	private Duration writeCoalescingSubmitTimeout;
+	private BookWriteCoalescer bookWriteCoalescer;
+
+	@PostConstruct
+	void startWriteCoalescing() {
+		if (writeCoalescingEnabled) {
+			bookWriteCoalescer = new BookWriteCoalescer(writeCoalescingMaxBatchSize, writeCoalescingMaxDelay,
+					writeCoalescingSubmitTimeout, this::insertCoalesced, bookMetrics);
+		}
+	}
+
+	@PreDestroy
+	void stopWriteCoalescing() {
+		if (bookWriteCoalescer != null) {
+			bookWriteCoalescer.close();
+		}
+	}
 
 	public BookDto addNewBook(BookDto bookDto) throws DataIntegrityViolationException {
-		validateBookDto(bookDto);
+		validate(bookDto, "addNewBook");
+		checkIsbnAvailable(bookDto.getIsbn(), 0, "addNewBook");
+		if (bookWriteCoalescer != null) {
+			return addCoalesced(bookDto);
+		}
 		Book book = new Book(bookDto);
-		Book savedBook = bookRepository.save(book);
+		Book savedBook;
+		try {
+			savedBook = bookRepository.save(book);
+		} catch (DataIntegrityViolationException e) {
+			bookMetrics.failure("addNewBook", BookMetrics.INTEGRITY_VIOLATION);
+			throw e;
+		}
 		BookDto savedDto = new BookDto(savedBook);
+		bookChangeListeners.forEach(listener -> listener.bookCreated(savedDto));
 		return savedDto;
 	}
 
+	private BookDto addCoalesced(BookDto bookDto) {
+		BookBatchItemResult result;
+		try {
+			result = bookWriteCoalescer.submit(bookDto);
+		} catch (BookWriteTimeoutException e) {
+			bookMetrics.failure("addNewBook", BookMetrics.TIMEOUT);
+			throw e;
+		}
+		if (BookBatchItemResult.CREATED.equals(result.getStatus())) {
+			return result.getBook();
+		}
+		if (BookBatchItemResult.DUPLICATE_ISBN.equals(result.getStatus())) {
+			bookMetrics.failure("addNewBook", BookMetrics.DUPLICATE_ISBN);
+			throw new DuplicateIsbnException(bookDto.getIsbn());
+		}
+		bookMetrics.failure("addNewBook", BookMetrics.FAILED);
+		throw new IllegalStateException(result.getMessage());
+	}
+
+	/**
+	 * Writes the single-book creates collected by {@link BookWriteCoalescer} as
+	 * one batch. Of two concurrent creates with the same ISBN the first queued
+	 * wins, as it would have with separate commits.
+	 */
+	BookBatchItemResult[] insertCoalesced(List<BookDto> bookDtos) {
+		BookBatchItemResult[] results = new BookBatchItemResult[bookDtos.size()];
+		List<Integer> pending = new ArrayList<>();
+		Set<String> batchIsbns = new HashSet<>();
+		for (int i = 0; i < bookDtos.size(); i++) {
+			if (batchIsbns.add(bookDtos.get(i).getIsbn())) {
+				pending.add(i);
+			} else {
+				results[i] = new BookBatchItemResult(i, BookBatchItemResult.DUPLICATE_ISBN,
+						"Book with the same ISBN already exists", bookDtos.get(i));
+			}
+		}
+		insertChunk(bookDtos, pending, results);
+		return results;
+	}
+
+	public BookBatchResult addNewBooks(List<BookDto> bookDtos) {
+		if (bookDtos == null || bookDtos.isEmpty()) {
+			throw new IllegalArgumentException("Books cannot be null or empty");
+		}
+		if (bookDtos.size() > MAX_BATCH_SIZE) {
+			throw new IllegalArgumentException("Cannot create more than " + MAX_BATCH_SIZE + " books at once");
+		}
+		BookBatchItemResult[] results = new BookBatchItemResult[bookDtos.size()];
+		List<Integer> pending = new ArrayList<>();
+		Set<String> batchIsbns = new HashSet<>();
+		for (int i = 0; i < bookDtos.size(); i++) {
+			BookDto bookDto = bookDtos.get(i);
+			try {
+				if (bookDto == null) {
+					throw new IllegalArgumentException("Book cannot be null");
+				}
+				validateBookDto(bookDto);
+			} catch (IllegalArgumentException e) {
+				results[i] = new BookBatchItemResult(i, BookBatchItemResult.INVALID, e.getLocalizedMessage(), bookDto);
+				continue;
+			}
+			if (!batchIsbns.add(bookDto.getIsbn())) {
+				results[i] = new BookBatchItemResult(i, BookBatchItemResult.DUPLICATE_ISBN,
+						"Book with the same ISBN appears earlier in the batch", bookDto);
+			} else {
+				pending.add(i);
+			}
+		}
+		for (int from = 0; from < pending.size(); from += BATCH_CHUNK_SIZE) {
+			insertChunk(bookDtos, pending.subList(from, Math.min(from + BATCH_CHUNK_SIZE, pending.size())), results);
+		}
+		bookMetrics.itemFailures("addNewBooks", results);
+		int created = 0;
+		for (BookBatchItemResult result : results) {
+			if (BookBatchItemResult.CREATED.equals(result.getStatus())) {
+				created++;
+			}
+		}
+		return new BookBatchResult(created, results.length - created, List.of(results));
+	}
+
+	/**
+	 * Imports books from an NDJSON or CSV stream, committing every chunk of
+	 * {@code book.import.chunk-size} records in its own transaction. Only the
+	 * current chunk and the first {@value #MAX_IMPORT_ERRORS} errors are kept in
+	 * memory, whatever the size of the input.
+	 */
+	public BookImportResult importBooks(Reader reader, String format) throws IOException {
+		if (!BookRecordReader.NDJSON.equals(format) && !BookRecordReader.CSV.equals(format)) {
+			throw new IllegalArgumentException("Import format must be ndjson or csv");
+		}
+		BookRecordReader records = new BookRecordReader(reader, format, objectMapper);
+		BookImportResult result = new BookImportResult();
+		List<BookDto> chunk = new ArrayList<>();
+		List<Long> chunkLines = new ArrayList<>();
+		BookRecordReader.BookRecord record;
+		while ((record = records.next()) != null) {
+			String error = record.getError();
+			if (error == null) {
+				try {
+					validateBookDto(record.getBookDto());
+				} catch (IllegalArgumentException e) {
+					error = e.getLocalizedMessage();
+				}
+			}
+			if (error != null) {
+				bookMetrics.failure("importBooks", BookMetrics.INVALID);
+				result.setRejected(result.getRejected() + 1);
+				addImportError(result, record.getLine(), BookBatchItemResult.INVALID, error);
+				continue;
+			}
+			chunk.add(record.getBookDto());
+			chunkLines.add(record.getLine());
+			if (chunk.size() >= importChunkSize) {
+				importChunk(chunk, chunkLines, result);
+				chunk.clear();
+				chunkLines.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			importChunk(chunk, chunkLines, result);
+		}
+		return result;
+	}
+
+	private void importChunk(List<BookDto> chunk, List<Long> chunkLines, BookImportResult result) {
+		BookBatchItemResult[] results = new BookBatchItemResult[chunk.size()];
+		List<Integer> pending = new ArrayList<>();
+		Set<String> chunkIsbns = new HashSet<>();
+		for (int i = 0; i < chunk.size(); i++) {
+			if (chunkIsbns.add(chunk.get(i).getIsbn())) {
+				pending.add(i);
+			} else {
+				results[i] = new BookBatchItemResult(i, BookBatchItemResult.DUPLICATE_ISBN,
+						"Book with the same ISBN appears earlier in the import", chunk.get(i));
+			}
+		}
+		// Earlier chunks are already committed, so duplicates across chunks are found in the registry or the table
+		insertChunk(chunk, pending, results);
+		bookMetrics.itemFailures("importBooks", results);
+		for (int i = 0; i < results.length; i++) {
+			BookBatchItemResult itemResult = results[i];
+			if (BookBatchItemResult.CREATED.equals(itemResult.getStatus())) {
+				result.setAccepted(result.getAccepted() + 1);
+			} else if (BookBatchItemResult.DUPLICATE_ISBN.equals(itemResult.getStatus())) {
+				result.setDuplicates(result.getDuplicates() + 1);
+				addImportError(result, chunkLines.get(i), itemResult.getStatus(), itemResult.getMessage());
+			} else {
+				result.setRejected(result.getRejected() + 1);
+				addImportError(result, chunkLines.get(i), itemResult.getStatus(), itemResult.getMessage());
+			}
+		}
+	}
+
+	private void addImportError(BookImportResult result, long line, String status, String message) {
+		if (result.getErrors().size() < MAX_IMPORT_ERRORS) {
+			result.getErrors().add(new BookImportError(line, status, message));
+		} else {
+			result.setErrorsTruncated(true);
+		}
+	}
+
+	private void insertChunk(List<BookDto> bookDtos, List<Integer> indexes, BookBatchItemResult[] results) {
+		Map<String, Long> registeredIsbns = new HashMap<>();
+		List<String> lookupIsbns = new ArrayList<>();
+		for (int index : indexes) {
+			String isbn = bookDtos.get(index).getIsbn();
+			Long holderId = bookIsbnRegistry.findBookId(isbn);
+			// A registered ISBN is confirmed in the table, since other nodes may have deleted
+			// or changed its book. Once the registry holds the whole catalog, a miss is
+			// trusted and the unique constraint below catches writes from other nodes.
+			if (holderId != null) {
+				registeredIsbns.put(isbn, holderId);
+				lookupIsbns.add(isbn);
+			} else if (!bookIsbnRegistry.isComplete()) {
+				lookupIsbns.add(isbn);
+			}
+		}
+		Set<String> existingIsbns = new HashSet<>();
+		if (!lookupIsbns.isEmpty()) {
+			existingIsbns.addAll(bookRepository.findExistingIsbns(lookupIsbns));
+		}
+		registeredIsbns.forEach((isbn, holderId) -> {
+			if (!existingIsbns.contains(isbn)) {
+				bookIsbnRegistry.forget(isbn, holderId);
+			}
+		});
+		List<Integer> insertIndexes = new ArrayList<>();
+		List<Book> books = new ArrayList<>();
+		for (int index : indexes) {
+			BookDto bookDto = bookDtos.get(index);
+			if (existingIsbns.contains(bookDto.getIsbn())) {
+				results[index] = new BookBatchItemResult(index, BookBatchItemResult.DUPLICATE_ISBN,
+						"Book with the same ISBN already exists", bookDto);
+			} else {
+				insertIndexes.add(index);
+				books.add(newBook(bookDto));
+			}
+		}
+		if (books.isEmpty()) {
+			return;
+		}
+		try {
+			bookBatchWriter.insertAll(books);
+			for (int i = 0; i < books.size(); i++) {
+				bookCreated(insertIndexes.get(i), books.get(i), results);
+			}
+		} catch (DataIntegrityViolationException e) {
+			// Another writer took one of the ISBNs since the lookup, so insert one by
+			// one to find out which items conflict
+			for (int index : insertIndexes) {
+				BookDto bookDto = bookDtos.get(index);
+				try {
+					Book book = bookBatchWriter.insertAll(List.of(newBook(bookDto))).get(0);
+					bookCreated(index, book, results);
+				} catch (DataIntegrityViolationException ex) {
+					results[index] = new BookBatchItemResult(index, BookBatchItemResult.DUPLICATE_ISBN,
+							"Book with the same ISBN already exists", bookDto);
+				} catch (RuntimeException ex) {
+					results[index] = new BookBatchItemResult(index, BookBatchItemResult.FAILED, "Failed to save book",
+							bookDto);
+				}
+			}
+		}
+	}
+
+	private Book newBook(BookDto bookDto) {
+		Book book = new Book(bookDto);
+		book.setId(0);
+		return book;
+	}
+
+	private void bookCreated(int index, Book book, BookBatchItemResult[] results) {
+		BookDto savedDto = new BookDto(book);
+		bookChangeListeners.forEach(listener -> listener.bookCreated(savedDto));
+		results[index] = new BookBatchItemResult(index, BookBatchItemResult.CREATED, null, savedDto);
+	}
+
+	@Transactional(readOnly = true)
 	public Page<BookDto> getAllBook(Pageable pageable) {
-		Page<Book> booksPage = bookRepository.findAll(pageable);
-		return booksPage.map(book -> new BookDto(book));
+		return getAllBook(pageable, null, null);
+	}
+
+	/**
+	 * Returns a page of books, optionally limited to a publishedDate range. The
+	 * sort must be backed by an index, see {@link #indexedPageable}.
+	 */
+	@Transactional(readOnly = true)
+	public Page<BookDto> getAllBook(Pageable pageable, LocalDate publishedFrom, LocalDate publishedTo) {
+		boolean ranged = publishedFrom != null || publishedTo != null;
+		Pageable indexed = indexedPageable(pageable, ranged);
+		if (ranged) {
+			return bookRepository.findBookDtosByPublishedDateBetween(rangeFrom(publishedFrom, publishedTo),
+					rangeTo(publishedTo), indexed);
+		}
+		return bookRepository.findAllBookDtos(indexed);
+	}
+
+	@Transactional(readOnly = true)
+	public BookSlice getBookSlice(Pageable pageable, boolean withTotal) {
+		return getBookSlice(pageable, withTotal, null, null);
+	}
+
+	@Transactional(readOnly = true)
+	public BookSlice getBookSlice(Pageable pageable, boolean withTotal, LocalDate publishedFrom, LocalDate publishedTo) {
+		boolean ranged = publishedFrom != null || publishedTo != null;
+		if (ranged && withTotal) {
+			throw new IllegalArgumentException("withTotal counts the whole catalog and cannot be combined with a publishedDate range");
+		}
+		Pageable indexed = indexedPageable(pageable, ranged);
+		Slice<BookDto> booksSlice = ranged
+				? bookRepository.findBookDtoSliceByPublishedDateBetween(rangeFrom(publishedFrom, publishedTo),
+						rangeTo(publishedTo), indexed)
+				: bookRepository.findBookDtoSliceBy(indexed);
+		Long totalElements = withTotal ? bookCountTracker.getTotal() : null;
+		return new BookSlice(booksSlice.getContent(), pageable.getPageNumber(), pageable.getPageSize(),
+				booksSlice.hasNext(), totalElements);
+	}
+
+	/**
+	 * Only accepts orderings that one of the book indexes returns as is: a
+	 * single key of {@link BookCursor#SORT_KEYS}, in either direction, with id
+	 * appended as the tiebreaker the indexes end with. A publishedDate range can
+	 * only be ordered by publishedDate, which it is by default.
+	 */
+	private Pageable indexedPageable(Pageable pageable, boolean ranged) {
+		Sort sort = pageable.getSort();
+		if (sort.isUnsorted()) {
+			sort = Sort.by(ranged ? "publishedDate" : "id");
+		}
+		List<Sort.Order> orders = sort.toList();
+		Sort.Order order = orders.get(0);
+		boolean tiebreaker = orders.size() == 2 && orders.get(1).getProperty().equals("id")
+				&& orders.get(1).getDirection() == order.getDirection() && !order.getProperty().equals("id");
+		if (!BookCursor.SORT_KEYS.contains(order.getProperty()) || (orders.size() > 1 && !tiebreaker)
+				|| order.isIgnoreCase()) {
+			throw new IllegalArgumentException("Sort must be one of " + BookCursor.SORT_KEYS + ", optionally followed by id");
+		}
+		if (ranged && !order.getProperty().equals("publishedDate")) {
+			throw new IllegalArgumentException("Books filtered by publishedDate can only be sorted by publishedDate");
+		}
+		Sort indexed = order.getProperty().equals("id") ? Sort.by(order)
+				: Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+		return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), indexed)
+				: Pageable.unpaged(indexed);
+	}
+
+	private static LocalDate rangeFrom(LocalDate publishedFrom, LocalDate publishedTo) {
+		if (publishedFrom != null && publishedTo != null && publishedFrom.isAfter(publishedTo)) {
+			throw new IllegalArgumentException("publishedFrom must not be after publishedTo");
+		}
+		return publishedFrom != null ? publishedFrom : MIN_PUBLISHED_DATE;
 	}
 
+	private static LocalDate rangeTo(LocalDate publishedTo) {
+		return publishedTo != null ? publishedTo : MAX_PUBLISHED_DATE;
+	}
+
+	/**
+	 * Writes every book to the output stream as NDJSON, optionally gzipped,
+	 * while scrolling the table forward-only. Each entity is detached once
+	 * written, so memory use does not grow with the size of the catalog.
+	 */
+	@Transactional(readOnly = true)
+	public void exportBooks(OutputStream outputStream, boolean gzip) throws IOException {
+		OutputStream out = gzip ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+		try (Stream<Book> books = bookRepository.streamAllBy();
+				SequenceWriter writer = objectMapper.writerFor(BookDto.class).withRootValueSeparator("\n").writeValues(out)) {
+			long written = 0;
+			for (Book book : (Iterable<Book>) books::iterator) {
+				writer.write(new BookDto(book));
+				entityManager.detach(book);
+				written++;
+			}
+			writer.flush();
+			if (written > 0) {
+				out.write('\n');
+			}
+		}
+	}
+
+	@Transactional(readOnly = true)
+	public BookCursorPage getBooksAfterCursor(String after, Pageable pageable) {
+		BookCursor cursor = after.isEmpty() ? null : BookCursor.decode(after);
+		String sortKey = cursor != null ? cursor.getSortKey() : getCursorSortKey(pageable.getSort());
+		int size = pageable.getPageSize();
+		// Fetch one extra row to find out whether there is a next page without a COUNT query
+		Pageable limit = PageRequest.of(0, size + 1);
+		List<BookDto> books = switch (sortKey) {
+		case "title" -> cursor == null ? bookRepository.findBookDtoPageOrderedByTitle(limit)
+				: bookRepository.findNextBookDtosByTitle(cursor.getValue(), cursor.getId(), limit);
+		case "author" -> cursor == null ? bookRepository.findBookDtoPageOrderedByAuthor(limit)
+				: bookRepository.findNextBookDtosByAuthor(cursor.getValue(), cursor.getId(), limit);
+		case "publishedDate" -> cursor == null ? bookRepository.findBookDtoPageOrderedByPublishedDate(limit)
+				: bookRepository.findNextBookDtosByPublishedDate(parseCursorDate(cursor.getValue()), cursor.getId(), limit);
+		default -> bookRepository.findNextBookDtosById(cursor == null ? 0 : cursor.getId(), limit);
+		};
+		List<BookDto> booksDto = books.subList(0, Math.min(size, books.size()));
+		String nextCursor = null;
+		if (books.size() > size) {
+			nextCursor = BookCursor.of(sortKey, booksDto.get(size - 1)).encode();
+		}
+		return new BookCursorPage(booksDto, size, nextCursor);
+	}
+
+	private String getCursorSortKey(Sort sort) {
+		if (sort.isUnsorted()) {
+			return "id";
+		}
+		List<Sort.Order> orders = sort.toList();
+		Sort.Order order = orders.get(0);
+		if (orders.size() > 1 || order.isDescending() || !BookCursor.SORT_KEYS.contains(order.getProperty())) {
+			throw new IllegalArgumentException("Cursor pagination supports ascending sort on one of " + BookCursor.SORT_KEYS);
+		}
+		return order.getProperty();
+	}
+
+	private LocalDate parseCursorDate(String value) {
+		try {
+			return LocalDate.parse(value);
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+	}
+
+	/**
+	 * Returns the book from the cache. Not transactional, so a cache hit takes
+	 * no connection; a miss opens its read-only transaction in the repository.
+	 */
 	public ResponseEntity<?> getBookById(long bookId) {
-		Book book = bookRepository.findById(bookId).orElse(null);
-		BookDto bookDto = null;
-		if (book == null) {
-			return ResponseEntity.status(404).body("Book not found");
+		BookDto bookDto = bookDtoCache.get(bookId, this::loadBookDto);
+		if (bookDto == null) {
+			return notFound("getBookById");
 		} else {
-			bookDto = new BookDto(book);
-			return ResponseEntity.status(200).body(bookDto);
+			return ok(bookDto);
 		}
 	}
 
+	// The caches are shared by all clients, so misses load from the primary and never from a lagging replica
+	private BookDto loadBookDto(long bookId) {
+		return ReadReplicaDataSource.onPrimary(() -> bookRepository.findBookDtoById(bookId).orElse(null));
+	}
+
+	/**
+	 * Returns the book as JSON bytes that were encoded once and cached, gzipped
+	 * when the client accepts gzip and it makes the body smaller. Not
+	 * transactional, so a cache hit does not even take a connection.
+	 */
+	public ResponseEntity<?> getBookJsonById(long bookId, boolean acceptGzip) {
+		BookJsonCache.EncodedBook encoded = bookJsonCache.get(bookId,
+				id -> bookDtoCache.get(id, this::loadBookDto));
+		if (encoded == null) {
+			return notFound("getBookById");
+		}
+		boolean gzip = acceptGzip && encoded.getGzip() != null;
+		ResponseEntity.BodyBuilder response = ResponseEntity.status(200).contentType(MediaType.APPLICATION_JSON)
+				.varyBy(HttpHeaders.ACCEPT_ENCODING).eTag(gzip ? encoded.getGzipETag() : encoded.getETag());
+		if (encoded.getLastModified() >= 0) {
+			response.lastModified(encoded.getLastModified());
+		}
+		if (gzip) {
+			return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(encoded.getGzip());
+		}
+		return response.body(encoded.getJson());
+	}
+
+	/**
+	 * Looks a book up by ISBN through the registry, so a registered ISBN is
+	 * served from the book cache. The registry only knows the writes of this
+	 * node, so a miss, or a registered book that no longer holds the ISBN, is
+	 * looked up in the table. Not transactional, like {@link #getBookById}, so
+	 * a cache hit takes no connection.
+	 */
+	public ResponseEntity<?> getBookByIsbn(String isbn) {
+		Long bookId = bookIsbnRegistry.findBookId(isbn);
+		if (bookId != null) {
+			BookDto cached = bookDtoCache.get(bookId, this::loadBookDto);
+			if (cached != null && isbn.equals(cached.getIsbn())) {
+				return ok(cached);
+			}
+		}
+		BookDto bookDto = bookRepository.findBookDtoByIsbn(isbn).orElse(null);
+		if (bookDto == null) {
+			return notFound("getBookByIsbn");
+		} else {
+			return ok(bookDto);
+		}
+	}
+
+	public BookCacheStats getCacheStats() {
+		return bookDtoCache.getStats();
+	}
+
+	@Transactional
 	public ResponseEntity<?> updateBookById(long bookId, BookDto bookDto) throws DataIntegrityViolationException {
-		validateBookDto(bookDto);
-		Book dbBook = bookRepository.findById(bookId).orElse(null);
-		BookDto bookDtoReturn = null;
-		if (dbBook == null) {
-			return ResponseEntity.status(404).body("Book not found");
+		return updateBookById(bookId, bookDto, null);
+	}
+
+	/**
+	 * Replaces the book in a single UPDATE. With an expected version, as sent in
+	 * If-Match, the UPDATE only applies while the stored version still matches,
+	 * so a write based on a stale read is answered with 412 instead of silently
+	 * overwriting a newer one.
+	 */
+	@Transactional
+	public ResponseEntity<?> updateBookById(long bookId, BookDto bookDto, Long expectedVersion)
+			throws DataIntegrityViolationException {
+		validate(bookDto, "updateBookById");
+		checkIsbnAvailable(bookDto.getIsbn(), bookId, "updateBookById");
+		Instant updatedAt = now();
+		int updated;
+		try {
+			updated = expectedVersion == null
+					? bookRepository.updateBookById(bookId, bookDto.getTitle(), bookDto.getAuthor(),
+							bookDto.getPublishedDate(), bookDto.getIsbn(), updatedAt)
+					: bookRepository.updateBookByIdAndVersion(bookId, expectedVersion, bookDto.getTitle(),
+							bookDto.getAuthor(), bookDto.getPublishedDate(), bookDto.getIsbn(), updatedAt);
+		} catch (DataIntegrityViolationException e) {
+			bookMetrics.failure("updateBookById", BookMetrics.INTEGRITY_VIOLATION);
+			throw e;
+		}
+		if (updated == 0) {
+			// Only a failed conditional write needs to tell a stale version from a missing book
+			if (expectedVersion != null && bookRepository.existsById(bookId)) {
+				bookMetrics.failure("updateBookById", BookMetrics.PRECONDITION_FAILED);
+				return ResponseEntity.status(412).body("Book was modified since it was read");
+			}
+			return notFound("updateBookById");
 		} else {
-			Book book = new Book(bookDto);
-			book.setId(bookId);
-			bookRepository.save(book);
-			bookDtoReturn = new BookDto(book);
-			return ResponseEntity.status(200).body(bookDtoReturn);
+			BookDto updatedDto = new BookDto(bookId, bookDto.getTitle(), bookDto.getAuthor(), bookDto.getPublishedDate(),
+					bookDto.getIsbn());
+			afterCommit(() -> bookChangeListeners.forEach(listener -> listener.bookUpdated(updatedDto)));
+			if (expectedVersion == null) {
+				// The new version is unknown without reading the row back
+				return ResponseEntity.status(200).body(updatedDto);
+			}
+			updatedDto.setVersion(expectedVersion + 1);
+			updatedDto.setUpdatedAt(updatedAt);
+			return ok(updatedDto);
 		}
 
 	}
 
+	/**
+	 * Updates only the fields present in the given book; fields left null keep
+	 * their stored value. The book is read back after the update to return it
+	 * and to notify the listeners with the complete row.
+	 */
+	@Transactional
+	public ResponseEntity<?> patchBookById(long bookId, BookDto bookDto) throws DataIntegrityViolationException {
+		try {
+			validatePatchDto(bookDto);
+		} catch (IllegalArgumentException e) {
+			bookMetrics.failure("patchBookById", BookMetrics.INVALID);
+			throw e;
+		}
+		checkIsbnAvailable(bookDto.getIsbn(), bookId, "patchBookById");
+		int updated;
+		try {
+			updated = bookRepository.patchBookById(bookId, bookDto.getTitle(), bookDto.getAuthor(),
+					bookDto.getPublishedDate(), bookDto.getIsbn(), now());
+		} catch (DataIntegrityViolationException e) {
+			bookMetrics.failure("patchBookById", BookMetrics.INTEGRITY_VIOLATION);
+			throw e;
+		}
+		BookDto patchedDto = updated == 0 ? null : bookRepository.findBookDtoById(bookId).orElse(null);
+		if (patchedDto == null) {
+			return notFound("patchBookById");
+		} else {
+			afterCommit(() -> bookChangeListeners.forEach(listener -> listener.bookUpdated(patchedDto)));
+			return ok(patchedDto);
+		}
+	}
+
+	@Transactional
 	public ResponseEntity<?> deleteBookById(long bookId) {
-		Book book = bookRepository.findById(bookId).orElse(null);
-		if (book == null) {
-			return ResponseEntity.status(404).body("Book not found");
+		if (bookRepository.deleteBookById(bookId) == 0) {
+			return notFound("deleteBookById");
 		} else {
-			bookRepository.delete(book);
+			afterCommit(() -> bookChangeListeners.forEach(listener -> listener.bookDeleted(bookId)));
 			return ResponseEntity.status(200).body("Book Deleted");
 		}
 	}
 
+	/**
+	 * Deletes up to {@value #MAX_BULK_DELETE_SIZE} books in one statement. Ids
+	 * that do not exist are ignored and only counted as not deleted.
+	 */
+	@Transactional
+	public BookBulkDeleteResult deleteBooksByIds(Collection<Long> bookIds) {
+		if (bookIds == null || bookIds.isEmpty()) {
+			throw new IllegalArgumentException("Ids cannot be empty");
+		}
+		Set<Long> ids = new HashSet<>(bookIds);
+		if (ids.size() > MAX_BULK_DELETE_SIZE) {
+			throw new IllegalArgumentException("Cannot delete more than " + MAX_BULK_DELETE_SIZE + " books at once");
+		}
+		int deleted = bookRepository.deleteBooksByIds(ids);
+		if (deleted > 0) {
+			// Listeners ignore ids they do not know, but the count tracker cannot
+			// tell which ids were missing, so it reconciles instead
+			afterCommit(() -> {
+				ids.forEach(id -> bookChangeListeners.forEach(listener -> listener.bookDeleted(id)));
+				if (deleted < ids.size()) {
+					bookCountTracker.invalidate();
+				}
+			});
+		}
+		return new BookBulkDeleteResult(ids.size(), deleted);
+	}
+
+	/**
+	 * Runs the listener notification once the current transaction has
+	 * committed, or right away outside of one. Invalidating the caches before
+	 * the commit would let a concurrent read cache the old row again for the
+	 * whole time to live; a rolled back write notifies no one.
+	 */
+	private void afterCommit(Runnable notification) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			notification.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				notification.run();
+			}
+		});
+	}
+
+	// Conditional GETs are answered with 304 by Spring MVC from these headers, before the body is serialized
+	private ResponseEntity<?> ok(BookDto bookDto) {
+		ResponseEntity.BodyBuilder response = ResponseEntity.status(200).eTag(BookETags.of(bookDto));
+		if (bookDto.getUpdatedAt() != null) {
+			response.lastModified(bookDto.getUpdatedAt());
+		}
+		return response.body(bookDto);
+	}
+
+	// Truncated to what the database stores, so Last-Modified is the same before and after a re-read
+	private Instant now() {
+		return Instant.now().truncatedTo(ChronoUnit.MICROS);
+	}
+
+	private ResponseEntity<?> notFound(String operation) {
+		bookMetrics.failure(operation, BookMetrics.NOT_FOUND);
+		return ResponseEntity.status(404).body("Book not found");
+	}
+
+	private void validate(BookDto bookDto, String operation) {
+		try {
+			validateBookDto(bookDto);
+		} catch (IllegalArgumentException e) {
+			bookMetrics.failure(operation, BookMetrics.INVALID);
+			throw e;
+		}
+	}
+
+	private void checkIsbnAvailable(String isbn, long bookId, String operation) {
+		Long holderId = bookIsbnRegistry.findBookId(isbn);
+		if (holderId == null || holderId == bookId) {
+			return;
+		}
+		// The entry may be left over from a delete or ISBN change on another node, so the table decides
+		Long tableHolderId = bookRepository.findIdByIsbn(isbn).orElse(null);
+		if (tableHolderId == null) {
+			bookIsbnRegistry.forget(isbn, holderId);
+		} else if (tableHolderId != bookId) {
+			bookMetrics.failure(operation, BookMetrics.DUPLICATE_ISBN);
+			throw new DuplicateIsbnException(isbn);
+		}
+	}
+
+	private void validatePatchDto(BookDto bookDto) {
+		if (bookDto.getTitle() == null && bookDto.getAuthor() == null && bookDto.getPublishedDate() == null
+				&& bookDto.getIsbn() == null) {
+			throw new IllegalArgumentException("At least one field must be provided");
+		}
+		if (bookDto.getTitle() != null && bookDto.getTitle().isEmpty()) {
+			throw new IllegalArgumentException("Title cannot be empty");
+		}
+		if (bookDto.getAuthor() != null && bookDto.getAuthor().isEmpty()) {
+			throw new IllegalArgumentException("Author cannot be empty");
+		}
+		if (bookDto.getIsbn() != null && bookDto.getIsbn().isEmpty()) {
+			throw new IllegalArgumentException("ISBN cannot be empty");
+		}
+	}
+
 	public void validateBookDto(BookDto bookDto) {
 		if (bookDto.getTitle() == null || bookDto.getTitle().isEmpty()) {
 			throw new IllegalArgumentException("Title cannot be null or empty");
@@ -85,13 +816,51 @@ public class BookService {
 		}
 	}
 
+	@Transactional(readOnly = true)
 	public List<BookDto> getBooksByAuthorOrTile(String searchText) {
-		List<BookDto> booksDto = new ArrayList<>();
-		List<Book> books = bookRepository.findByAuthorOrTitle(searchText);
-		for (Book book : books) {
-			booksDto.add(new BookDto(book));
+		return bookRepository.findBookDtosByAuthorOrTitle(searchText);
+	}
+
+	public List<String> getSuggestions(String prefix, int limit) {
+		return bookSuggestIndex.suggest(prefix, limit);
+	}
+
+	/**
+	 * Counts books by author and by published year from the in-memory facet
+	 * index, optionally narrowed to an author or title prefix.
+	 */
+	public BookFacets getFacets(String prefix, int top) {
+		if (top < 1 || top > BookFacetIndex.MAX_AUTHORS) {
+			throw new IllegalArgumentException("Top must be between 1 and " + BookFacetIndex.MAX_AUTHORS);
+		}
+		return bookFacetIndex.facets(prefix, top);
+	}
+
+	@Transactional(readOnly = true)
+	public BookSearchResult searchBooks(String query, int page, int size) {
+		if (page < 0) {
+			throw new IllegalArgumentException("Page cannot be negative");
+		}
+		if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+			throw new IllegalArgumentException("Size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+		}
+		BookSearchIndex.SearchHits hits = bookSearchIndex.search(query, page, size);
+		if (hits.getBookIds().isEmpty()) {
+			return new BookSearchResult(List.of(), page, size, hits.getTotalHits());
+		}
+		// Only the ranked page is loaded, by primary key, and put back in rank order
+		Map<Long, BookDto> booksById = new HashMap<>();
+		for (BookDto bookDto : bookRepository.findBookDtosByIds(hits.getBookIds())) {
+			booksById.put(bookDto.getId(), bookDto);
+		}
+		List<BookDto> booksDto = new ArrayList<>(hits.getBookIds().size());
+		for (Long bookId : hits.getBookIds()) {
+			BookDto bookDto = booksById.get(bookId);
+			if (bookDto != null) {
+				booksDto.add(bookDto);
+			}
 		}
-		return booksDto;
+		return new BookSearchResult(booksDto, page, size, hits.getTotalHits());
 	}
 
 }
@@ -0,0 +1,194 @@
+package com.example.demo.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.demo.dto.BookBatchItemResult;
+import com.example.demo.dto.BookDto;
+import com.example.demo.exceptions.BookWriteTimeoutException;
+
+/**
+ * Group commit for single-book creates. Callers block in {@link #submit} while
+ * one writer thread collects the books queued within {@code maxDelay} of the
+ * first, up to {@code maxBatchSize}, writes them in one transaction and hands
+ * every caller its own item result. A zero delay only batches what queued up
+ * during the previous commit, so it adds no latency when idle. A failed write
+ * fails its batch but never the writer thread, and callers stop waiting after
+ * the submit timeout.
+ */
+public class BookWriteCoalescer implements AutoCloseable {
+
+	private final int maxBatchSize;
+	private final long maxDelayNanos;
+	private final long submitTimeoutNanos;
+	private final Function<List<BookDto>, BookBatchItemResult[]> writer;
+	private final BookMetrics bookMetrics;
+	private static final PendingWrite SHUTDOWN = new PendingWrite(null);
+
+	private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+	private final Thread thread;
+	private volatile boolean closed;
+	Logger logger = LoggerFactory.getLogger(BookWriteCoalescer.class);
+
+	public BookWriteCoalescer(int maxBatchSize, Duration maxDelay, Duration submitTimeout,
+			Function<List<BookDto>, BookBatchItemResult[]> writer, BookMetrics bookMetrics) {
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("book.write-coalescing.max-batch-size must be at least 1");
+		}
+		this.maxBatchSize = maxBatchSize;
+		this.maxDelayNanos = maxDelay.toNanos();
+		this.submitTimeoutNanos = submitTimeout.toNanos();
+		this.writer = writer;
+		this.bookMetrics = bookMetrics;
+		this.thread = new Thread(this::run, "book-write-coalescer");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Queues the book for the next group commit and waits for its result, at
+	 * most the submit timeout.
+	 */
+	public BookBatchItemResult submit(BookDto bookDto) {
+		if (closed) {
+			throw new IllegalStateException("Book writes are shutting down");
+		}
+		PendingWrite write = new PendingWrite(bookDto);
+		queue.add(write);
+		try {
+			return write.result.get(submitTimeoutNanos, TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			if (queue.remove(write)) {
+				throw new BookWriteTimeoutException("Timed out waiting for the book to be saved, it was not saved");
+			}
+			throw new BookWriteTimeoutException("Timed out waiting for the book to be saved, it may still be saved");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the book to be saved", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Stops taking books and returns once every book queued so far is written.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		queue.add(SHUTDOWN);
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		// A submit racing with close may have queued after the last drain
+		PendingWrite late;
+		while ((late = queue.poll()) != null) {
+			late.result.completeExceptionally(new IllegalStateException("Book writes are shutting down"));
+		}
+	}
+
+	private void run() {
+		List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+		boolean shutdown = false;
+		while (!shutdown) {
+			PendingWrite first = take();
+			if (first == SHUTDOWN) {
+				break;
+			}
+			batch.add(first);
+			shutdown = collect(batch);
+			write(batch);
+			batch.clear();
+		}
+		while (queue.drainTo(batch, maxBatchSize) > 0) {
+			batch.remove(SHUTDOWN);
+			write(batch);
+			batch.clear();
+		}
+	}
+
+	private PendingWrite take() {
+		while (true) {
+			try {
+				return queue.take();
+			} catch (InterruptedException e) {
+				// Only close stops the writer, so books already queued are never dropped
+			}
+		}
+	}
+
+	/**
+	 * Adds the books queued within the delay of the first one to the batch, and
+	 * returns whether close was called meanwhile.
+	 */
+	private boolean collect(List<PendingWrite> batch) {
+		long deadline = System.nanoTime() + maxDelayNanos;
+		while (batch.size() < maxBatchSize) {
+			if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+				if (batch.remove(SHUTDOWN)) {
+					return true;
+				}
+				continue;
+			}
+			long remaining = deadline - System.nanoTime();
+			PendingWrite next;
+			try {
+				next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+			} catch (InterruptedException e) {
+				next = null;
+			}
+			if (next == null) {
+				return false;
+			}
+			if (next == SHUTDOWN) {
+				return true;
+			}
+			batch.add(next);
+		}
+		return false;
+	}
+
+	private void write(List<PendingWrite> batch) {
+		List<BookDto> bookDtos = new ArrayList<>(batch.size());
+		batch.forEach(write -> bookDtos.add(write.bookDto));
+		bookMetrics.coalescedBatch(batch.size());
+		try {
+			BookBatchItemResult[] results = writer.apply(bookDtos);
+			for (int i = 0; i < batch.size(); i++) {
+				batch.get(i).result.complete(results[i]);
+			}
+		} catch (Throwable e) {
+			// Errors too, since a dead writer thread would leave every later caller waiting
+			logger.error("Failed to write {} coalesced books", batch.size(), e);
+			batch.forEach(write -> write.result.completeExceptionally(e));
+		}
+	}
+
+	private static class PendingWrite {
+
+		private final BookDto bookDto;
+		private final CompletableFuture<BookBatchItemResult> result = new CompletableFuture<>();
+
+		private PendingWrite(BookDto bookDto) {
+			this.bookDto = bookDto;
+		}
+
+	}
+
+}
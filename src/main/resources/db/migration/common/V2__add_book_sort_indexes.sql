@@ -0,0 +1,8 @@
+-- One index per sortable column with id as the tiebreaker, matching the
+-- ORDER BY of sorted pages and keyset queries, so a page is read in index
+-- order and stops after LIMIT rows instead of sorting the whole table.
+-- The published_date index also serves the publishedFrom/publishedTo range.
+
+CREATE INDEX idx_book_author_id ON book (author, id);
+CREATE INDEX idx_book_title_id ON book (title, id);
+CREATE INDEX idx_book_published_date_id ON book (published_date, id);
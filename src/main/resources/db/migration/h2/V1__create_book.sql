@@ -0,0 +1,11 @@
+-- Same schema as db/migration/mysql/V1__create_book.sql for the embedded test database
+
+CREATE TABLE book (
+	id BIGINT NOT NULL AUTO_INCREMENT,
+	title VARCHAR(255) NOT NULL,
+	author VARCHAR(255) NOT NULL,
+	published_date DATE NOT NULL,
+	isbn VARCHAR(255) NOT NULL,
+	PRIMARY KEY (id),
+	CONSTRAINT uk_book_isbn UNIQUE (isbn)
+);
@@ -0,0 +1,4 @@
+-- Same change as db/migration/mysql/V3__add_book_version_and_updated_at.sql for the embedded test database
+
+ALTER TABLE book ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE book ADD COLUMN updated_at TIMESTAMP(6) WITH TIME ZONE;
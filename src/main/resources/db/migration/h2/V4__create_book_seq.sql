@@ -0,0 +1,4 @@
+-- Same change as db/migration/mysql/V4__create_book_seq.sql for the embedded test database.
+-- Each fetch reserves the next block of 50 ids (allocationSize on Book.id).
+
+CREATE SEQUENCE book_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,3 @@
+-- Same change as db/migration/mysql/V5__move_book_seq_past_existing_ids.sql for the embedded test database
+
+ALTER SEQUENCE book_seq RESTART WITH (SELECT COALESCE((MAX(id) / 50 + 2) * 50, 1) FROM book);
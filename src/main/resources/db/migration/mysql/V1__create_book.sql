@@ -0,0 +1,13 @@
+-- Schema previously created by hibernate.ddl-auto=update from the original
+-- Book entity. Databases created that way are baselined at this version, so
+-- only later migrations run there.
+
+CREATE TABLE book (
+	id BIGINT NOT NULL AUTO_INCREMENT,
+	title VARCHAR(255) NOT NULL,
+	author VARCHAR(255) NOT NULL,
+	published_date DATE NOT NULL,
+	isbn VARCHAR(255) NOT NULL,
+	PRIMARY KEY (id),
+	CONSTRAINT uk_book_isbn UNIQUE (isbn)
+) ENGINE = InnoDB;
@@ -0,0 +1,6 @@
+-- Optimistic locking version and last modification time of a book (@Version
+-- and updatedAt on Book). Existing books start at version 0 with no time.
+
+ALTER TABLE book
+	ADD COLUMN version BIGINT DEFAULT 0 NOT NULL,
+	ADD COLUMN updated_at DATETIME(6);
@@ -0,0 +1,10 @@
+-- Book ids now come from book_seq instead of AUTO_INCREMENT, so batches can
+-- assign them without a round trip per row. MySQL has no sequences, so
+-- Hibernate emulates book_seq with a one-row table. Each fetch reserves the
+-- next block of 50 ids (allocationSize on Book.id).
+
+CREATE TABLE book_seq (
+	next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO book_seq VALUES (1);
@@ -0,0 +1,8 @@
+-- book_seq starts at 1, but books created before it have AUTO_INCREMENT ids.
+-- Hibernate hands out the block of 50 ids ending at the value it fetches, so
+-- next_val must be at least 50 beyond the largest id; it is rounded up to the
+-- next multiple of 50. Empty tables keep the initial value.
+
+UPDATE book_seq
+SET next_val = (SELECT (MAX(id) DIV 50 + 2) * 50 FROM book)
+WHERE EXISTS (SELECT 1 FROM book);
@@ -0,0 +1,48 @@
+package com.example.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = { "management.endpoints.web.exposure.include=prometheus",
+		"management.observations.annotations.enabled=true",
+		"management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+		"spring.jpa.properties.hibernate.generate_statistics=true" })
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class PrometheusEndpointTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@DisplayName("Integration test for the Prometheus scrape endpoint")
+	@Test
+	public void givenServedRequests_whenScrapingPrometheus_thenExposeEndpointServiceFailureHibernateAndPoolMetrics()
+			throws Exception {
+		mockMvc.perform(get("/api/books/{id}", 424242L)).andExpect(status().isNotFound());
+		mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content("""
+				{ "title": "", "author": "Yogesh", "publishedDate": "2025-01-25", "isbn": "12345" }
+				""")).andExpect(status().isBadRequest());
+
+		String scrape = mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk()).andReturn().getResponse()
+				.getContentAsString();
+
+		assertThat(scrape).contains("http_server_requests_seconds_bucket{", "uri=\"/api/books/{id}\"")
+				.contains("book_service_seconds_bucket{", "method=\"getBookJsonById\"")
+				.containsPattern("book_failures_total\\{[^}]*operation=\"getBookById\",outcome=\"not_found\"")
+				.containsPattern("book_failures_total\\{[^}]*operation=\"addNewBook\",outcome=\"invalid\"")
+				.contains("hibernate_query_executions_total", "hibernate_entities_loads_total", "hibernate_flushes_total")
+				.contains("hikaricp_connections_active", "book_datasource_permits_available", "cache_gets_total{cache=\"book.dto\"", "cache_gets_total{cache=\"book.json\"");
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.example.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures the time from launching the packaged application to its first
+ * successful API response, for the plain jar, with AOT processing and with
+ * AOT processing plus the CDS archive. Needs the output of
+ * {@code mvn -Pfast-startup -DskipTests package}; run with
+ * {@code mvn test -Pbenchmarks -Dtest=StartupBenchmarkTests -Dstartup.args="--spring.datasource.url=..."}.
+ * A JDBC driver missing from the jar, such as H2, can be appended to
+ * {@code startup.classpath} if the archive was trained with the same classpath.
+ */
+@Tag("benchmark")
+public class StartupBenchmarkTests {
+
+	private static final String DIRECTORY = System.getProperty("startup.directory", "target/fast-startup");
+	private static final String CLASSPATH = System.getProperty("startup.classpath",
+			DIRECTORY + "/demo-0.0.1-SNAPSHOT.jar");
+	private static final String ARGS = System.getProperty("startup.args", "");
+	private static final int RUNS = Integer.getInteger("startup.runs", 5);
+	private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+	@DisplayName("Benchmark of the time to the first successful request with and without AOT and CDS")
+	@Test
+	public void givenPackagedApplication_whenStarting_thenReportTimeToFirstRequest() throws Exception {
+		File archive = new File(DIRECTORY, "demo.jsa");
+		assumeTrue(archive.exists(), "Build with mvn -Pfast-startup -DskipTests package first");
+
+		measure("jar", List.of());
+		measure("aot", List.of("-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-startup"));
+		measure("aot-cds", List.of("-XX:SharedArchiveFile=" + archive.getPath(), "-Xlog:cds=error",
+				"-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-startup"));
+	}
+
+	private void measure(String mode, List<String> jvmArgs) throws Exception {
+		List<Long> millis = new ArrayList<>();
+		for (int run = 0; run < RUNS; run++) {
+			millis.add(timeToFirstRequest(mode, jvmArgs));
+		}
+		Collections.sort(millis);
+		System.out.printf("StartupBenchmark mode=%s runs=%d minMs=%d medianMs=%d maxMs=%d%n", mode, RUNS, millis.get(0),
+				millis.get(millis.size() / 2), millis.get(millis.size() - 1));
+	}
+
+	private long timeToFirstRequest(String mode, List<String> jvmArgs) throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		List<String> command = new ArrayList<>();
+		command.add(System.getProperty("java.home") + "/bin/java");
+		command.addAll(jvmArgs);
+		command.addAll(List.of("-cp", CLASSPATH, DemoApplication.class.getName(), "--server.port=" + port));
+		if (!ARGS.isBlank()) {
+			command.addAll(Arrays.asList(ARGS.trim().split("\\s+")));
+		}
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/books?page=0&size=1"))
+				.timeout(Duration.ofSeconds(5)).GET().build();
+
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command).redirectErrorStream(true)
+				.redirectOutput(new File("target/startup-benchmark-" + mode + ".log")).start();
+		try {
+			while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+				assertThat(process.isAlive()).as("Application exited, see target/startup-benchmark-%s.log", mode)
+						.isTrue();
+				try {
+					if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+						return (System.nanoTime() - start) / 1_000_000;
+					}
+				} catch (IOException e) {
+					// Not listening yet
+				}
+				Thread.sleep(5);
+			}
+			throw new AssertionError("No successful response within " + TIMEOUT);
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.example.demo.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveLimitTests {
+
+	private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+	@DisplayName("Fast requests raise a busy limit by about one per window")
+	@Test
+	public void givenFastRequestsAtTheLimit_whenRelease_thenIncreaseAdditively() {
+		AdaptiveLimit limit = new AdaptiveLimit(10, 2, 100, Duration.ofMillis(100), 0.5);
+
+		while (limit.tryAcquire(1)) {
+		}
+		// Three windows of requests, each replaced by a new one as it completes
+		for (int i = 0; i < 30; i++) {
+			limit.release(System.nanoTime(), false);
+			limit.tryAcquire(1);
+		}
+
+		assertThat(limit.getLimit()).isBetween(12, 13);
+	}
+
+	@DisplayName("An idle limit does not grow")
+	@Test
+	public void givenFewRequestsInFlight_whenRelease_thenKeepLimit() {
+		AdaptiveLimit limit = new AdaptiveLimit(10, 2, 100, Duration.ofMillis(100), 0.5);
+
+		for (int i = 0; i < 100; i++) {
+			limit.tryAcquire(1);
+			limit.release(System.nanoTime(), false);
+		}
+
+		assertThat(limit.getLimit()).isEqualTo(10);
+	}
+
+	@DisplayName("A burst of slow requests cuts the limit once, and later ones cut it again down to the minimum")
+	@Test
+	public void givenSlowRequests_whenRelease_thenDecreaseMultiplicativelyOncePerBurst() {
+		AdaptiveLimit limit = new AdaptiveLimit(40, 2, 100, Duration.ofMillis(100), 0.5);
+		long burstStart = System.nanoTime() - SLOW;
+		for (int i = 0; i < 10; i++) {
+			limit.tryAcquire(1);
+		}
+
+		for (int i = 0; i < 10; i++) {
+			limit.release(burstStart, false);
+		}
+		assertThat(limit.getLimit()).isEqualTo(20);
+
+		for (int i = 0; i < 10; i++) {
+			limit.tryAcquire(1);
+			limit.release(System.nanoTime(), true);
+		}
+		assertThat(limit.getLimit()).isEqualTo(2);
+	}
+
+	@DisplayName("Requests limited to a share are rejected while full priority ones still pass")
+	@Test
+	public void givenShare_whenTryAcquire_thenRejectLowPriorityFirst() {
+		AdaptiveLimit limit = new AdaptiveLimit(10, 2, 100, Duration.ofMillis(100), 0.5);
+		for (int i = 0; i < 5; i++) {
+			assertThat(limit.tryAcquire(0.5)).isTrue();
+		}
+
+		assertThat(limit.tryAcquire(0.5)).isFalse();
+		for (int i = 0; i < 5; i++) {
+			assertThat(limit.tryAcquire(1)).isTrue();
+		}
+		assertThat(limit.tryAcquire(1)).isFalse();
+		assertThat(limit.getInFlight()).isEqualTo(10);
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.example.demo.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.servlet.FilterChain;
+
+public class AdmissionControlFilterTests {
+
+	private final AdmissionControlFilter filter = new AdmissionControlFilter(4, 100, Duration.ofSeconds(10), 2, 50,
+			Duration.ofSeconds(10), 2, 0.9, 0.5, Duration.ofSeconds(2), List.of("/api/books/export"));
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@AfterEach
+	public void releaseBlockedRequests() {
+		release.countDown();
+		executor.shutdownNow();
+	}
+
+	@DisplayName("Writes over the write limit get 503 with Retry-After while reads still pass")
+	@Test
+	public void givenWriteLimitReached_whenWrite_thenRejectAndKeepReading() throws Exception {
+		holdRequests("POST", "/api/books", 2);
+
+		MockHttpServletResponse rejected = perform("PUT", "/api/books/1");
+		MockHttpServletResponse read = perform("GET", "/api/books/1");
+
+		assertThat(rejected.getStatus()).isEqualTo(503);
+		assertThat(rejected.getHeader("Retry-After")).isEqualTo("2");
+		assertThat(rejected.getContentAsString()).isEqualTo("Server is busy, retry later");
+		assertThat(read.getStatus()).isEqualTo(200);
+	}
+
+	@DisplayName("Searches are shed once they fill their share of the read limit, before other reads")
+	@Test
+	public void givenSearchShareReached_whenSearch_thenRejectSearchButAdmitOtherReads() throws Exception {
+		holdRequests("GET", "/api/search", 2);
+
+		assertThat(perform("GET", "/api/search/ranked").getStatus()).isEqualTo(503);
+		holdRequests("GET", "/api/books/1", 2);
+		assertThat(perform("GET", "/api/books/2").getStatus()).isEqualTo(503);
+
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		filter.bindTo(registry);
+		assertThat(registry.get("book.admission.rejected").tag("class", AdmissionControlFilter.SEARCH).functionCounter()
+				.count()).isEqualTo(1);
+		assertThat(registry.get("book.admission.rejected").tag("class", AdmissionControlFilter.READ).functionCounter()
+				.count()).isEqualTo(1);
+		assertThat(registry.get("book.admission.in-flight").tag("budget", AdmissionControlFilter.READ).gauge().value())
+				.isEqualTo(4);
+		assertThat(registry.get("book.admission.limit").tag("budget", AdmissionControlFilter.READ).gauge().value())
+				.isEqualTo(4);
+	}
+
+	@DisplayName("Server errors cut the limit")
+	@Test
+	public void givenServerError_whenRequestCompletes_thenDecreaseLimit() throws Exception {
+		MockHttpServletRequest request = request("POST", "/api/books");
+		filter.doFilter(request, new MockHttpServletResponse(),
+				(req, res) -> ((jakarta.servlet.http.HttpServletResponse) res).setStatus(500));
+
+		assertThat(filter.getWriteLimit().getLimit()).isEqualTo(2);
+		assertThat(filter.getReadLimit().getLimit()).isEqualTo(4);
+	}
+
+	@DisplayName("Paths outside the API and excluded streams are not limited")
+	@Test
+	public void givenExcludedPath_whenLimitReached_thenAdmit() throws Exception {
+		holdRequests("GET", "/api/books/1", 4);
+
+		assertThat(perform("GET", "/api/books/export").getStatus()).isEqualTo(200);
+		assertThat(perform("GET", "/actuator/health").getStatus()).isEqualTo(200);
+	}
+
+	/**
+	 * Starts requests that stay in the chain until the test ends, and returns
+	 * once all of them have been admitted.
+	 */
+	private void holdRequests(String method, String uri, int count) throws Exception {
+		CountDownLatch admitted = new CountDownLatch(count);
+		FilterChain chain = (request, response) -> {
+			admitted.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+		for (int i = 0; i < count; i++) {
+			Future<?> ignored = executor.submit(() -> {
+				filter.doFilter(request(method, uri), new MockHttpServletResponse(), chain);
+				return null;
+			});
+		}
+		assertThat(admitted.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	private MockHttpServletResponse perform(String method, String uri) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request(method, uri), response, (request, res) -> {
+		});
+		return response;
+	}
+
+	private static MockHttpServletRequest request(String method, String uri) {
+		return new MockHttpServletRequest(method, uri);
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.example.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+public class BoundedDataSourceTests {
+
+	private final BoundedDataSource dataSource = new BoundedDataSource(
+			new DriverManagerDataSource("jdbc:h2:mem:bounded;DB_CLOSE_DELAY=-1", "sa", ""), 1, Duration.ofMillis(100));
+
+	@DisplayName("JUnit test for BoundedDataSource with every permit taken")
+	@Test
+	public void givenAllPermitsTaken_whenGetConnection_thenTimeOutUntilConnectionClosed() throws Exception {
+		Connection connection = dataSource.getConnection();
+
+		long start = System.nanoTime();
+		assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+		assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(Duration.ofMillis(100).toNanos());
+
+		connection.close();
+		// A second close must not hand out a second permit
+		connection.close();
+		assertThat(connection.isClosed()).isTrue();
+		assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+		try (Connection next = dataSource.getConnection()) {
+			assertThat(next.isValid(1)).isTrue();
+			assertThat(dataSource.getAvailablePermits()).isZero();
+		}
+		assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+	}
+
+}
@@ -0,0 +1,210 @@
+package com.example.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.demo.services.BookService;
+import com.jayway.jsonpath.JsonPath;
+
+import jakarta.servlet.http.Cookie;
+
+/**
+ * Two embedded databases stand in for the replicas of a third, the primary.
+ * Each holds a different book with id 1, so the title read back tells which
+ * database served the read.
+ */
+@SpringBootTest(properties = { "book.datasource.acquire-timeout=PT0.5S", "book.datasource.replica.maximum-pool-size=2",
+		"book.datasource.replica.health-check-interval=PT1H", "book.datasource.replica.read-your-writes-window=PT1M" })
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ReadReplicaRoutingTests {
+
+	private static final String ID = UUID.randomUUID().toString();
+	private static final String[] REPLICA_URLS = { replicaUrl("replica-1"), replicaUrl("replica-2") };
+
+	@Autowired
+	private BookService bookService;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private ReplicaPool replicaPool;
+	@Autowired
+	private MockMvc mockMvc;
+
+	@DynamicPropertySource
+	static void dataSources(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url",
+				() -> "jdbc:h2:mem:primary-" + ID + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+		registry.add("book.datasource.replica.urls", () -> String.join(",", REPLICA_URLS));
+	}
+
+	@BeforeAll
+	static void createReplicas() throws Exception {
+		for (int i = 0; i < REPLICA_URLS.length; i++) {
+			// IFEXISTS keeps a replica that was shut down from coming back empty, so create it without
+			String url = REPLICA_URLS[i].replace(";IFEXISTS=TRUE", "");
+			Flyway.configure().dataSource(url, "sa", "").locations("classpath:db/migration/common", "classpath:db/migration/h2")
+					.load().migrate();
+			try (Connection connection = DriverManager.getConnection(url, "sa", "");
+					Statement statement = connection.createStatement()) {
+				statement.execute("INSERT INTO book (id, title, author, published_date, isbn) VALUES (1, 'replica-" + (i + 1)
+						+ "', 'Yogesh', DATE '2025-01-25', 'RR-" + (i + 1) + "')");
+			}
+		}
+	}
+
+	@DisplayName("Read-only transactions go to the replicas in turn and writes to the primary")
+	@Test
+	@Order(1)
+	public void givenTwoReplicas_whenReadingInReadOnlyTransactions_thenAlternateReplicasAndWriteToPrimary() {
+		Set<String> servedBy = new HashSet<>();
+		servedBy.add(firstTitle());
+		servedBy.add(firstTitle());
+
+		assertThat(servedBy).containsExactlyInAnyOrder("replica-1", "replica-2");
+		Set<String> cursorPagesServedBy = new HashSet<>();
+		cursorPagesServedBy.add(firstTitleAfterCursor());
+		cursorPagesServedBy.add(firstTitleAfterCursor());
+		assertThat(cursorPagesServedBy).containsExactlyInAnyOrder("replica-1", "replica-2");
+		// Plain JDBC outside a read-only transaction uses the primary, which the replicas never saw
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM book", Long.class)).isZero();
+	}
+
+	@DisplayName("Reads of a client that just wrote go to the primary until the window closes")
+	@Test
+	@Order(2)
+	public void givenWriteCookie_whenReadingAgain_thenReadFromPrimary() throws Exception {
+		Cookie cookie = mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content("""
+				{ "title": "primary", "author": "Yogesh", "publishedDate": "2025-01-25", "isbn": "RR-PRIMARY" }
+				""")).andExpect(status().isOk()).andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+		assertThat(cookie).isNotNull();
+		mockMvc.perform(get("/api/books?page=0&size=5").cookie(cookie)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].title").value("primary"));
+		mockMvc.perform(get("/api/books?page=0&size=5")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].title").value(org.hamcrest.Matchers.startsWith("replica-")));
+		// A pin further out than the window was not issued by this server
+		Cookie forged = new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(Long.MAX_VALUE));
+		mockMvc.perform(get("/api/books?page=0&size=5").cookie(forged)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].title").value(org.hamcrest.Matchers.startsWith("replica-")));
+	}
+
+	@DisplayName("A read by another client while the replicas lag does not cache the old book for the writer")
+	@Test
+	@Order(3)
+	public void givenLaggingReplicas_whenAnotherClientReadsAfterUpdate_thenWriterReadsOwnUpdate() throws Exception {
+		String created = mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content("""
+				{ "title": "before", "author": "Yogesh", "publishedDate": "2025-01-25", "isbn": "RR-LAG" }
+				""")).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		long id = ((Number) JsonPath.read(created, "$.id")).longValue();
+		// The replicas caught up with the insert but will never see the update
+		for (String url : REPLICA_URLS) {
+			execute(url, "INSERT INTO book (id, title, author, published_date, isbn) VALUES (" + id
+					+ ", 'before', 'Yogesh', DATE '2025-01-25', 'RR-LAG')");
+		}
+
+		Cookie cookie = mockMvc.perform(put("/api/books/" + id).contentType(MediaType.APPLICATION_JSON).content("""
+				{ "title": "after", "author": "Yogesh", "publishedDate": "2025-01-25", "isbn": "RR-LAG" }
+				""")).andExpect(status().isOk()).andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+		// Another client, not pinned, misses the cache and loads in a read-only transaction
+		assertThat(bookService.getBookById(id).getBody()).hasFieldOrPropertyWithValue("title", "after");
+
+		mockMvc.perform(get("/api/books/" + id).cookie(cookie)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.title").value("after"));
+	}
+
+	@DisplayName("Reads fall back to the primary while the replica pools are exhausted, without marking them down")
+	@Test
+	@Order(4)
+	public void givenExhaustedReplicaPools_whenReading_thenReadFromPrimaryAndKeepReplicasUp() throws Exception {
+		List<Connection> held = new ArrayList<>();
+		try {
+			for (ReplicaPool.Replica replica : replicaPool.candidates()) {
+				held.add(replica.getConnection());
+				held.add(replica.getConnection());
+			}
+
+			assertThat(firstTitle()).isEqualTo("primary");
+			// The probe does not wait for a pooled connection, so busy replicas stay up
+			replicaPool.checkHealth();
+			assertThat(replicaPool.candidates()).hasSize(2);
+		} finally {
+			for (Connection connection : held) {
+				connection.close();
+			}
+		}
+		assertThat(firstTitle()).startsWith("replica-");
+	}
+
+	@DisplayName("Replicas that go down are skipped, and reads fall back to the primary once none is left")
+	@Test
+	@Order(5)
+	public void givenReplicasGoingDown_whenReading_thenFailOverToHealthyReplicaThenPrimary() throws Exception {
+		shutdown(REPLICA_URLS[0]);
+		replicaPool.checkHealth();
+
+		assertThat(firstTitle()).isEqualTo("replica-2");
+		assertThat(firstTitle()).isEqualTo("replica-2");
+
+		// Not health checked: the failed connection attempt itself marks the replica down
+		shutdown(REPLICA_URLS[1]);
+		Thread.sleep(600);
+
+		assertThat(firstTitle()).isEqualTo("primary");
+		assertThat(replicaPool.candidates()).isEmpty();
+	}
+
+	private String firstTitle() {
+		return bookService.getAllBook(PageRequest.of(0, 1)).getContent().get(0).getTitle();
+	}
+
+	private String firstTitleAfterCursor() {
+		return bookService.getBooksAfterCursor("", PageRequest.of(0, 1)).getContent().get(0).getTitle();
+	}
+
+	private static void shutdown(String url) throws Exception {
+		execute(url, "SHUTDOWN");
+	}
+
+	private static void execute(String url, String sql) throws Exception {
+		try (Connection connection = DriverManager.getConnection(url, "sa", "");
+				Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+
+	private static String replicaUrl(String name) {
+		return "jdbc:h2:mem:" + name + "-" + ID + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;IFEXISTS=TRUE";
+	}
+
+}
@@ -6,6 +6,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -17,13 +19,29 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.example.demo.dto.BookBatchItemResult;
+import com.example.demo.dto.BookBatchResult;
+import com.example.demo.dto.BookBulkDeleteResult;
+import com.example.demo.dto.BookCacheStats;
+import com.example.demo.dto.BookCursorPage;
 import com.example.demo.dto.BookDto;
+import com.example.demo.dto.BookFacetCount;
+import com.example.demo.dto.BookFacets;
+import com.example.demo.exceptions.BookWriteTimeoutException;
+import com.example.demo.exceptions.DuplicateIsbnException;
+import com.example.demo.dto.BookImportResult;
+import com.example.demo.dto.BookSearchResult;
+import com.example.demo.dto.BookSlice;
+import com.example.demo.services.BookETags;
 import com.example.demo.services.BookService;
 
 @WebMvcTest(BookController.class)
@@ -76,6 +94,47 @@ public class BookControllerIntegrationTests {
 				""")).andDo(print()).andExpect(status().isBadRequest()).andExpect(content().string("Author cannot be null or empty"));
 	}
 
+	// Integration test for createBooks method
+	@DisplayName("Integration test for createBooks method")
+	@Test
+	public void givenBookDtos_whenCreateBooks_thenReturnResultPerItem() throws Exception {
+
+		BookDto bookDto = new BookDto();
+		bookDto.setId(1L);
+		bookDto.setAuthor("Yogesh");
+		bookDto.setTitle("Learn Java");
+		bookDto.setPublishedDate(LocalDate.now());
+		bookDto.setIsbn("12345");
+
+		when(bookService.addNewBooks(Mockito.anyList())).thenReturn(new BookBatchResult(1, 1,
+				List.of(new BookBatchItemResult(0, BookBatchItemResult.CREATED, null, bookDto),
+						new BookBatchItemResult(1, BookBatchItemResult.DUPLICATE_ISBN, "Book with the same ISBN already exists", bookDto))));
+
+		mockMvc.perform(post("/api/books/batch").contentType(MediaType.APPLICATION_JSON).content("""
+				    [
+				        { "author": "Yogesh", "title": "Learn Java", "publishedDate": "2025-01-25", "isbn": "12345" },
+				        { "author": "Yogesh", "title": "Learn Java", "publishedDate": "2025-01-25", "isbn": "12345" }
+				    ]
+				""")).andExpect(status().isOk()).andExpect(jsonPath("$.created").value(1))
+				.andExpect(jsonPath("$.items[1].status").value("DUPLICATE_ISBN"));
+	}
+
+	// Integration test for importBooks method
+	@DisplayName("Integration test for importBooks method")
+	@Test
+	public void givenCsvBody_whenImportBooks_thenReturnSummary() throws Exception {
+
+		BookImportResult importResult = new BookImportResult();
+		importResult.setAccepted(2);
+		when(bookService.importBooks(any(), Mockito.eq("csv"))).thenReturn(importResult);
+
+		mockMvc.perform(post("/api/books/import").contentType("text/csv").content("""
+				title,author,publishedDate,isbn
+				Learn Java,Yogesh,2025-01-25,12345
+				Learn Spring,John,2025-01-25,67890
+				""")).andExpect(status().isOk()).andExpect(jsonPath("$.accepted").value(2));
+	}
+
 	// Integration test for getAllBook method
 	@DisplayName("Integration test for getAllBook method")
 	@Test
@@ -99,32 +158,149 @@ public class BookControllerIntegrationTests {
 		
 		Page<BookDto> bookPage = new PageImpl<>(List.of(bookDto1, bookDto2), pageable, 2);
 
-		when(bookService.getAllBook(pageable)).thenReturn(bookPage);
+		when(bookService.getAllBook(pageable, null, null)).thenReturn(bookPage);
 
 		mockMvc.perform(get("/api/books?page=0&size=5").contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
 				.andExpect(jsonPath("$.content[0].author").value("Yogesh")).andExpect(jsonPath("$.content[1].author").value("Mohit"));
 	}
 
-	// Integration test for getBookById method
-	@DisplayName("Integration test for getBookById method")
 	@Test
-	public void givenBookId_whenGetBookById_thenReturnBookDtoOfId() throws Exception {
+	public void givenPublishedDateRange_whenGetAllBooks_thenPassRangeToService() throws Exception {
+		BookDto bookDto = new BookDto(1L, "Learn Java", "Yogesh", LocalDate.of(2024, 5, 1), "12345");
+		Pageable pageable = PageRequest.of(0, 5);
+		when(bookService.getAllBook(pageable, LocalDate.of(2024, 1, 1), null))
+				.thenReturn(new PageImpl<>(List.of(bookDto), pageable, 1));
+		when(bookService.getAllBook(PageRequest.of(0, 5, Sort.by("author")), LocalDate.of(2024, 1, 1), null))
+				.thenThrow(new IllegalArgumentException("Books filtered by publishedDate can only be sorted by publishedDate"));
+
+		mockMvc.perform(get("/api/books?page=0&size=5&publishedFrom=2024-01-01")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].publishedDate").value("2024-05-01"));
+		mockMvc.perform(get("/api/books?page=0&size=5&publishedFrom=2024-01-01&sort=author"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("Books filtered by publishedDate can only be sorted by publishedDate"));
+		mockMvc.perform(get("/api/books?after=&publishedTo=2024-12-31")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void givenSlice_whenGetAllBooks_thenReturnSliceWithoutCount() throws Exception {
 
-		long bookId = 1L;
 		BookDto bookDto = new BookDto();
-		bookDto.setId(bookId);
+		bookDto.setId(1L);
 		bookDto.setAuthor("Yogesh");
 		bookDto.setTitle("Learn Java");
 		bookDto.setPublishedDate(LocalDate.now());
 		bookDto.setIsbn("12345");
 
-		Mockito.<ResponseEntity<?>>when(bookService.getBookById(bookId))
-				.thenReturn(ResponseEntity.status(200).body(bookDto));
+		Pageable pageable = PageRequest.of(0, 1);
+		when(bookService.getBookSlice(pageable, true, null, null)).thenReturn(new BookSlice(List.of(bookDto), 0, 1, true, 7L));
+
+		mockMvc.perform(get("/api/books?page=0&size=1&slice=true&withTotal=true").contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.content[0].author").value("Yogesh"))
+				.andExpect(jsonPath("$.hasNext").value(true)).andExpect(jsonPath("$.totalElements").value(7));
+	}
+
+	@Test
+	public void givenCursor_whenGetAllBooks_thenReturnCursorPage() throws Exception {
+
+		BookDto bookDto = new BookDto();
+		bookDto.setId(3L);
+		bookDto.setAuthor("Yogesh");
+		bookDto.setTitle("Learn Java");
+		bookDto.setPublishedDate(LocalDate.now());
+		bookDto.setIsbn("12345");
+
+		Pageable pageable = PageRequest.of(0, 1);
+		when(bookService.getBooksAfterCursor("abc", pageable)).thenReturn(new BookCursorPage(List.of(bookDto), 1, "def"));
+
+		mockMvc.perform(get("/api/books?after=abc&size=1").contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].id").value(3L)).andExpect(jsonPath("$.nextCursor").value("def"));
+	}
+
+	@Test
+	public void givenInvalidCursor_whenGetAllBooks_thenReturnBadRequest() throws Exception {
+
+		when(bookService.getBooksAfterCursor(Mockito.eq("bad"), any(Pageable.class)))
+				.thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+		mockMvc.perform(get("/api/books?after=bad").contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isBadRequest()).andExpect(content().string("Invalid cursor"));
+	}
+
+	// Integration test for exportBooks method
+	@DisplayName("Integration test for exportBooks method")
+	@Test
+	public void givenGzip_whenExportBooks_thenStreamNdjsonWithContentEncoding() throws Exception {
+
+		Mockito.doAnswer(invocation -> {
+			OutputStream out = invocation.getArgument(0);
+			out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+			return null;
+		}).when(bookService).exportBooks(any(OutputStream.class), Mockito.eq(true));
+
+		MvcResult result = mockMvc.perform(get("/api/books/export?gzip=true")).andExpect(request().asyncStarted()).andReturn();
+
+		mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(content().contentType("application/x-ndjson")).andExpect(content().string("{\"id\":1}\n"));
+	}
+
+	// Integration test for getBookById method
+	@DisplayName("Integration test for getBookById method")
+	@Test
+	public void givenBookId_whenGetBookById_thenReturnBookDtoOfId() throws Exception {
+
+		long bookId = 1L;
+		byte[] json = """
+				{"id":1,"title":"Learn Java","author":"Yogesh","publishedDate":"2025-01-25","isbn":"12345"}""".getBytes(StandardCharsets.UTF_8);
+
+		Mockito.<ResponseEntity<?>>when(bookService.getBookJsonById(bookId, false))
+				.thenReturn(ResponseEntity.status(200).contentType(MediaType.APPLICATION_JSON).body(json));
 
 		mockMvc.perform(get("/api/books/{id}", 1L).contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
 				.andExpect(jsonPath("$.id").value(1L)).andExpect(jsonPath("$.title").value("Learn Java"));
 	}
 
+	@DisplayName("Integration test for getBookById method with Accept-Encoding")
+	@Test
+	public void givenAcceptEncoding_whenGetBookById_thenAskServiceForGzipOnlyIfAccepted() throws Exception {
+		byte[] gzip = { 31, -117, 8, 0 };
+		Mockito.<ResponseEntity<?>>when(bookService.getBookJsonById(1L, true)).thenReturn(ResponseEntity.status(200)
+				.contentType(MediaType.APPLICATION_JSON).header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip));
+		Mockito.<ResponseEntity<?>>when(bookService.getBookJsonById(1L, false))
+				.thenReturn(ResponseEntity.status(200).contentType(MediaType.APPLICATION_JSON).body("{}".getBytes()));
+
+		mockMvc.perform(get("/api/books/{id}", 1L).header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+				.andExpect(status().isOk()).andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(content().bytes(gzip));
+		mockMvc.perform(get("/api/books/{id}", 1L).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+				.andExpect(status().isOk()).andExpect(content().string("{}"));
+	}
+
+	@DisplayName("Integration test for conditional getBookById and getAllBook requests")
+	@Test
+	public void givenCurrentETag_whenGetBookOrPageAgain_thenReturnNotModifiedWithoutBody() throws Exception {
+		BookDto bookDto = new BookDto(1L, "Learn Java", "Yogesh", LocalDate.now(), "12345");
+		bookDto.setVersion(3L);
+		Mockito.<ResponseEntity<?>>when(bookService.getBookJsonById(1L, false)).thenReturn(ResponseEntity.status(200)
+				.contentType(MediaType.APPLICATION_JSON).eTag("\"3\"").body("{\"id\":1}".getBytes()));
+		Pageable pageable = PageRequest.of(0, 5);
+		when(bookService.getAllBook(pageable, null, null)).thenReturn(new PageImpl<>(List.of(bookDto), pageable, 1));
+
+		mockMvc.perform(get("/api/books/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+				.andExpect(status().isNotModified()).andExpect(content().string(""));
+		mockMvc.perform(get("/api/books/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"2\"")).andExpect(status().isOk())
+				.andExpect(content().string("{\"id\":1}"));
+
+		String pageETag = mockMvc.perform(get("/api/books?page=0&size=5")).andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get("/api/books?page=0&size=5").header(HttpHeaders.IF_NONE_MATCH, pageETag))
+				.andExpect(status().isNotModified()).andExpect(content().string(""));
+		bookDto.setVersion(4L);
+		mockMvc.perform(get("/api/books?page=0&size=5").header(HttpHeaders.IF_NONE_MATCH, pageETag))
+				.andExpect(status().isOk());
+	}
+
 	@Test
 	public void givenInvalidBookId_whenGetBookById_thenReturnNotFound() throws Exception {
 
@@ -136,7 +312,7 @@ public class BookControllerIntegrationTests {
 		bookDto.setPublishedDate(LocalDate.now());
 		bookDto.setIsbn("12345");
 
-		Mockito.<ResponseEntity<?>>when(bookService.getBookById(2L))
+		Mockito.<ResponseEntity<?>>when(bookService.getBookJsonById(2L, false))
 				.thenReturn(ResponseEntity.status(404).body("Book not found"));
 
 		mockMvc.perform(get("/api/books/{id}", 2L).contentType(MediaType.APPLICATION_JSON))
@@ -156,7 +332,8 @@ public class BookControllerIntegrationTests {
 		updatedBookDto.setPublishedDate(LocalDate.now());
 		updatedBookDto.setIsbn("12345");
 
-		Mockito.<ResponseEntity<?>>when(bookService.updateBookById(Mockito.eq(bookId), Mockito.any(BookDto.class)))
+		Mockito.<ResponseEntity<?>>when(
+				bookService.updateBookById(Mockito.eq(bookId), Mockito.any(BookDto.class), Mockito.isNull()))
 				.thenReturn(ResponseEntity.status(200).body(updatedBookDto));
 
 		mockMvc.perform(put("/api/books/{id}", bookId).contentType(MediaType.APPLICATION_JSON).content("""
@@ -170,6 +347,24 @@ public class BookControllerIntegrationTests {
 				.andExpect(jsonPath("$.author").value("Yogesh Updated"));
 	}
 
+	@DisplayName("Integration test for updateBookById method with If-Match")
+	@Test
+	public void givenIfMatch_whenUpdateBookById_thenPassExpectedVersionToService() throws Exception {
+		Mockito.<ResponseEntity<?>>when(bookService.updateBookById(Mockito.eq(1L), Mockito.any(BookDto.class), Mockito.eq(3L)))
+				.thenReturn(ResponseEntity.status(412).body("Book was modified since it was read"));
+		Mockito.<ResponseEntity<?>>when(
+				bookService.updateBookById(Mockito.eq(1L), Mockito.any(BookDto.class), Mockito.eq(BookETags.NO_MATCH)))
+				.thenReturn(ResponseEntity.status(412).body("Book was modified since it was read"));
+		String body = """
+				{ "title": "Learn Java", "author": "Yogesh", "publishedDate": "2025-01-25", "isbn": "12345" }
+				""";
+
+		mockMvc.perform(put("/api/books/{id}", 1L).header(HttpHeaders.IF_MATCH, "\"3\"")
+				.contentType(MediaType.APPLICATION_JSON).content(body)).andExpect(status().isPreconditionFailed());
+		mockMvc.perform(put("/api/books/{id}", 1L).header(HttpHeaders.IF_MATCH, "W/\"3\"")
+				.contentType(MediaType.APPLICATION_JSON).content(body)).andExpect(status().isPreconditionFailed());
+	}
+
 	// Integration test for deleteBookById method
 	@DisplayName("Integration test for deleteBookById method")
 	@Test
@@ -192,4 +387,122 @@ public class BookControllerIntegrationTests {
 				.andExpect(status().isNotFound()).andExpect(content().string("Book not found"));
 	}
 
+	// Integration test for patchBookById method
+	@DisplayName("Integration test for patchBookById method")
+	@Test
+	void givenPartialBookDto_whenPatchBook_thenReturnPatchedDto() throws Exception {
+		BookDto patchedDto = new BookDto(1L, "Learn Java", "Yogesh Updated", LocalDate.of(2025, 1, 25), "12345");
+		Mockito.<ResponseEntity<?>>when(bookService.patchBookById(Mockito.eq(1L), Mockito.any(BookDto.class)))
+				.thenReturn(ResponseEntity.status(200).body(patchedDto));
+
+		mockMvc.perform(patch("/api/books/{id}", 1L).contentType(MediaType.APPLICATION_JSON).content("""
+				{ "author": "Yogesh Updated" }
+				""")).andExpect(status().isOk()).andExpect(jsonPath("$.author").value("Yogesh Updated"))
+				.andExpect(jsonPath("$.title").value("Learn Java"));
+	}
+
+	// Integration test for deleteBooksByIds method
+	@DisplayName("Integration test for deleteBooksByIds method")
+	@Test
+	void givenIds_whenDeleteBooks_thenReturnCounts() throws Exception {
+		when(bookService.deleteBooksByIds(List.of(1L, 2L, 3L))).thenReturn(new BookBulkDeleteResult(3, 2));
+
+		mockMvc.perform(delete("/api/books?ids=1,2,3")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.requested").value(3)).andExpect(jsonPath("$.deleted").value(2));
+	}
+
+	// Integration test for getBookByIsbn method
+	@DisplayName("Integration test for getBookByIsbn method")
+	@Test
+	void givenIsbn_whenGetOrHeadBookByIsbn_thenReturnBookOrNotFound() throws Exception {
+		BookDto bookDto = new BookDto(1L, "Learn Java", "Yogesh", LocalDate.of(2025, 1, 25), "978-3-16");
+		Mockito.<ResponseEntity<?>>when(bookService.getBookByIsbn("978-3-16"))
+				.thenReturn(ResponseEntity.status(200).body(bookDto));
+		Mockito.<ResponseEntity<?>>when(bookService.getBookByIsbn("000"))
+				.thenReturn(ResponseEntity.status(404).body("Book not found"));
+
+		mockMvc.perform(get("/api/books/by-isbn/{isbn}", "978-3-16")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(1));
+		mockMvc.perform(head("/api/books/by-isbn/{isbn}", "978-3-16")).andExpect(status().isOk());
+		mockMvc.perform(head("/api/books/by-isbn/{isbn}", "000")).andExpect(status().isNotFound());
+	}
+
+	// Integration test for createBook method with a duplicate ISBN
+	@DisplayName("Integration test for createBook method with a duplicate ISBN")
+	@Test
+	void givenDuplicateIsbn_whenCreateBook_thenReturnBadRequest() throws Exception {
+		when(bookService.addNewBook(any(BookDto.class))).thenThrow(new DuplicateIsbnException("12345"));
+
+		mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content("""
+				{ "title": "Learn Java", "author": "Yogesh", "publishedDate": "2025-01-25", "isbn": "12345" }
+				""")).andExpect(status().isBadRequest())
+				.andExpect(content().string("Book with the same ISBN already exists"));
+	}
+
+	// Integration test for createBook method when the coalesced commit times out
+	@DisplayName("Integration test for createBook method when the coalesced commit times out")
+	@Test
+	void givenCommitTimeout_whenCreateBook_thenReturnServiceUnavailable() throws Exception {
+		when(bookService.addNewBook(any(BookDto.class)))
+				.thenThrow(new BookWriteTimeoutException("Timed out waiting for the book to be saved, it was not saved"));
+
+		mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content("""
+				{ "title": "Learn Java", "author": "Yogesh", "publishedDate": "2025-01-25", "isbn": "12345" }
+				""")).andExpect(status().isServiceUnavailable())
+				.andExpect(content().string("Timed out waiting for the book to be saved, it was not saved"));
+	}
+
+	// Integration test for getSuggestions method
+	@DisplayName("Integration test for getSuggestions method")
+	@Test
+	void givenPrefix_whenGetSuggestions_thenReturnSuggestions() throws Exception {
+		when(bookService.getSuggestions("lea", 3)).thenReturn(List.of("Learn Java", "Learn Spring"));
+
+		mockMvc.perform(get("/api/suggest?q=lea&k=3").contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$[0]").value("Learn Java")).andExpect(jsonPath("$[1]").value("Learn Spring"));
+	}
+
+	// Integration test for getFacets method
+	@DisplayName("Integration test for getFacets method")
+	@Test
+	void givenPrefix_whenGetFacets_thenReturnAuthorAndYearCounts() throws Exception {
+		when(bookService.getFacets("lea", 5)).thenReturn(new BookFacets("lea", 3,
+				List.of(new BookFacetCount("Yogesh", 2), new BookFacetCount("Mohit", 1)),
+				List.of(new BookFacetCount("2024", 1), new BookFacetCount("2025", 2))));
+		when(bookService.getFacets(null, 0)).thenThrow(new IllegalArgumentException("Top must be between 1 and 100"));
+
+		mockMvc.perform(get("/api/books/facets?prefix=lea&top=5")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.total").value(3)).andExpect(jsonPath("$.authors[0].value").value("Yogesh"))
+				.andExpect(jsonPath("$.authors[0].count").value(2)).andExpect(jsonPath("$.years[1].value").value("2025"));
+		mockMvc.perform(get("/api/books/facets?top=0")).andExpect(status().isBadRequest());
+	}
+
+	// Integration test for searchBooks method
+	@DisplayName("Integration test for searchBooks method")
+	@Test
+	void givenQuery_whenSearchBooks_thenReturnRankedBooks() throws Exception {
+		BookDto bookDto = new BookDto();
+		bookDto.setId(1L);
+		bookDto.setAuthor("Yogesh");
+		bookDto.setTitle("Learn Java");
+		bookDto.setPublishedDate(LocalDate.now());
+		bookDto.setIsbn("12345");
+
+		when(bookService.searchBooks("learn java", 0, 20)).thenReturn(new BookSearchResult(List.of(bookDto), 0, 20, 1));
+
+		mockMvc.perform(get("/api/search/ranked?q=learn java").contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.content[0].title").value("Learn Java"))
+				.andExpect(jsonPath("$.totalHits").value(1));
+	}
+
+	// Integration test for getCacheStats method
+	@DisplayName("Integration test for getCacheStats method")
+	@Test
+	void givenNothing_whenGetCacheStats_thenReturnStats() throws Exception {
+		when(bookService.getCacheStats()).thenReturn(new BookCacheStats(true, 3, 10, 5, 1, 10.0 / 15));
+
+		mockMvc.perform(get("/api/cache/stats").contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.hitCount").value(10)).andExpect(jsonPath("$.evictionCount").value(1));
+	}
+
 }
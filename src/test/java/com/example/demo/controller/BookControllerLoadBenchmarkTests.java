@@ -0,0 +1,152 @@
+package com.example.demo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.example.demo.DemoApplication;
+
+/**
+ * Starts the application once with Tomcat's platform worker pool and once with
+ * virtual threads, and drives both with the same closed-loop load of many
+ * concurrent clients. One request in five reads a book from the database, with
+ * every statement delayed to stand in for a MySQL round trip; the rest are
+ * typeahead lookups served from memory. Run with
+ * {@code mvn test -Pbenchmarks -Dtest=BookControllerLoadBenchmarkTests}.
+ */
+@Tag("benchmark")
+public class BookControllerLoadBenchmarkTests {
+
+	private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1000);
+	private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.seconds", 15));
+	private static final long STATEMENT_DELAY_MILLIS = 20;
+
+	@DisplayName("Benchmark of platform against virtual request threads at high concurrency")
+	@Test
+	public void givenManyConcurrentClients_whenRunningPlatformAndVirtualThreads_thenReportP99AndThroughput() throws Exception {
+		for (boolean virtualThreads : new boolean[] { false, true }) {
+			try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+					.properties("server.port=0", "spring.threads.virtual.enabled=" + virtualThreads,
+							"spring.datasource.url=jdbc:h2:mem:load" + virtualThreads + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+							"book.cache.enabled=false", "logging.level.root=WARN")
+					.initializers(applicationContext -> applicationContext.getBeanFactory()
+							.addBeanPostProcessor(new SlowStatementPostProcessor()))
+					.run()) {
+				// SYSTEM_RANGE names its column X, which DATABASE_TO_LOWER would otherwise look up as x
+				context.getBean(JdbcTemplate.class).update("INSERT INTO book (id, title, author, published_date, isbn) "
+						+ "SELECT \"X\", CONCAT('Title ', \"X\"), CONCAT('Author ', MOD(\"X\", 100)), DATE '2020-01-01', "
+						+ "CONCAT('ISBN-', \"X\") FROM SYSTEM_RANGE(1, 1000)");
+				int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+				run(virtualThreads ? "virtual" : "platform", port);
+			}
+		}
+	}
+
+	private void run(String mode, int port) throws Exception {
+		HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+		long[][] latencies = new long[CLIENTS][];
+		AtomicInteger failures = new AtomicInteger();
+		long deadline = System.nanoTime() + DURATION.toNanos();
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int c = 0; c < CLIENTS; c++) {
+				int clientId = c;
+				clients.submit(() -> {
+					long[] samples = new long[1024];
+					int count = 0;
+					for (int i = 0; System.nanoTime() < deadline; i++) {
+						String path = (clientId + i) % 5 == 0 ? "/api/books/" + (1 + (clientId * 31 + i) % 1000)
+								: "/api/suggest?q=title%20" + (i % 10);
+						HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+						long start = System.nanoTime();
+						try {
+							HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() != 200) {
+								failures.incrementAndGet();
+							}
+						} catch (Exception e) {
+							failures.incrementAndGet();
+						}
+						if (count == samples.length) {
+							samples = Arrays.copyOf(samples, count * 2);
+						}
+						samples[count++] = System.nanoTime() - start;
+					}
+					latencies[clientId] = Arrays.copyOf(samples, count);
+				});
+			}
+		}
+		long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+		assertThat(all).isNotEmpty();
+		System.out.printf("BookControllerLoadBenchmark mode=%s clients=%d requests=%d failures=%d throughputPerSecond=%d "
+				+ "p50Ms=%d p99Ms=%d%n", mode, CLIENTS, all.length, failures.get(), all.length / DURATION.toSeconds(),
+				all[all.length / 2] / 1_000_000, all[(int) (all.length * 0.99)] / 1_000_000);
+	}
+
+	// Delays every executed statement, standing in for the network round trip to MySQL
+	private static class SlowStatementPostProcessor implements BeanPostProcessor {
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+			if (!(bean instanceof DataSource dataSource) || bean instanceof DelegatingDataSource) {
+				return bean;
+			}
+			return new DelegatingDataSource(dataSource) {
+
+				@Override
+				public Connection getConnection() throws java.sql.SQLException {
+					Connection connection = super.getConnection();
+					return proxy(Connection.class, connection, (method, result) -> result instanceof PreparedStatement statement
+							? proxy(PreparedStatement.class, statement, (statementMethod, statementResult) -> statementResult)
+							: result);
+				}
+
+			};
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <T> T proxy(Class<T> type, T target, ResultMapper mapper) {
+			return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+				if (type == PreparedStatement.class && method.getName().startsWith("execute")) {
+					Thread.sleep(STATEMENT_DELAY_MILLIS);
+				}
+				try {
+					return mapper.map(method, method.invoke(target, args));
+				} catch (InvocationTargetException e) {
+					throw e.getTargetException();
+				}
+			});
+		}
+
+		private interface ResultMapper {
+
+			Object map(java.lang.reflect.Method method, Object result);
+
+		}
+
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.example.demo.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.demo.DemoApplication;
+
+/**
+ * Drives the API past its capacity at increasing arrival rates, once without
+ * and once with admission control, and prints the goodput of each run: the
+ * successful responses per second that came back within {@code load.slo}.
+ * Without admission control goodput collapses once requests queue past the
+ * SLO; with it, excess requests get an early 503 and goodput should stay
+ * near capacity. Run with
+ * {@code mvn test -Pbenchmarks -Dtest=AdmissionControlBenchmarkTests -Dload.rates=200,400,800}.
+ */
+@Tag("benchmark")
+public class AdmissionControlBenchmarkTests {
+
+	private static final int BOOKS = Integer.getInteger("load.books", 20_000);
+	private static final String RATES = System.getProperty("load.rates", "100,200,400,800");
+	private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.seconds", 15));
+	private static final Duration SLO = Duration.parse(System.getProperty("load.slo", "PT1S"));
+
+	@DisplayName("Goodput past capacity with and without admission control")
+	@Test
+	public void givenLoadPastCapacity_whenAdmissionControlOnOrOff_thenReportGoodput() throws Exception {
+		for (boolean admission : new boolean[] { false, true }) {
+			try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+					.properties("server.port=0", "logging.level.root=WARN", "book.admission.enabled=" + admission,
+							"spring.datasource.url=jdbc:h2:mem:admission-" + admission
+									+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+					.run()) {
+				BookApiLoadBenchmarkTests.seed(context, BOOKS);
+				int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+				LoadTestHarness harness = workload(new LoadTestHarness("http://localhost:" + port + "/api")).slo(SLO);
+				harness.run(Double.parseDouble(RATES.split(",")[0]), Duration.ofSeconds(5));
+
+				for (String rate : RATES.split(",")) {
+					Map<String, LoadTestHarness.EndpointStats> stats = harness.run(Double.parseDouble(rate), DURATION);
+					double goodput = stats.values().stream().mapToDouble(LoadTestHarness.EndpointStats::getGoodputPerSecond)
+							.sum();
+					long rejected = stats.values().stream().mapToLong(LoadTestHarness.EndpointStats::getErrors).sum();
+					System.out.printf("AdmissionControlBenchmark admission=%s rate=%s goodputPerSecond=%.1f errors=%d "
+							+ "searchGoodput=%.1f readGoodput=%.1f writeGoodput=%.1f readP99Ms=%.1f%n", admission, rate,
+							goodput, rejected, stats.get("search").getGoodputPerSecond(),
+							stats.get("getBookById").getGoodputPerSecond(), stats.get("createBook").getGoodputPerSecond(),
+							stats.get("getBookById").getP99Ms());
+					assertThat(stats.values()).allSatisfy(endpoint -> assertThat(endpoint.getRequests()).isPositive());
+				}
+			}
+		}
+	}
+
+	private LoadTestHarness workload(LoadTestHarness harness) {
+		AtomicLong nextIsbn = new AtomicLong();
+		return harness
+				.endpoint("createBook", 10, () -> HttpRequest.newBuilder(harness.uri("/books"))
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Admission\",\"author\":\"Author\","
+								+ "\"publishedDate\":\"2020-01-01\",\"isbn\":\"ADMISSION-" + nextIsbn.incrementAndGet() + "\"}")))
+				.endpoint("getBookById", 50, () -> HttpRequest.newBuilder(harness.uri("/books/" + (1 + random(BOOKS)))).GET())
+				.endpoint("search", 40,
+						() -> HttpRequest.newBuilder(harness.uri("/search?searchText=Author%20" + random(1000))).GET());
+	}
+
+	private static long random(long bound) {
+		return ThreadLocalRandom.current().nextLong(bound);
+	}
+
+}
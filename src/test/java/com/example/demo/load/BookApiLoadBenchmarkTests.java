@@ -0,0 +1,132 @@
+package com.example.demo.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.services.BookCatalogLoader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Starts DemoApplication on an in-memory H2 database seeded with
+ * {@code load.books} books and drives a mixed workload over every
+ * BookController route at a fixed arrival rate. Latency percentiles and
+ * throughput per route are printed and written as JSON to
+ * {@code load.report}, so runs can be diffed. Run with
+ * {@code mvn test -Pbenchmarks -Dtest=BookApiLoadBenchmarkTests -Dload.rate=300 -Dload.seconds=60}.
+ */
+@Tag("benchmark")
+public class BookApiLoadBenchmarkTests {
+
+	private static final int BOOKS = Integer.getInteger("load.books", 100_000);
+	private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "200"));
+	private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+	private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.seconds", 30));
+	private static final String REPORT = System.getProperty("load.report", "target/load-report.json");
+
+	private static final String BOOK_JSON = "{\"title\":\"%s\",\"author\":\"%s\",\"publishedDate\":\"%s\",\"isbn\":\"%s\"}";
+
+	@DisplayName("Load test of every BookController route at a fixed arrival rate")
+	@Test
+	public void givenSeededCatalog_whenDrivingMixedWorkload_thenReportLatencyPerRoute() throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+				.properties("server.port=0", "spring.threads.virtual.enabled=true", "logging.level.root=WARN",
+						"spring.datasource.url=jdbc:h2:mem:load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+				.run()) {
+			seed(context, BOOKS);
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			LoadTestHarness harness = workload(new LoadTestHarness("http://localhost:" + port + "/api"));
+
+			harness.run(RATE, WARMUP);
+			Map<String, LoadTestHarness.EndpointStats> stats = harness.run(RATE, DURATION);
+
+			Map<String, Object> report = new LinkedHashMap<>();
+			report.put("timestamp", Instant.now().toString());
+			report.put("books", BOOKS);
+			report.put("ratePerSecond", RATE);
+			report.put("durationSeconds", DURATION.toSeconds());
+			report.put("endpoints", stats);
+			ObjectMapper objectMapper = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build();
+			File reportFile = new File(REPORT);
+			reportFile.getAbsoluteFile().getParentFile().mkdirs();
+			objectMapper.writeValue(reportFile, report);
+
+			stats.forEach((name, endpoint) -> System.out.printf(
+					"BookApiLoad endpoint=%s requests=%d errors=%d throughputPerSecond=%.1f p50Ms=%.2f p99Ms=%.2f p999Ms=%.2f maxMs=%.2f%n",
+					name, endpoint.getRequests(), endpoint.getErrors(), endpoint.getThroughputPerSecond(),
+					endpoint.getP50Ms(), endpoint.getP99Ms(), endpoint.getP999Ms(), endpoint.getMaxMs()));
+			assertThat(stats.values()).allSatisfy(endpoint -> assertThat(endpoint.getRequests()).isPositive());
+		}
+	}
+
+	static void seed(ConfigurableApplicationContext context, int books) {
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		// SYSTEM_RANGE names its column X, which DATABASE_TO_LOWER would otherwise look up as x
+		jdbcTemplate.update("INSERT INTO book (id, title, author, published_date, isbn) "
+				+ "SELECT \"X\", CONCAT('Title ', \"X\", ' volume ', MOD(\"X\", 97)), CONCAT('Author ', MOD(\"X\", 1000)), "
+				+ "DATEADD('DAY', MOD(\"X\", 3650), DATE '2000-01-01'), CONCAT('ISBN-', \"X\") FROM SYSTEM_RANGE(1, " + books + ")");
+		// Hibernate's pooled optimizer hands out the 50 ids up to each sequence value, so skip a whole block
+		jdbcTemplate.update("ALTER SEQUENCE book_seq RESTART WITH " + (books + 51));
+		context.getBean(BookCatalogLoader.class).loadCatalog();
+	}
+
+	private LoadTestHarness workload(LoadTestHarness harness) {
+		// Updates touch the lower half of the catalog and deletes consume the upper half in order
+		int updatable = BOOKS / 2;
+		AtomicLong nextDeleteId = new AtomicLong(updatable + 1);
+		AtomicLong nextIsbn = new AtomicLong();
+		return harness
+				.endpoint("createBook", 8, () -> json(harness, "/books", "POST", book("New", "LOAD-" + nextIsbn.incrementAndGet())))
+				.endpoint("getAllBook", 10, () -> get(harness, "/books?page=" + random(100) + "&size=20"))
+				.endpoint("getAllBookAfterCursor", 5, () -> get(harness, "/books?after=&size=20&sort=title"))
+				.endpoint("getBookById", 30, () -> get(harness, "/books/" + (1 + random(BOOKS / 2))))
+				.endpoint("getBookByIsbn", 5, () -> get(harness, "/books/by-isbn/ISBN-" + (1 + random(BOOKS / 2))))
+				.endpoint("updateBookById", 5, () -> {
+					long id = 1 + random(updatable);
+					return json(harness, "/books/" + id, "PUT", book("Updated", "ISBN-" + id));
+				})
+				.endpoint("patchBookById", 3, () -> json(harness, "/books/" + (1 + random(updatable)), "PATCH",
+						"{\"author\":\"Patched " + random(1000) + "\"}"))
+				.endpoint("deleteBookById", 4, () -> HttpRequest.newBuilder(harness.uri("/books/" + nextDeleteId.getAndIncrement())).DELETE())
+				.endpoint("getBooksByAuthorOrTitle", 10, () -> get(harness, "/search?searchText=Author%20" + random(1000)))
+				.endpoint("searchBooks", 10, () -> get(harness, "/search/ranked?q=author%20" + random(1000) + "%20volume"))
+				.endpoint("getSuggestions", 10, () -> get(harness, "/suggest?q=title%20" + random(100)));
+	}
+
+	private static HttpRequest.Builder get(LoadTestHarness harness, String path) {
+		return HttpRequest.newBuilder(harness.uri(path)).GET();
+	}
+
+	private static HttpRequest.Builder json(LoadTestHarness harness, String path, String method, String body) {
+		return HttpRequest.newBuilder(harness.uri(path)).header("Content-Type", "application/json").method(method,
+				HttpRequest.BodyPublishers.ofString(body));
+	}
+
+	private static String book(String title, String isbn) {
+		return String.format(BOOK_JSON, title + " " + isbn, "Author " + random(1000), LocalDate.of(2020, 1, 1), isbn);
+	}
+
+	private static long random(long bound) {
+		return ThreadLocalRandom.current().nextLong(bound);
+	}
+
+}
@@ -0,0 +1,220 @@
+package com.example.demo.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Open-model HTTP load generator: requests are started at a fixed arrival
+ * rate whether or not earlier ones have completed, and each request's latency
+ * is measured from the moment it was scheduled to start. A slow server
+ * therefore shows up as latency instead of as fewer requests sent, which a
+ * closed loop of clients would hide (coordinated omission).
+ */
+public class LoadTestHarness {
+
+	private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+	private final String baseUrl;
+	private final HttpClient client;
+	private final List<Endpoint> endpoints = new ArrayList<>();
+	private int totalWeight;
+	private long sloMicros = MAX_LATENCY_MICROS;
+
+	public LoadTestHarness(String baseUrl) {
+		this.baseUrl = baseUrl;
+		this.client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor())
+				.connectTimeout(Duration.ofSeconds(10)).build();
+	}
+
+	/**
+	 * Adds a route to the workload. Each arrival picks a route with probability
+	 * proportional to its weight and sends the request built by the supplier.
+	 */
+	public LoadTestHarness endpoint(String name, int weight, Supplier<HttpRequest.Builder> request) {
+		endpoints.add(new Endpoint(name, weight, request));
+		totalWeight += weight;
+		return this;
+	}
+
+	/**
+	 * Sets the latency within which a successful response counts towards
+	 * goodput. Without it every successful response counts.
+	 */
+	public LoadTestHarness slo(Duration slo) {
+		this.sloMicros = slo.toNanos() / 1000;
+		return this;
+	}
+
+	/**
+	 * Sends requests at {@code ratePerSecond} for the given duration, waits for
+	 * the outstanding ones and returns the statistics of every route.
+	 */
+	public Map<String, EndpointStats> run(double ratePerSecond, Duration duration) throws InterruptedException {
+		endpoints.forEach(Endpoint::reset);
+		long intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+		long arrivals = duration.toNanos() / intervalNanos;
+		Random random = new Random(42);
+		long start = System.nanoTime();
+		try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (long i = 0; i < arrivals; i++) {
+				long intendedStart = start + i * intervalNanos;
+				long wait = intendedStart - System.nanoTime();
+				if (wait > 0) {
+					LockSupport.parkNanos(wait);
+				}
+				Endpoint endpoint = pick(random.nextInt(totalWeight));
+				HttpRequest request = endpoint.request.get().timeout(Duration.ofMinutes(1)).build();
+				requests.submit(() -> send(endpoint, request, intendedStart));
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		Map<String, EndpointStats> stats = new LinkedHashMap<>();
+		for (Endpoint endpoint : endpoints) {
+			stats.put(endpoint.name,
+					new EndpointStats(endpoint.histogram, endpoint.errors.get(), endpoint.good.get(), seconds));
+		}
+		return stats;
+	}
+
+	private void send(Endpoint endpoint, HttpRequest request, long intendedStart) {
+		boolean succeeded = false;
+		try {
+			HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+			if (response.statusCode() >= 400) {
+				endpoint.errors.incrementAndGet();
+			} else {
+				succeeded = true;
+			}
+		} catch (Exception e) {
+			endpoint.errors.incrementAndGet();
+		}
+		long micros = (System.nanoTime() - intendedStart) / 1000;
+		if (succeeded && micros <= sloMicros) {
+			endpoint.good.incrementAndGet();
+		}
+		endpoint.histogram.recordValue(Math.min(Math.max(1, micros), MAX_LATENCY_MICROS));
+	}
+
+	private Endpoint pick(int ticket) {
+		for (Endpoint endpoint : endpoints) {
+			ticket -= endpoint.weight;
+			if (ticket < 0) {
+				return endpoint;
+			}
+		}
+		return endpoints.get(endpoints.size() - 1);
+	}
+
+	public URI uri(String path) {
+		return URI.create(baseUrl + path);
+	}
+
+	private static class Endpoint {
+
+		private final String name;
+		private final int weight;
+		private final Supplier<HttpRequest.Builder> request;
+		private final Histogram histogram = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+		private final AtomicLong errors = new AtomicLong();
+		private final AtomicLong good = new AtomicLong();
+
+		private Endpoint(String name, int weight, Supplier<HttpRequest.Builder> request) {
+			this.name = name;
+			this.weight = weight;
+			this.request = request;
+		}
+
+		private void reset() {
+			histogram.reset();
+			errors.set(0);
+			good.set(0);
+		}
+
+	}
+
+	/**
+	 * Throughput and latency percentiles of one route, in milliseconds.
+	 */
+	public static class EndpointStats {
+
+		private final long requests;
+		private final long errors;
+		private final double throughputPerSecond;
+		private final double goodputPerSecond;
+		private final double p50Ms;
+		private final double p90Ms;
+		private final double p99Ms;
+		private final double p999Ms;
+		private final double maxMs;
+
+		EndpointStats(Histogram histogram, long errors, long good, double seconds) {
+			this.requests = histogram.getTotalCount();
+			this.errors = errors;
+			this.throughputPerSecond = requests / seconds;
+			this.goodputPerSecond = good / seconds;
+			this.p50Ms = histogram.getValueAtPercentile(50) / 1000.0;
+			this.p90Ms = histogram.getValueAtPercentile(90) / 1000.0;
+			this.p99Ms = histogram.getValueAtPercentile(99) / 1000.0;
+			this.p999Ms = histogram.getValueAtPercentile(99.9) / 1000.0;
+			this.maxMs = histogram.getMaxValue() / 1000.0;
+		}
+
+		public long getRequests() {
+			return requests;
+		}
+
+		public long getErrors() {
+			return errors;
+		}
+
+		public double getThroughputPerSecond() {
+			return throughputPerSecond;
+		}
+
+		/**
+		 * Successful responses within the SLO per second.
+		 */
+		public double getGoodputPerSecond() {
+			return goodputPerSecond;
+		}
+
+		public double getP50Ms() {
+			return p50Ms;
+		}
+
+		public double getP90Ms() {
+			return p90Ms;
+		}
+
+		public double getP99Ms() {
+			return p99Ms;
+		}
+
+		public double getP999Ms() {
+			return p999Ms;
+		}
+
+		public double getMaxMs() {
+			return maxMs;
+		}
+
+	}
+
+}
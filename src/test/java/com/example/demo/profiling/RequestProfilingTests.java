@@ -0,0 +1,65 @@
+package com.example.demo.profiling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest(properties = { "book.profiler.enabled=true", "book.profiler.slow-request-threshold=0ms",
+		"book.profiler.slow-query-threshold=0ms" })
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+public class RequestProfilingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@DisplayName("Integration test for the Server-Timing header of a profiled request")
+	@Test
+	public void givenProfilerEnabled_whenGetBooksSlice_thenServerTimingBreaksDownDbMappingAndSerialization()
+			throws Exception {
+		mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content("""
+				{ "title": "Profiled", "author": "Yogesh", "publishedDate": "2025-01-25", "isbn": "978-0-00-000016-1" }
+				""")).andExpect(status().isOk());
+
+		MvcResult result = mockMvc.perform(get("/api/books").param("slice", "true")).andExpect(status().isOk())
+				.andReturn();
+
+		assertThat(result.getResponse().getHeader(RequestProfilingFilter.SERVER_TIMING)).matches(
+				"db;dur=\\d+\\.\\d{3};desc=\"[1-9]\\d* statements, \\d+ binds\", map;dur=\\d+\\.\\d{3}, ser;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}");
+		assertThat(result.getResponse().getContentAsString()).contains("Profiled");
+	}
+
+	@DisplayName("Integration test for the slow request and slow query log")
+	@Test
+	public void givenZeroThresholds_whenSearch_thenLogSlowRequestAndSlowQueryWithSqlAndBinds(CapturedOutput output)
+			throws Exception {
+		mockMvc.perform(get("/api/search").param("searchText", "Prof")).andExpect(status().isOk());
+
+		assertThat(output.getOut())
+				.containsPattern("slow_query duration_ms=\\d+\\.\\d{3} binds=2 sql=\"select .*from book .*like")
+				.containsPattern(
+						"slow_request method=GET uri=\"/api/search\" status=200 total_ms=\\S+ db_ms=\\S+ statements=1 binds=2 .*slowest_sql=\"select ");
+	}
+
+	@DisplayName("Integration test for a streamed response left out of profiling")
+	@Test
+	public void givenExcludedExportPath_whenExportBooks_thenNoServerTimingHeader() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/books/export")).andReturn();
+
+		assertThat(result.getResponse().getHeader(RequestProfilingFilter.SERVER_TIMING)).isNull();
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.example.demo.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Upgrades a database created from the original schema, as it would be after
+ * baselining at V1, and checks the ids Hibernate takes from book_seq.
+ */
+public class BookMigrationTests {
+
+	private static final int ALLOCATION_SIZE = 50;
+
+	@DisplayName("book_seq hands out ids past the AUTO_INCREMENT ids of existing books")
+	@Test
+	public void givenExistingBooks_whenMigrating_thenBookSeqStartsPastLargestId() {
+		DriverManagerDataSource dataSource = newDatabase();
+		flyway(dataSource).target("1").load().migrate();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.update("INSERT INTO book (title, author, published_date, isbn) "
+				+ "SELECT CONCAT('Title ', r.n), 'Author', DATE '2025-01-25', CONCAT('ISBN-', r.n) FROM SYSTEM_RANGE(1, 120) AS r (n)");
+
+		flyway(dataSource).load().migrate();
+
+		long nextVal = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR book_seq", Long.class);
+		// Hibernate's pooled optimizer uses the block of ids ending at the value it fetched
+		assertThat(nextVal - ALLOCATION_SIZE + 1).isGreaterThan(120);
+		assertThat(nextVal % ALLOCATION_SIZE).isZero();
+	}
+
+	@DisplayName("book_seq of an empty database keeps its initial value")
+	@Test
+	public void givenNoBooks_whenMigrating_thenBookSeqStartsAtOne() {
+		DriverManagerDataSource dataSource = newDatabase();
+
+		flyway(dataSource).load().migrate();
+
+		assertThat(new JdbcTemplate(dataSource).queryForObject("SELECT NEXT VALUE FOR book_seq", Long.class)).isEqualTo(1);
+	}
+
+	private static DriverManagerDataSource newDatabase() {
+		return new DriverManagerDataSource("jdbc:h2:mem:migration-" + UUID.randomUUID()
+				+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+	}
+
+	private static FluentConfiguration flyway(DriverManagerDataSource dataSource) {
+		return Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/common",
+				"classpath:db/migration/h2");
+	}
+
+}
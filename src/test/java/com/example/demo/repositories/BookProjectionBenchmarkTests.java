@@ -0,0 +1,93 @@
+package com.example.demo.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.BookDto;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Compares reading pages as managed entities mapped to BookDto with reading
+ * them through the DTO projection, for latency and allocated bytes per page.
+ * Run with {@code mvn test -Pbenchmarks -Dtest=BookProjectionBenchmarkTests}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookProjectionBenchmarkTests {
+
+	private static final int BOOKS = Integer.getInteger("benchmark.books", 200_000);
+	private static final int PAGE_SIZE = 1000;
+	private static final int ITERATIONS = 100;
+
+	@Autowired
+	private BookRepository bookRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@DisplayName("Benchmark of findAll with entity mapping against findAllBookDtos")
+	@Test
+	public void givenSeededCatalog_whenReadingLargePages_thenReportEntityAndProjectionCost() {
+		jdbcTemplate.update("DELETE FROM book");
+		jdbcTemplate.update("INSERT INTO book (id, title, author, published_date, isbn) "
+				+ "SELECT x, CONCAT('Title ', x), CONCAT('Author ', MOD(x, 5000)), "
+				+ "DATEADD('DAY', MOD(x, 3650), DATE '2000-01-01'), CONCAT('ISBN-', x) FROM SYSTEM_RANGE(1, " + BOOKS + ")");
+		try {
+			// Warm up both paths before measuring
+			measure(false, 20);
+			measure(true, 20);
+
+			long[] entity = measure(false, ITERATIONS);
+			long[] projection = measure(true, ITERATIONS);
+
+			System.out.printf(
+					"BookProjectionBenchmark books=%d pageSize=%d entityAvgUs=%d entityKbPerPage=%d projectionAvgUs=%d projectionKbPerPage=%d%n",
+					BOOKS, PAGE_SIZE, entity[0] / ITERATIONS / 1000, entity[1] / ITERATIONS / 1024,
+					projection[0] / ITERATIONS / 1000, projection[1] / ITERATIONS / 1024);
+		} finally {
+			jdbcTemplate.update("DELETE FROM book");
+		}
+	}
+
+	private long[] measure(boolean projection, int iterations) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().threadId();
+		long nanos = 0;
+		long bytes = 0;
+		for (int i = 0; i < iterations; i++) {
+			PageRequest pageable = PageRequest.of(i % (BOOKS / PAGE_SIZE), PAGE_SIZE);
+			long allocated = threads.getThreadAllocatedBytes(threadId);
+			long start = System.nanoTime();
+			// Each page runs in its own transaction, as a request would
+			List<BookDto> books = transactionTemplate.execute(status -> {
+				List<BookDto> content = projection ? bookRepository.findAllBookDtos(pageable).getContent()
+						: bookRepository.findAll(pageable).map(BookDto::new).getContent();
+				entityManager.clear();
+				return content;
+			});
+			nanos += System.nanoTime() - start;
+			bytes += threads.getThreadAllocatedBytes(threadId) - allocated;
+			assertThat(books).hasSize(PAGE_SIZE);
+		}
+		return new long[] { nanos, bytes };
+	}
+
+}
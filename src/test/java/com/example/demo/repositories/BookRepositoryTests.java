@@ -0,0 +1,274 @@
+package com.example.demo.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.dto.BookCursor;
+import com.example.demo.dto.BookDto;
+import com.example.demo.entities.Book;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.example.demo.repositories.BookRepositoryTests$RecordingStatementInspector")
+public class BookRepositoryTests {
+
+	private static final int SEEDED_BOOKS = 50_000;
+	private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+	@Autowired
+	private BookRepository bookRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("INSERT INTO book (id, title, author, published_date, isbn) "
+				+ "SELECT x, CONCAT('Title ', x), CONCAT('Author ', MOD(x, 1000)), DATEADD('DAY', MOD(x, 3650), DATE '2000-01-01'), "
+				+ "CONCAT('ISBN-', x) FROM SYSTEM_RANGE(1, " + SEEDED_BOOKS + ")");
+	}
+
+	@DisplayName("JUnit test for findNextBookDtosById method")
+	@Test
+	public void givenLastSeenId_whenFindNextBookDtosById_thenReturnFollowingBooksInIdOrder() {
+		List<BookDto> books = bookRepository.findNextBookDtosById(SEEDED_BOOKS - 5, PageRequest.of(0, 10));
+
+		assertThat(books).extracting(BookDto::getId).containsExactly(49996L, 49997L, 49998L, 49999L, 50000L);
+	}
+
+	@DisplayName("JUnit test for findNextBookDtosByTitle method")
+	@Test
+	public void givenLastSeenTitle_whenFindNextBookDtosByTitle_thenReturnFollowingBooksInTitleOrder() {
+		List<BookDto> books = bookRepository.findNextBookDtosByTitle("Title 1", 1L, PageRequest.of(0, 3));
+
+		assertThat(books).extracting(BookDto::getTitle).containsExactly("Title 10", "Title 100", "Title 1000")
+				.isSortedAccordingTo(String::compareTo);
+	}
+
+	@DisplayName("JUnit test for findAllBookDtos method")
+	@Test
+	public void givenSortedPageable_whenFindAllBookDtos_thenReturnProjectedSortedPage() {
+		Page<BookDto> page = bookRepository.findAllBookDtos(PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "id")));
+
+		assertThat(page.getTotalElements()).isEqualTo(SEEDED_BOOKS);
+		assertThat(page.getContent()).extracting(BookDto::getId).startsWith(49980L, 49979L).hasSize(10);
+		assertThat(page.getContent().get(0).getTitle()).isEqualTo("Title 49980");
+	}
+
+	@DisplayName("JUnit test for findBookDtoById, findBookDtosByIds and findBookDtosByAuthorOrTitle methods")
+	@Test
+	public void givenIdOrPrefix_whenFindingBookDtos_thenReturnProjectedBooks() {
+		assertThat(bookRepository.findBookDtoById(42L)).get().extracting(BookDto::getIsbn).isEqualTo("ISBN-42");
+		assertThat(bookRepository.findBookDtoById(SEEDED_BOOKS + 1)).isEmpty();
+		assertThat(bookRepository.findBookDtosByIds(List.of(42L, 7L, SEEDED_BOOKS + 1L))).extracting(BookDto::getIsbn)
+				.containsExactlyInAnyOrder("ISBN-42", "ISBN-7");
+		assertThat(bookRepository.findBookDtosByAuthorOrTitle("Title 4999")).extracting(BookDto::getTitle)
+				.containsExactlyInAnyOrder("Title 4999", "Title 49990", "Title 49991", "Title 49992", "Title 49993",
+						"Title 49994", "Title 49995", "Title 49996", "Title 49997", "Title 49998", "Title 49999");
+	}
+
+	@DisplayName("JUnit test for patchBookById and deleteBooksByIds methods")
+	@Test
+	public void givenExistingAndMissingIds_whenModifying_thenReturnAffectedRowCounts() {
+		Instant updatedAt = Instant.parse("2025-01-25T10:15:30Z");
+		assertThat(bookRepository.patchBookById(7L, null, "New Author", null, null, updatedAt)).isEqualTo(1);
+		assertThat(bookRepository.patchBookById(SEEDED_BOOKS + 1, "Title", null, null, null, updatedAt)).isZero();
+		BookDto patched = bookRepository.findBookDtoById(7L).orElseThrow();
+		assertThat(patched.getAuthor()).isEqualTo("New Author");
+		assertThat(patched.getTitle()).isEqualTo("Title 7");
+		assertThat(patched.getIsbn()).isEqualTo("ISBN-7");
+		assertThat(patched.getVersion()).isEqualTo(1L);
+		assertThat(patched.getUpdatedAt()).isEqualTo(updatedAt);
+
+		assertThat(bookRepository.deleteBooksByIds(List.of(1L, 2L, SEEDED_BOOKS + 1L))).isEqualTo(2);
+		assertThat(bookRepository.deleteBookById(3L)).isEqualTo(1);
+		assertThat(bookRepository.deleteBookById(3L)).isZero();
+		assertThat(bookRepository.count()).isEqualTo(SEEDED_BOOKS - 3);
+	}
+
+	@DisplayName("JUnit test for updateBookById and updateBookByIdAndVersion methods")
+	@Test
+	public void givenStoredVersion_whenUpdating_thenIncrementVersionAndRejectStaleVersion() {
+		Instant updatedAt = Instant.parse("2025-01-25T10:15:30Z");
+		LocalDate publishedDate = LocalDate.of(2020, 1, 1);
+
+		assertThat(bookRepository.updateBookById(8L, "Title 8", "Author 8", publishedDate, "ISBN-8", updatedAt)).isEqualTo(1);
+		assertThat(bookRepository.updateBookByIdAndVersion(8L, 0L, "Stale", "Author 8", publishedDate, "ISBN-8", updatedAt))
+				.isZero();
+		assertThat(bookRepository.updateBookByIdAndVersion(8L, 1L, "Current", "Author 8", publishedDate, "ISBN-8", updatedAt))
+				.isEqualTo(1);
+
+		BookDto updated = bookRepository.findBookDtoById(8L).orElseThrow();
+		assertThat(updated.getTitle()).isEqualTo("Current");
+		assertThat(updated.getVersion()).isEqualTo(2L);
+		assertThat(updated.getUpdatedAt()).isEqualTo(updatedAt);
+	}
+
+	@DisplayName("JUnit test for streamAllBy method")
+	@Test
+	public void givenLargeCatalog_whenStreamAllBy_thenVisitEveryBookInIdOrder() {
+		long[] visited = { 0, 0 };
+		try (Stream<Book> books = bookRepository.streamAllBy()) {
+			books.forEach(book -> {
+				assertThat(book.getId()).isGreaterThan(visited[1]);
+				visited[0]++;
+				visited[1] = book.getId();
+			});
+		}
+
+		assertThat(visited[0]).isEqualTo(SEEDED_BOOKS);
+	}
+
+	@DisplayName("Deep keyset page of every cursor sort reads as many rows as the first page while OFFSET reads every skipped row")
+	@Test
+	public void givenLargeCatalog_whenSeekingDeepPage_thenRowsScannedDoNotGrowWithDepth() {
+		int size = 20;
+		PageRequest limit = PageRequest.of(0, size + 1);
+		int depth = SEEDED_BOOKS - 1000;
+
+		// The seek reads the page plus the look-ahead row wherever it starts, and for
+		// the other sorts also the rows that share the cursor value up to the cursor
+		assertThat(scanCountOf(() -> bookRepository.findNextBookDtosById(0, limit), 0L, size + 1))
+				.isLessThanOrEqualTo(size + 2);
+		assertThat(scanCountOf(() -> bookRepository.findNextBookDtosById(depth, limit), (long) depth, size + 1))
+				.isLessThanOrEqualTo(size + 2);
+
+		Object[] title = rowAt("title", depth);
+		assertThat(scanCountOf(() -> bookRepository.findBookDtoPageOrderedByTitle(limit), size + 1)).isLessThanOrEqualTo(size + 2);
+		assertThat(scanCountOf(() -> bookRepository.findNextBookDtosByTitle((String) title[0], (Long) title[1], limit), title[0],
+				title[0], title[1], size + 1)).isLessThanOrEqualTo(size + 2 + tiedUpTo("title", title));
+
+		Object[] author = rowAt("author", depth);
+		assertThat(scanCountOf(() -> bookRepository.findBookDtoPageOrderedByAuthor(limit), size + 1)).isLessThanOrEqualTo(size + 2);
+		assertThat(scanCountOf(() -> bookRepository.findNextBookDtosByAuthor((String) author[0], (Long) author[1], limit), author[0],
+				author[0], author[1], size + 1)).isLessThanOrEqualTo(size + 2 + tiedUpTo("author", author));
+
+		Object[] publishedDate = rowAt("published_date", depth);
+		LocalDate date = (LocalDate) publishedDate[0];
+		assertThat(scanCountOf(() -> bookRepository.findBookDtoPageOrderedByPublishedDate(limit), size + 1))
+				.isLessThanOrEqualTo(size + 2);
+		assertThat(scanCountOf(() -> bookRepository.findNextBookDtosByPublishedDate(date, (Long) publishedDate[1], limit), date, date,
+				publishedDate[1], size + 1)).isLessThanOrEqualTo(size + 2 + tiedUpTo("published_date", publishedDate));
+
+		long deepOffset = scanCount("SELECT * FROM book ORDER BY id LIMIT " + size + " OFFSET " + depth);
+		assertThat(deepOffset).isGreaterThan(depth);
+	}
+
+	@DisplayName("JUnit test for findBookDtosByPublishedDateBetween and findBookDtoSliceByPublishedDateBetween methods")
+	@Test
+	public void givenPublishedDateRange_whenFindingByRange_thenReturnOnlyBooksInRangeInDateOrder() {
+		LocalDate from = LocalDate.of(2001, 1, 1);
+		LocalDate to = LocalDate.of(2001, 1, 31);
+		Sort byDate = Sort.by("publishedDate", "id");
+
+		Page<BookDto> page = bookRepository.findBookDtosByPublishedDateBetween(from, to, PageRequest.of(0, 10, byDate));
+
+		assertThat(page.getTotalElements()).isEqualTo(countPublishedBetween(from, to)).isPositive();
+		assertThat(page.getContent()).extracting(BookDto::getPublishedDate).allMatch(date -> !date.isBefore(from))
+				.isSortedAccordingTo(LocalDate::compareTo);
+		assertThat(bookRepository.findBookDtoSliceByPublishedDateBetween(to, to, PageRequest.of(0, 100, byDate)))
+				.extracting(BookDto::getPublishedDate).containsOnly(to).hasSize((int) countPublishedBetween(to, to));
+	}
+
+	@DisplayName("Every sort accepted by getAllBook, and the publishedDate range, is read in index order without a full scan")
+	@Test
+	public void givenMigratedIndexes_whenExplainingSupportedQueries_thenNoFullScanOrSort() {
+		int size = 20;
+		for (String sortKey : BookCursor.SORT_KEYS) {
+			String column = sortKey.replaceAll("([A-Z])", "_$1").toLowerCase();
+			String tiebreaker = column.equals("id") ? "" : ", id";
+			for (String direction : List.of("ASC", "DESC")) {
+				String orderBy = column + " " + direction + (tiebreaker.isEmpty() ? "" : tiebreaker + " " + direction);
+				assertIndexBacked("SELECT * FROM book ORDER BY " + orderBy + " LIMIT " + (size + 1), size + 1);
+				assertIndexBacked("SELECT * FROM book ORDER BY " + orderBy + " LIMIT " + size + " OFFSET " + size, 2 * size);
+			}
+		}
+		assertIndexBacked("SELECT * FROM book WHERE published_date BETWEEN DATE '2001-01-01' AND DATE '2001-12-31' "
+				+ "ORDER BY published_date, id LIMIT " + (size + 1), size + 1);
+		assertThat(explain("SELECT COUNT(*) FROM book WHERE published_date BETWEEN DATE '2001-01-01' AND DATE '2001-12-31'"))
+				.contains("IDX_BOOK_PUBLISHED_DATE_ID");
+
+		// Sanity check of the assertion itself: an ordering with no index behind it reads the whole table
+		assertThat(explain("SELECT * FROM book ORDER BY UPPER(title), id LIMIT " + (size + 1))).doesNotContain("/* index sorted */");
+	}
+
+	private void assertIndexBacked(String sql, long maxScanned) {
+		String plan = explain(sql);
+		assertThat(plan).as(sql).contains("/* index sorted */").doesNotContain("tableScan");
+		assertThat(scanCountOfPlan(plan)).as(sql).isLessThanOrEqualTo(maxScanned);
+	}
+
+	private long countPublishedBetween(LocalDate from, LocalDate to) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM book WHERE published_date BETWEEN ? AND ?", Long.class,
+				from, to);
+	}
+
+	private String explain(String sql) {
+		return jdbcTemplate.queryForObject("EXPLAIN ANALYZE " + sql, String.class);
+	}
+
+	/**
+	 * Runs the repository query to capture the SQL Hibernate generates for it,
+	 * then counts the rows H2 scans for that SQL with the given parameters.
+	 */
+	private long scanCountOf(Runnable query, Object... parameters) {
+		RecordingStatementInspector.SQL.clear();
+		query.run();
+		String sql = RecordingStatementInspector.SQL.get(RecordingStatementInspector.SQL.size() - 1);
+		String plan = jdbcTemplate.queryForObject("EXPLAIN ANALYZE " + sql, String.class, parameters);
+		assertThat(plan).as(sql).doesNotContain("tableScan");
+		return scanCountOfPlan(plan);
+	}
+
+	private Object[] rowAt(String column, int offset) {
+		return jdbcTemplate.queryForObject("SELECT " + column + ", id FROM book ORDER BY " + column + ", id OFFSET " + offset
+				+ " ROWS FETCH FIRST 1 ROWS ONLY", (rs, rowNum) -> new Object[] {
+						column.equals("published_date") ? rs.getObject(1, LocalDate.class) : rs.getString(1), rs.getLong(2) });
+	}
+
+	private long tiedUpTo(String column, Object[] row) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM book WHERE " + column + " = ? AND id <= ?", Long.class, row);
+	}
+
+	private long scanCount(String sql) {
+		return scanCountOfPlan(explain(sql));
+	}
+
+	private long scanCountOfPlan(String plan) {
+		long scanned = 0;
+		Matcher matcher = SCAN_COUNT.matcher(plan);
+		while (matcher.find()) {
+			scanned += Long.parseLong(matcher.group(1));
+		}
+		return scanned;
+	}
+
+	public static class RecordingStatementInspector implements StatementInspector {
+
+		private static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			SQL.add(sql);
+			return sql;
+		}
+
+	}
+
+}
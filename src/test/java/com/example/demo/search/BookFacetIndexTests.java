@@ -0,0 +1,86 @@
+package com.example.demo.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.BookDto;
+import com.example.demo.dto.BookFacetCount;
+import com.example.demo.dto.BookFacets;
+
+public class BookFacetIndexTests {
+
+	private BookFacetIndex bookFacetIndex;
+
+	@BeforeEach
+	void setUp() {
+		bookFacetIndex = new BookFacetIndex();
+		bookFacetIndex.bookLoaded(book(1L, "Learn Java", "Yogesh", 2024));
+		bookFacetIndex.bookLoaded(book(2L, "Learn Spring", "Yogesh", 2025));
+		bookFacetIndex.bookLoaded(book(3L, "Spring in Action", "Émile Zola", 2025));
+		bookFacetIndex.bookLoaded(book(4L, "Thérèse Raquin", "Émile Zola", 1867));
+		bookFacetIndex.bookLoaded(book(5L, "Effective Java", "Joshua Bloch", 2018));
+	}
+
+	@DisplayName("JUnit test for facets method")
+	@Test
+	public void givenNoPrefix_whenFacets_thenReturnTopAuthorsAndYearHistogramOfCatalog() {
+		BookFacets facets = bookFacetIndex.facets(null, 2);
+
+		assertThat(facets.getTotal()).isEqualTo(5);
+		assertThat(facets.getAuthors()).extracting(BookFacetCount::getValue, BookFacetCount::getCount)
+				.containsExactly(tuple("Émile Zola", 2L), tuple("Yogesh", 2L));
+		assertThat(facets.getYears()).extracting(BookFacetCount::getValue, BookFacetCount::getCount).containsExactly(
+				tuple("1867", 1L), tuple("2018", 1L), tuple("2024", 1L), tuple("2025", 2L));
+	}
+
+	@Test
+	public void givenPrefix_whenFacets_thenCountBooksMatchingAuthorOrTitleOnce() {
+		BookFacets byTitle = bookFacetIndex.facets("LEARN", 10);
+		BookFacets byAuthorOrTitle = bookFacetIndex.facets("e", 10);
+
+		assertThat(byTitle.getTotal()).isEqualTo(2);
+		assertThat(byTitle.getAuthors()).extracting(BookFacetCount::getValue, BookFacetCount::getCount)
+				.containsExactly(tuple("Yogesh", 2L));
+		// Émile Zola matches by author, Effective Java by title only
+		assertThat(byAuthorOrTitle.getTotal()).isEqualTo(3);
+		assertThat(byAuthorOrTitle.getAuthors()).extracting(BookFacetCount::getValue, BookFacetCount::getCount)
+				.containsExactly(tuple("Émile Zola", 2L), tuple("Joshua Bloch", 1L));
+		assertThat(byAuthorOrTitle.getYears()).extracting(BookFacetCount::getValue).containsExactly("1867", "2018", "2025");
+		assertThat(bookFacetIndex.facets("python", 10).getTotal()).isZero();
+	}
+
+	@Test
+	public void givenUpdatedAndDeletedBooks_whenFacets_thenMoveCountsToNewAuthorAndYear() {
+		bookFacetIndex.bookUpdated(book(1L, "Learn Java", "Joshua Bloch", 2018));
+		bookFacetIndex.bookDeleted(4L);
+		bookFacetIndex.bookDeleted(42L);
+
+		BookFacets facets = bookFacetIndex.facets("", 10);
+
+		assertThat(facets.getTotal()).isEqualTo(4);
+		assertThat(facets.getAuthors()).extracting(BookFacetCount::getValue, BookFacetCount::getCount)
+				.containsExactly(tuple("Joshua Bloch", 2L), tuple("Émile Zola", 1L), tuple("Yogesh", 1L));
+		assertThat(facets.getYears()).extracting(BookFacetCount::getValue, BookFacetCount::getCount)
+				.containsExactly(tuple("2018", 2L), tuple("2025", 2L));
+		assertThat(bookFacetIndex.facets("yog", 10).getYears()).extracting(BookFacetCount::getValue)
+				.containsExactly("2025");
+		assertThat(bookFacetIndex.size()).isEqualTo(4);
+	}
+
+	private BookDto book(long id, String title, String author, int year) {
+		BookDto bookDto = new BookDto();
+		bookDto.setId(id);
+		bookDto.setTitle(title);
+		bookDto.setAuthor(author);
+		bookDto.setPublishedDate(LocalDate.of(year, 1, 1));
+		bookDto.setIsbn("isbn-" + id);
+		return bookDto;
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.example.demo.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.dto.BookDto;
+import com.example.demo.entities.Book;
+import com.example.demo.repositories.BookRepository;
+
+/**
+ * Compares the inverted index with the JPQL LIKE query on a seeded catalog.
+ * Run with {@code mvn test -Pbenchmarks -Dbenchmark.books=1000000}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+public class BookSearchBenchmarkTests {
+
+	private static final int BOOKS = Integer.getInteger("benchmark.books", 1_000_000);
+	private static final int ITERATIONS = 50;
+
+	@Autowired
+	private BookRepository bookRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@DisplayName("Benchmark of BookSearchIndex against BookRepository.findByAuthorOrTitle")
+	@Test
+	public void givenSeededCatalog_whenSearching_thenReportIndexAndJpqlLatency() {
+		jdbcTemplate.update("INSERT INTO book (id, title, author, published_date, isbn) "
+				+ "SELECT x, CONCAT('Title ', x, ' volume ', MOD(x, 97)), CONCAT('Author ', MOD(x, 5000)), "
+				+ "DATEADD('DAY', MOD(x, 3650), DATE '2000-01-01'), CONCAT('ISBN-', x) FROM SYSTEM_RANGE(1, " + BOOKS + ")");
+
+		BookSearchIndex bookSearchIndex = new BookSearchIndex();
+		long buildStart = System.nanoTime();
+		jdbcTemplate.query("SELECT id, title, author, isbn FROM book", rs -> {
+			BookDto bookDto = new BookDto();
+			bookDto.setId(rs.getLong(1));
+			bookDto.setTitle(rs.getString(2));
+			bookDto.setAuthor(rs.getString(3));
+			bookDto.setPublishedDate(LocalDate.of(2000, 1, 1));
+			bookDto.setIsbn(rs.getString(4));
+			bookSearchIndex.bookLoaded(bookDto);
+		});
+		long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+		long indexNanos = 0;
+		long jpqlNanos = 0;
+		for (int i = 0; i < ITERATIONS; i++) {
+			String author = "Author " + (i * 37 % 5000);
+			long start = System.nanoTime();
+			BookSearchIndex.SearchHits hits = bookSearchIndex.search(author + " volume " + (i % 97), 0, 20);
+			indexNanos += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			List<Book> books = bookRepository.findByAuthorOrTitle(author);
+			jpqlNanos += System.nanoTime() - start;
+
+			assertThat(hits.getBookIds()).isNotEmpty();
+			assertThat(books).isNotEmpty();
+		}
+
+		System.out.printf("BookSearchBenchmark books=%d indexBuildMs=%d indexAvgUs=%d jpqlAvgUs=%d%n", BOOKS, buildMillis,
+				indexNanos / ITERATIONS / 1000, jpqlNanos / ITERATIONS / 1000);
+	}
+
+}
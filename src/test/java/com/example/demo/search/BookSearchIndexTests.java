@@ -0,0 +1,78 @@
+package com.example.demo.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.BookDto;
+
+public class BookSearchIndexTests {
+
+	private BookSearchIndex bookSearchIndex;
+
+	@BeforeEach
+	void setUp() {
+		bookSearchIndex = new BookSearchIndex();
+		bookSearchIndex.bookLoaded(book(1L, "Learn Java", "Yogesh", "978-3-16-148410-0"));
+		bookSearchIndex.bookLoaded(book(2L, "Spring in Action", "Craig Walls", "12345"));
+		bookSearchIndex.bookLoaded(book(3L, "Java Java Java", "Émile Zola", "67890"));
+		bookSearchIndex.bookLoaded(book(4L, "Effective Java, a very long Java handbook for the working engineer", "Joshua Bloch", "11111"));
+	}
+
+	@DisplayName("JUnit test for search method")
+	@Test
+	public void givenMultiWordQuery_whenSearch_thenReturnBooksMatchingEveryWord() {
+		BookSearchIndex.SearchHits hits = bookSearchIndex.search("java yogesh", 0, 10);
+
+		assertThat(hits.getTotalHits()).isEqualTo(1);
+		assertThat(hits.getBookIds()).containsExactly(1L);
+		assertThat(bookSearchIndex.search("java python", 0, 10).getTotalHits()).isZero();
+	}
+
+	@Test
+	public void givenSingleWordQuery_whenSearch_thenRankShortDocumentsWithMoreOccurrencesFirst() {
+		BookSearchIndex.SearchHits hits = bookSearchIndex.search("java", 0, 10);
+
+		assertThat(hits.getTotalHits()).isEqualTo(3);
+		assertThat(hits.getBookIds()).containsExactly(3L, 4L, 1L);
+	}
+
+	@Test
+	public void givenFoldedOrPartialIsbnQuery_whenSearch_thenMatchIgnoringCaseAccentsAndSeparators() {
+		assertThat(bookSearchIndex.search("EMILE", 0, 10).getBookIds()).containsExactly(3L);
+		assertThat(bookSearchIndex.search("9783161484100", 0, 10).getBookIds()).containsExactly(1L);
+		assertThat(bookSearchIndex.search("python", 0, 10).getTotalHits()).isZero();
+	}
+
+	@Test
+	public void givenPage_whenSearch_thenReturnOnlyThatPage() {
+		assertThat(bookSearchIndex.search("java", 0, 2).getBookIds()).containsExactly(3L, 4L);
+		assertThat(bookSearchIndex.search("java", 1, 2).getBookIds()).containsExactly(1L);
+		assertThat(bookSearchIndex.search("java", 5, 2).getBookIds()).isEmpty();
+	}
+
+	@Test
+	public void givenUpdatedAndDeletedBooks_whenSearch_thenReflectLatestState() {
+		bookSearchIndex.bookUpdated(book(1L, "Learn Kotlin", "Yogesh", "978-3-16-148410-0"));
+		bookSearchIndex.bookDeleted(3L);
+
+		assertThat(bookSearchIndex.search("java", 0, 10).getBookIds()).containsExactly(4L);
+		assertThat(bookSearchIndex.search("kotlin", 0, 10).getBookIds()).containsExactly(1L);
+		assertThat(bookSearchIndex.size()).isEqualTo(3);
+	}
+
+	private BookDto book(long id, String title, String author, String isbn) {
+		BookDto bookDto = new BookDto();
+		bookDto.setId(id);
+		bookDto.setTitle(title);
+		bookDto.setAuthor(author);
+		bookDto.setPublishedDate(LocalDate.now());
+		bookDto.setIsbn(isbn);
+		return bookDto;
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.example.demo.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.BookDto;
+
+public class BookSuggestIndexTests {
+
+	private BookSuggestIndex bookSuggestIndex;
+
+	@BeforeEach
+	void setUp() {
+		bookSuggestIndex = new BookSuggestIndex();
+		bookSuggestIndex.bookLoaded(book(1L, "Learn Java", "Yogesh"));
+		bookSuggestIndex.bookLoaded(book(2L, "Learn Spring", "Émile Zola"));
+		bookSuggestIndex.bookLoaded(book(3L, "Learn Spring", "Mohit"));
+	}
+
+	@DisplayName("JUnit test for suggest method")
+	@Test
+	public void givenPrefix_whenSuggest_thenReturnMostFrequentMatchesFirst() {
+		assertThat(bookSuggestIndex.suggest("lEaRn", 10)).containsExactly("Learn Spring", "Learn Java");
+		assertThat(bookSuggestIndex.suggest("emile", 10)).containsExactly("Émile Zola");
+		assertThat(bookSuggestIndex.suggest("python", 10)).isEmpty();
+	}
+
+	@Test
+	public void givenLimit_whenSuggest_thenReturnAtMostLimitAndNeverMoreThanMax() {
+		for (long id = 10; id < 40; id++) {
+			bookSuggestIndex.bookCreated(book(id, "Learn Topic " + id, "Author " + id));
+		}
+
+		assertThat(bookSuggestIndex.suggest("learn", 1)).containsExactly("Learn Spring");
+		assertThat(bookSuggestIndex.suggest("", 1000)).hasSize(BookSuggestIndex.MAX_SUGGESTIONS);
+	}
+
+	@Test
+	public void givenUpdatedAndDeletedBooks_whenSuggest_thenReflectLatestState() {
+		bookSuggestIndex.bookUpdated(book(1L, "Mastering Java", "Yogesh"));
+		bookSuggestIndex.bookDeleted(3L);
+
+		assertThat(bookSuggestIndex.suggest("learn", 10)).containsExactly("Learn Spring");
+		assertThat(bookSuggestIndex.suggest("mas", 10)).containsExactly("Mastering Java");
+		assertThat(bookSuggestIndex.suggest("mohit", 10)).isEmpty();
+		assertThat(bookSuggestIndex.size()).isEqualTo(2);
+	}
+
+	private BookDto book(long id, String title, String author) {
+		BookDto bookDto = new BookDto();
+		bookDto.setId(id);
+		bookDto.setTitle(title);
+		bookDto.setAuthor(author);
+		bookDto.setPublishedDate(LocalDate.now());
+		bookDto.setIsbn("isbn-" + id);
+		return bookDto;
+	}
+
+}
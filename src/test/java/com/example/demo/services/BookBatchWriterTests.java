@@ -0,0 +1,56 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.example.demo.entities.Book;
+import com.example.demo.repositories.BookRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(BookBatchWriter.class)
+public class BookBatchWriterTests {
+
+	@Autowired
+	private BookBatchWriter bookBatchWriter;
+	@Autowired
+	private BookRepository bookRepository;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@DisplayName("JUnit test for insertAll method")
+	@Test
+	public void givenManyBooks_whenInsertAll_thenAssignPooledIdsAndInsertInBatches() {
+		List<Book> books = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			Book book = new Book();
+			book.setAuthor("Yogesh");
+			book.setTitle("Learn Java " + i);
+			book.setPublishedDate(LocalDate.now());
+			book.setIsbn("isbn-" + i);
+			books.add(book);
+		}
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		List<Book> saved = bookBatchWriter.insertAll(books);
+
+		assertThat(saved).extracting(Book::getId).doesNotContain(0L).doesNotHaveDuplicates();
+		assertThat(bookRepository.count()).isEqualTo(120);
+		// 120 rows go out as three batches of at most 50 plus three sequence calls
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+	}
+
+}
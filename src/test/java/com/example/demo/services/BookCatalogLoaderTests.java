@@ -0,0 +1,74 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * The catalog must be loaded before the web server, which is a lifecycle bean,
+ * starts taking requests that write books.
+ */
+@SpringBootTest
+public class BookCatalogLoaderTests {
+
+	@Autowired
+	private LoadedBeforeStart loadedBeforeStart;
+
+	@DisplayName("The catalog is loaded before any lifecycle bean starts")
+	@Test
+	public void givenStartingContext_whenLifecycleBeansStart_thenCatalogAlreadyLoaded() {
+		assertThat(loadedBeforeStart.started).isTrue();
+		assertThat(loadedBeforeStart.catalogLoaded).isTrue();
+	}
+
+	@TestConfiguration
+	static class LifecycleConfig {
+
+		@Bean
+		LoadedBeforeStart loadedBeforeStart(BookIsbnRegistry bookIsbnRegistry) {
+			return new LoadedBeforeStart(bookIsbnRegistry);
+		}
+
+	}
+
+	static class LoadedBeforeStart implements SmartLifecycle {
+
+		private final BookIsbnRegistry bookIsbnRegistry;
+		private volatile boolean started;
+		private volatile boolean catalogLoaded;
+
+		LoadedBeforeStart(BookIsbnRegistry bookIsbnRegistry) {
+			this.bookIsbnRegistry = bookIsbnRegistry;
+		}
+
+		@Override
+		public int getPhase() {
+			// Starts ahead of the web server
+			return Integer.MIN_VALUE;
+		}
+
+		@Override
+		public void start() {
+			catalogLoaded = bookIsbnRegistry.isComplete();
+			started = true;
+		}
+
+		@Override
+		public void stop() {
+			started = false;
+		}
+
+		@Override
+		public boolean isRunning() {
+			return started;
+		}
+
+	}
+
+}
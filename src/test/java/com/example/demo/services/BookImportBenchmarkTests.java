@@ -0,0 +1,81 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.demo.dto.BookImportResult;
+
+/**
+ * Measures import throughput against the embedded database with an NDJSON
+ * body generated on the fly, so the input itself never sits in memory. Run
+ * with {@code mvn test -Pbenchmarks -Dbenchmark.books=500000}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+public class BookImportBenchmarkTests {
+
+	private static final int BOOKS = Integer.getInteger("benchmark.books", 200_000);
+
+	@Autowired
+	private BookService bookService;
+
+	@DisplayName("Benchmark of BookService.importBooks on a generated NDJSON stream")
+	@Test
+	public void givenGeneratedNdjson_whenImportBooks_thenReportThroughput() throws Exception {
+		System.gc();
+		Runtime runtime = Runtime.getRuntime();
+		long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+		long start = System.nanoTime();
+
+		BookImportResult result = bookService.importBooks(new GeneratedNdjsonReader(BOOKS), BookRecordReader.NDJSON);
+
+		long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+		System.gc();
+		long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+		assertThat(result.getAccepted()).isEqualTo(BOOKS);
+		System.out.printf("BookImportBenchmark books=%d millis=%d booksPerSecond=%d heapGrowthMb=%d%n", BOOKS, millis,
+				BOOKS * 1000L / millis, (heapAfter - heapBefore) / (1024 * 1024));
+	}
+
+	private static class GeneratedNdjsonReader extends Reader {
+
+		private final int books;
+		private int next;
+		private String line = "";
+		private int position;
+
+		private GeneratedNdjsonReader(int books) {
+			this.books = books;
+		}
+
+		@Override
+		public int read(char[] buffer, int offset, int length) {
+			if (position == line.length()) {
+				if (next == books) {
+					return -1;
+				}
+				next++;
+				line = "{\"title\":\"Title " + next + "\",\"author\":\"Author " + (next % 5000)
+						+ "\",\"publishedDate\":\"2020-01-01\",\"isbn\":\"IMPORT-" + next + "\"}\n";
+				position = 0;
+			}
+			int count = Math.min(length, line.length() - position);
+			line.getChars(position, position + count, buffer, offset);
+			position += count;
+			return count;
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+}
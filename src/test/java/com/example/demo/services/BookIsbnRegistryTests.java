@@ -0,0 +1,70 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.BookDto;
+
+public class BookIsbnRegistryTests {
+
+	private static BookDto book(long id, String isbn) {
+		return new BookDto(id, "Title " + id, "Author", LocalDate.of(2020, 1, 1), isbn);
+	}
+
+	@DisplayName("JUnit test for BookIsbnRegistry writes")
+	@Test
+	public void givenCreatedUpdatedAndDeletedBooks_whenFindBookId_thenReflectLatestIsbns() {
+		BookIsbnRegistry registry = new BookIsbnRegistry(100);
+		registry.bookLoaded(book(1, "111"));
+		registry.catalogLoaded();
+		registry.bookCreated(book(2, "222"));
+		registry.bookUpdated(book(2, "333"));
+		registry.bookDeleted(1);
+
+		assertThat(registry.isComplete()).isTrue();
+		assertThat(registry.findBookId("111")).isNull();
+		assertThat(registry.findBookId("222")).isNull();
+		assertThat(registry.findBookId("333")).isEqualTo(2L);
+		assertThat(registry.findBookId("444")).isNull();
+		assertThat(registry.size()).isEqualTo(1);
+	}
+
+	@DisplayName("JUnit test for BookIsbnRegistry growing past its expected size")
+	@Test
+	public void givenMoreBooksThanExpected_whenFindBookId_thenFindEveryIsbn() {
+		BookIsbnRegistry registry = new BookIsbnRegistry(10);
+		for (long id = 1; id <= 1000; id++) {
+			registry.bookCreated(book(id, "ISBN-" + id));
+			if (id % 3 == 0) {
+				registry.bookDeleted(id);
+			}
+		}
+
+		for (long id = 1; id <= 1000; id++) {
+			assertThat(registry.findBookId("ISBN-" + id)).isEqualTo(id % 3 == 0 ? null : id);
+		}
+	}
+
+	@DisplayName("JUnit test for BloomFilter false positive rate")
+	@Test
+	public void givenFilledBloomFilter_whenCheckingUnknownValues_thenStayNearConfiguredRate() {
+		BloomFilter filter = new BloomFilter(100_000, 0.01);
+		for (int i = 0; i < 100_000; i++) {
+			filter.add("978-" + i);
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			assertThat(filter.mightContain("978-" + i)).isTrue();
+			if (filter.mightContain("979-" + i)) {
+				falsePositives++;
+			}
+		}
+
+		assertThat(falsePositives).isLessThan(2000);
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.BookDto;
+
+/**
+ * Reads that run while a write is not yet committed see the old row. They
+ * must not leave it in the caches once the write has committed.
+ */
+@SpringBootTest
+public class BookServiceCacheConsistencyTests {
+
+	@Autowired
+	private BookService bookService;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@DisplayName("A read between an update and its commit does not leave the old book cached")
+	@Test
+	public void givenReadBeforeCommit_whenUpdateCommits_thenReadNewBook() throws Exception {
+		BookDto book = bookService.addNewBook(newBook("Before", "CACHE-UPDATE"));
+
+		transactionTemplate.executeWithoutResult(status -> {
+			bookService.updateBookById(book.getId(), newBook("After", "CACHE-UPDATE"));
+			// Another request reads the committed row while the update is still open
+			assertThat(readInOtherThread(book.getId())).isEqualTo("Before");
+		});
+
+		assertThat(((BookDto) bookService.getBookById(book.getId()).getBody()).getTitle()).isEqualTo("After");
+		assertThat(new String((byte[]) bookService.getBookJsonById(book.getId(), false).getBody())).contains("After");
+	}
+
+	@DisplayName("A read between a delete and its commit does not leave the deleted book cached")
+	@Test
+	public void givenReadBeforeCommit_whenDeleteCommits_thenNotFound() throws Exception {
+		BookDto book = bookService.addNewBook(newBook("Deleted", "CACHE-DELETE"));
+
+		transactionTemplate.executeWithoutResult(status -> {
+			bookService.deleteBookById(book.getId());
+			assertThat(readInOtherThread(book.getId())).isEqualTo("Deleted");
+		});
+
+		assertThat(bookService.getBookById(book.getId()).getStatusCode().value()).isEqualTo(404);
+		assertThat(bookService.getBookJsonById(book.getId(), false).getStatusCode().value()).isEqualTo(404);
+	}
+
+	@DisplayName("A rolled back update leaves the cached book in place")
+	@Test
+	public void givenCachedBook_whenUpdateRollsBack_thenKeepCachedBook() {
+		BookDto book = bookService.addNewBook(newBook("Kept", "CACHE-ROLLBACK"));
+		bookService.getBookById(book.getId());
+
+		transactionTemplate.executeWithoutResult(status -> {
+			bookService.updateBookById(book.getId(), newBook("Rolled back", "CACHE-ROLLBACK"));
+			status.setRollbackOnly();
+		});
+
+		assertThat(((BookDto) bookService.getBookById(book.getId()).getBody()).getTitle()).isEqualTo("Kept");
+	}
+
+	private String readInOtherThread(long bookId) {
+		try {
+			return CompletableFuture.supplyAsync(() -> {
+				String title = ((BookDto) bookService.getBookById(bookId).getBody()).getTitle();
+				bookService.getBookJsonById(bookId, false);
+				return title;
+			}).get(10, TimeUnit.SECONDS);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static BookDto newBook(String title, String isbn) {
+		BookDto bookDto = new BookDto();
+		bookDto.setTitle(title);
+		bookDto.setAuthor("Yogesh");
+		bookDto.setPublishedDate(LocalDate.of(2025, 1, 25));
+		bookDto.setIsbn(isbn);
+		return bookDto;
+	}
+
+}
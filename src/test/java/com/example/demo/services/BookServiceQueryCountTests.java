@@ -0,0 +1,243 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.example.demo.config.BoundedDataSource;
+import com.example.demo.dto.BookBatchResult;
+import com.example.demo.dto.BookCursorPage;
+import com.example.demo.dto.BookDto;
+import com.example.demo.dto.BookImportResult;
+import com.example.demo.support.QueryCounter;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Pins the number of SQL statements every {@link BookService} method issues
+ * against the embedded database, so a change that adds round-trips to a hot
+ * path fails the build. Inserts may also fetch the next block of sequence
+ * ids, which is why they are bounded rather than exact.
+ */
+@SpringBootTest
+public class BookServiceQueryCountTests {
+
+	private static final AtomicInteger ISBNS = new AtomicInteger();
+
+	@Autowired
+	private BookService bookService;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private DataSource dataSource;
+	private QueryCounter queryCounter;
+	private BookDto book;
+
+	@BeforeEach
+	public void setUp() {
+		queryCounter = new QueryCounter(entityManagerFactory);
+		book = bookService.addNewBook(newBook("Query Count"));
+		bookService.addNewBook(newBook("Query Count"));
+		bookService.addNewBook(newBook("Query Count"));
+	}
+
+	@DisplayName("addNewBook issues one INSERT, plus a sequence fetch at most")
+	@Test
+	public void givenNewBook_whenAddNewBook_thenAtMostTwoQueries() throws Exception {
+		BookDto saved = queryCounter.assertMaxQueries(2, () -> bookService.addNewBook(newBook("Added")));
+
+		assertThat(saved.getId()).isPositive();
+	}
+
+	@DisplayName("addNewBooks issues one batched INSERT per chunk, plus a sequence fetch at most")
+	@Test
+	public void givenNewBooks_whenAddNewBooks_thenAtMostTwoQueries() throws Exception {
+		BookBatchResult result = queryCounter.assertMaxQueries(2,
+				() -> bookService.addNewBooks(List.of(newBook("Batch"), newBook("Batch"), newBook("Batch"))));
+
+		assertThat(result.getCreated()).isEqualTo(3);
+	}
+
+	@DisplayName("importBooks issues one batched INSERT per chunk, plus a sequence fetch at most")
+	@Test
+	public void givenNdjson_whenImportBooks_thenAtMostTwoQueries() throws Exception {
+		String ndjson = "{\"title\":\"Imported\",\"author\":\"Yogesh\",\"publishedDate\":\"2025-01-25\",\"isbn\":\"QC-IMPORT-"
+				+ ISBNS.incrementAndGet() + "\"}\n";
+
+		BookImportResult result = queryCounter.assertMaxQueries(2,
+				() -> bookService.importBooks(new StringReader(ndjson), BookRecordReader.NDJSON));
+
+		assertThat(result.getAccepted()).isEqualTo(1);
+	}
+
+	@DisplayName("getAllBook issues the page query and the COUNT query")
+	@Test
+	public void givenFullPage_whenGetAllBook_thenAtMostTwoQueries() throws Exception {
+		queryCounter.assertMaxQueries(2, () -> bookService.getAllBook(PageRequest.of(0, 2)));
+	}
+
+	@DisplayName("getBookSlice issues exactly 1 query once the count tracker is known")
+	@Test
+	public void givenKnownTotal_whenGetBookSlice_thenOneQuery() throws Exception {
+		bookService.getBookSlice(PageRequest.of(0, 2), true);
+
+		queryCounter.assertQueries(1, () -> bookService.getBookSlice(PageRequest.of(0, 2), true));
+		queryCounter.assertQueries(1, () -> bookService.getBookSlice(PageRequest.of(0, 2), false));
+	}
+
+	@DisplayName("getBooksAfterCursor issues exactly 1 query per page")
+	@Test
+	public void givenCursor_whenGetBooksAfterCursor_thenOneQueryPerPage() throws Exception {
+		BookCursorPage first = queryCounter.assertQueries(1,
+				() -> bookService.getBooksAfterCursor("", PageRequest.of(0, 2, Sort.by("title"))));
+
+		queryCounter.assertQueries(1, () -> bookService.getBooksAfterCursor(first.getNextCursor(), PageRequest.of(0, 2)));
+	}
+
+	@DisplayName("exportBooks issues exactly 1 query for the whole catalog")
+	@Test
+	public void givenBooks_whenExportBooks_thenOneQuery() throws Exception {
+		queryCounter.assertQueries(1, () -> {
+			bookService.exportBooks(new ByteArrayOutputStream(), false);
+			return null;
+		});
+	}
+
+	@DisplayName("getBookById issues exactly 1 query on a cache miss and none on a hit")
+	@Test
+	public void givenBookId_whenGetBookById_thenOneQueryThenCached() throws Exception {
+		queryCounter.assertQueries(1, () -> bookService.getBookById(book.getId()));
+		queryCounter.assertQueries(0, () -> bookService.getBookById(book.getId()));
+		queryCounter.assertQueries(1, () -> bookService.getBookById(Long.MAX_VALUE));
+	}
+
+	@DisplayName("getBookJsonById issues exactly 1 query on a cache miss and none once encoded")
+	@Test
+	public void givenBookId_whenGetBookJsonById_thenOneQueryThenCached() throws Exception {
+		queryCounter.assertQueries(1, () -> bookService.getBookJsonById(book.getId(), true));
+		queryCounter.assertQueries(0, () -> bookService.getBookJsonById(book.getId(), false));
+		queryCounter.assertQueries(1, () -> bookService.getBookJsonById(Long.MAX_VALUE, false));
+	}
+
+	@DisplayName("getBookByIsbn issues at most 1 query, also for an ISBN this node does not know")
+	@Test
+	public void givenIsbn_whenGetBookByIsbn_thenAtMostOneQuery() throws Exception {
+		queryCounter.assertMaxQueries(1, () -> bookService.getBookByIsbn(book.getIsbn()));
+		queryCounter.assertQueries(1, () -> bookService.getBookByIsbn("QC-UNKNOWN"));
+	}
+
+	@DisplayName("getBookById and getBookByIsbn of a cached book take no connection")
+	@Test
+	public void givenCachedBook_whenAllConnectionsAreTaken_thenGetBookWithoutConnection() throws Exception {
+		bookService.getBookById(book.getId());
+		BoundedDataSource boundedDataSource = dataSource.unwrap(BoundedDataSource.class);
+		List<Connection> held = new ArrayList<>();
+		try {
+			while (boundedDataSource.getAvailablePermits() > 0) {
+				held.add(boundedDataSource.getConnection());
+			}
+
+			assertThat(bookService.getBookById(book.getId()).getBody()).hasFieldOrPropertyWithValue("id", book.getId());
+			assertThat(bookService.getBookByIsbn(book.getIsbn()).getBody()).hasFieldOrPropertyWithValue("id", book.getId());
+		} finally {
+			for (Connection connection : held) {
+				connection.close();
+			}
+		}
+	}
+
+	@DisplayName("updateBookById issues exactly 1 UPDATE and no SELECT")
+	@Test
+	public void givenBook_whenUpdateBookById_thenOneQuery() throws Exception {
+		book.setTitle("Updated");
+
+		queryCounter.assertQueries(1, () -> bookService.updateBookById(book.getId(), book));
+		queryCounter.assertQueries(1, () -> bookService.updateBookById(Long.MAX_VALUE, newBook("Missing")));
+	}
+
+	@DisplayName("updateBookById with an expected version issues 1 UPDATE, and 1 more query only when it fails")
+	@Test
+	public void givenExpectedVersion_whenUpdateBookById_thenOneQueryOrTwoWhenStale() throws Exception {
+		book.setTitle("Updated");
+
+		queryCounter.assertQueries(1, () -> bookService.updateBookById(book.getId(), book, book.getVersion()));
+		queryCounter.assertQueries(2, () -> bookService.updateBookById(book.getId(), book, book.getVersion()));
+	}
+
+	@DisplayName("patchBookById issues the UPDATE and one SELECT to read the book back")
+	@Test
+	public void givenBook_whenPatchBookById_thenTwoQueries() throws Exception {
+		BookDto patch = new BookDto();
+		patch.setTitle("Patched");
+
+		queryCounter.assertQueries(2, () -> bookService.patchBookById(book.getId(), patch));
+		queryCounter.assertQueries(1, () -> bookService.patchBookById(Long.MAX_VALUE, patch));
+	}
+
+	@DisplayName("deleteBookById issues exactly 1 DELETE and no SELECT")
+	@Test
+	public void givenBook_whenDeleteBookById_thenOneQuery() throws Exception {
+		queryCounter.assertQueries(1, () -> bookService.deleteBookById(book.getId()));
+		queryCounter.assertQueries(1, () -> bookService.deleteBookById(book.getId()));
+	}
+
+	@DisplayName("deleteBooksByIds issues exactly 1 DELETE for all ids")
+	@Test
+	public void givenBooks_whenDeleteBooksByIds_thenOneQuery() throws Exception {
+		BookDto other = bookService.addNewBook(newBook("Deleted"));
+
+		queryCounter.assertQueries(1, () -> bookService.deleteBooksByIds(List.of(book.getId(), other.getId())));
+	}
+
+	@DisplayName("getBooksByAuthorOrTile issues exactly 1 query")
+	@Test
+	public void givenSearchText_whenGetBooksByAuthorOrTile_thenOneQuery() throws Exception {
+		queryCounter.assertQueries(1, () -> bookService.getBooksByAuthorOrTile("Query"));
+	}
+
+	@DisplayName("searchBooks issues exactly 1 query for the ranked page and none without hits")
+	@Test
+	public void givenQuery_whenSearchBooks_thenAtMostOneQuery() throws Exception {
+		queryCounter.assertQueries(1, () -> bookService.searchBooks("query count", 0, 2));
+		queryCounter.assertQueries(0, () -> bookService.searchBooks("nomatchanywhere", 0, 2));
+	}
+
+	@DisplayName("getSuggestions, getFacets, getCacheStats and validateBookDto issue no query")
+	@Test
+	public void givenInMemoryOperations_whenCalled_thenNoQuery() throws Exception {
+		queryCounter.assertQueries(0, () -> bookService.getSuggestions("que", 5));
+		queryCounter.assertQueries(0, () -> bookService.getFacets("query", 5));
+		queryCounter.assertQueries(0, () -> bookService.getFacets(null, 5));
+		queryCounter.assertQueries(0, () -> bookService.getCacheStats());
+		queryCounter.assertQueries(0, () -> {
+			bookService.validateBookDto(book);
+			return null;
+		});
+	}
+
+	private static BookDto newBook(String title) {
+		BookDto bookDto = new BookDto();
+		bookDto.setTitle(title);
+		bookDto.setAuthor("Yogesh");
+		bookDto.setPublishedDate(LocalDate.of(2025, 1, 25));
+		bookDto.setIsbn("QC-" + ISBNS.incrementAndGet());
+		return bookDto;
+	}
+
+}
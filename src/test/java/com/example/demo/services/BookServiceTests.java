@@ -1,12 +1,30 @@
 package com.example.demo.services;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -15,29 +33,86 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
 
+import com.example.demo.cache.BookDtoCache;
+import com.example.demo.cache.BookJsonCache;
+import com.example.demo.dto.BookBatchItemResult;
+import com.example.demo.dto.BookBatchResult;
+import com.example.demo.dto.BookBulkDeleteResult;
+import com.example.demo.dto.BookCursor;
+import com.example.demo.dto.BookCursorPage;
 import com.example.demo.dto.BookDto;
+import com.example.demo.dto.BookFacetCount;
+import com.example.demo.dto.BookFacets;
+import com.example.demo.dto.BookImportResult;
+import com.example.demo.dto.BookSearchResult;
+import com.example.demo.dto.BookSlice;
 import com.example.demo.entities.Book;
+import com.example.demo.exceptions.DuplicateIsbnException;
 import com.example.demo.repositories.BookRepository;
+import com.example.demo.search.BookFacetIndex;
+import com.example.demo.search.BookSearchIndex;
+import com.example.demo.search.BookSuggestIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.persistence.EntityManager;
 
 @ExtendWith(MockitoExtension.class)
 public class BookServiceTests {
 
 	@Mock
 	private BookRepository bookRepository;
+	@Mock
+	private BookCountTracker bookCountTracker;
+	@Mock
+	private BookSuggestIndex bookSuggestIndex;
+	@Mock
+	private BookSearchIndex bookSearchIndex;
+	@Spy
+	private BookFacetIndex bookFacetIndex = new BookFacetIndex();
+	@Mock
+	private BookBatchWriter bookBatchWriter;
+	@Spy
+	private BookDtoCache bookDtoCache = new BookDtoCache(true, 100, Duration.ofMinutes(1));
+	@Spy
+	private BookIsbnRegistry bookIsbnRegistry = new BookIsbnRegistry(100);
+	private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	@Spy
+	private BookMetrics bookMetrics = new BookMetrics(meterRegistry);
+	@Mock
+	private EntityManager entityManager;
+	@Spy
+	private ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+	@Spy
+	private BookJsonCache bookJsonCache = new BookJsonCache(objectMapper, true, true, DataSize.ofMegabytes(1),
+			Duration.ofMinutes(1));
 	@InjectMocks
 	private BookService bookService;
 
 	@BeforeEach
 	void setUp() {
 		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(bookService, "bookChangeListeners",
+				List.of(bookCountTracker, bookSuggestIndex, bookSearchIndex, bookDtoCache, bookIsbnRegistry,
+						bookJsonCache, bookFacetIndex));
 	}
 
 	// JUnit test for addNewBook method
@@ -60,6 +135,228 @@ public class BookServiceTests {
 		assertThat(savedBook.getAuthor()).isEqualTo(bookDto.getAuthor());
 	}
 
+	// JUnit test for addNewBooks method
+	@DisplayName("JUnit test for addNewBooks method")
+	@Test
+	public void givenBookDtos_whenAddNewBooks_thenReturnResultPerItem() {
+		BookDto valid = new BookDto();
+		valid.setAuthor("Yogesh");
+		valid.setTitle("Learn Java");
+		valid.setPublishedDate(LocalDate.now());
+		valid.setIsbn("12345");
+
+		BookDto invalid = new BookDto();
+		invalid.setAuthor("Yogesh");
+
+		BookDto existing = new BookDto();
+		existing.setAuthor("John");
+		existing.setTitle("Learn Spring");
+		existing.setPublishedDate(LocalDate.now());
+		existing.setIsbn("67890");
+
+		when(bookRepository.findExistingIsbns(anyList())).thenReturn(List.of("67890"));
+		when(bookBatchWriter.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		BookBatchResult result = bookService.addNewBooks(List.of(valid, invalid, existing, valid));
+
+		assertEquals(1, result.getCreated());
+		assertEquals(3, result.getFailed());
+		assertThat(result.getItems()).extracting(BookBatchItemResult::getStatus).containsExactly(
+				BookBatchItemResult.CREATED, BookBatchItemResult.INVALID, BookBatchItemResult.DUPLICATE_ISBN,
+				BookBatchItemResult.DUPLICATE_ISBN);
+		assertEquals("Title cannot be null or empty", result.getItems().get(1).getMessage());
+	}
+
+	@DisplayName("JUnit test for addNewBook method with write coalescing")
+	@Test
+	public void givenWriteCoalescing_whenAddNewBook_thenReturnOwnResultPerCaller() {
+		BookDto created = new BookDto();
+		created.setAuthor("Yogesh");
+		created.setTitle("Learn Java");
+		created.setPublishedDate(LocalDate.now());
+		created.setIsbn("12345");
+
+		BookDto existing = new BookDto();
+		existing.setAuthor("John");
+		existing.setTitle("Learn Spring");
+		existing.setPublishedDate(LocalDate.now());
+		existing.setIsbn("67890");
+
+		when(bookRepository.findExistingIsbns(anyList())).thenAnswer(invocation -> List.<String>of("67890"));
+		when(bookBatchWriter.insertAll(anyList())).thenAnswer(invocation -> {
+			List<Book> books = invocation.getArgument(0);
+			books.forEach(book -> book.setId(7));
+			return books;
+		});
+		ReflectionTestUtils.setField(bookService, "writeCoalescingEnabled", true);
+		ReflectionTestUtils.setField(bookService, "writeCoalescingMaxBatchSize", 10);
+		ReflectionTestUtils.setField(bookService, "writeCoalescingMaxDelay", Duration.ZERO);
+		ReflectionTestUtils.setField(bookService, "writeCoalescingSubmitTimeout", Duration.ofSeconds(10));
+		bookService.startWriteCoalescing();
+		try {
+			assertEquals(7, bookService.addNewBook(created).getId());
+			assertThrows(DuplicateIsbnException.class, () -> bookService.addNewBook(existing));
+		} finally {
+			bookService.stopWriteCoalescing();
+		}
+
+		assertThat(bookIsbnRegistry.findBookId("12345")).isEqualTo(7L);
+	}
+
+	@DisplayName("JUnit test for insertCoalesced method")
+	@Test
+	public void givenSameIsbnTwiceInOneCommit_whenInsertCoalesced_thenFirstWins() {
+		BookDto first = new BookDto();
+		first.setAuthor("Yogesh");
+		first.setTitle("Learn Java");
+		first.setPublishedDate(LocalDate.now());
+		first.setIsbn("12345");
+
+		BookDto second = new BookDto();
+		second.setAuthor("John");
+		second.setTitle("Learn Spring");
+		second.setPublishedDate(LocalDate.now());
+		second.setIsbn("12345");
+
+		when(bookRepository.findExistingIsbns(anyList())).thenReturn(List.of());
+		when(bookBatchWriter.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		BookBatchItemResult[] results = bookService.insertCoalesced(List.of(first, second));
+
+		assertThat(results).extracting(BookBatchItemResult::getStatus).containsExactly(BookBatchItemResult.CREATED,
+				BookBatchItemResult.DUPLICATE_ISBN);
+		verify(bookBatchWriter).insertAll(Mockito.argThat(books -> books.size() == 1));
+	}
+
+	@Test
+	public void givenConcurrentDuplicate_whenAddNewBooks_thenRetryItemsOneByOne() {
+		BookDto first = new BookDto();
+		first.setAuthor("Yogesh");
+		first.setTitle("Learn Java");
+		first.setPublishedDate(LocalDate.now());
+		first.setIsbn("12345");
+
+		BookDto second = new BookDto();
+		second.setAuthor("John");
+		second.setTitle("Learn Spring");
+		second.setPublishedDate(LocalDate.now());
+		second.setIsbn("67890");
+
+		when(bookRepository.findExistingIsbns(anyList())).thenReturn(List.of());
+		when(bookBatchWriter.insertAll(anyList())).thenAnswer(invocation -> {
+			List<Book> books = invocation.getArgument(0);
+			if (books.size() > 1 || books.get(0).getIsbn().equals("67890")) {
+				throw new DataIntegrityViolationException("Duplicate entry for key 'isbn'");
+			}
+			return books;
+		});
+
+		BookBatchResult result = bookService.addNewBooks(List.of(first, second));
+
+		assertThat(result.getItems()).extracting(BookBatchItemResult::getStatus)
+				.containsExactly(BookBatchItemResult.CREATED, BookBatchItemResult.DUPLICATE_ISBN);
+	}
+
+	@Test
+	public void givenEmptyBatch_whenAddNewBooks_thenThrowIllegalArgumentException() {
+		assertThrows(IllegalArgumentException.class, () -> bookService.addNewBooks(List.of()));
+	}
+
+	// JUnit test for importBooks method
+	@DisplayName("JUnit test for importBooks method")
+	@Test
+	public void givenNdjson_whenImportBooks_thenReturnSummaryWithLineErrors() throws Exception {
+		String ndjson = """
+				{"author": "Yogesh", "title": "Learn Java", "publishedDate": "2025-01-25", "isbn": "12345"}
+				{"author": "Yogesh", "title": "", "publishedDate": "2025-01-25", "isbn": "23456"}
+				not json
+
+				{"author": "John", "title": "Learn Spring", "publishedDate": "2025-01-25", "isbn": "67890"}
+				{"author": "Yogesh", "title": "Learn Java", "publishedDate": "2025-01-25", "isbn": "12345"}
+				""";
+
+		when(bookRepository.findExistingIsbns(anyList())).thenReturn(List.of("67890"));
+		when(bookBatchWriter.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		ReflectionTestUtils.setField(bookService, "importChunkSize", 100);
+		BookImportResult result = bookService.importBooks(new StringReader(ndjson), "ndjson");
+
+		assertEquals(1, result.getAccepted());
+		assertEquals(2, result.getRejected());
+		assertEquals(2, result.getDuplicates());
+		assertThat(result.getErrors()).extracting(error -> error.getLine()).containsExactly(2L, 3L, 5L, 6L);
+	}
+
+	@Test
+	public void givenCsv_whenImportBooks_thenParseColumnsByHeader() throws Exception {
+		String csv = """
+				isbn,title,author,publishedDate
+				12345,"Learn Java, 2nd ""Edition\""",Yogesh,2025-01-25
+				67890,Learn Spring,John,not-a-date
+				""";
+
+		when(bookRepository.findExistingIsbns(anyList())).thenReturn(List.of());
+		when(bookBatchWriter.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		ReflectionTestUtils.setField(bookService, "importChunkSize", 100);
+		BookImportResult result = bookService.importBooks(new StringReader(csv), "csv");
+
+		assertEquals(1, result.getAccepted());
+		assertEquals(1, result.getRejected());
+		assertEquals(3L, result.getErrors().get(0).getLine());
+		verify(bookBatchWriter).insertAll(Mockito.argThat(books -> books.size() == 1
+				&& books.get(0).getTitle().equals("Learn Java, 2nd \"Edition\"")));
+	}
+
+	// JUnit test for exportBooks method
+	@DisplayName("JUnit test for exportBooks method")
+	@Test
+	public void givenBooks_whenExportBooks_thenWriteOneJsonObjectPerLineAndDetach() throws Exception {
+		Book book1 = new Book();
+		book1.setId(1L);
+		book1.setAuthor("Yogesh");
+		book1.setTitle("Learn Java");
+		book1.setPublishedDate(LocalDate.of(2025, 1, 25));
+		book1.setIsbn("12345");
+
+		Book book2 = new Book();
+		book2.setId(2L);
+		book2.setAuthor("John");
+		book2.setTitle("Learn Spring");
+		book2.setPublishedDate(LocalDate.of(2025, 1, 25));
+		book2.setIsbn("67890");
+
+		when(bookRepository.streamAllBy()).thenReturn(Stream.of(book1, book2));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		bookService.exportBooks(out, false);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(2, lines.length);
+		assertEquals("Learn Java", objectMapper.readValue(lines[0], BookDto.class).getTitle());
+		assertEquals("67890", objectMapper.readValue(lines[1], BookDto.class).getIsbn());
+		verify(entityManager).detach(book1);
+		verify(entityManager).detach(book2);
+	}
+
+	@Test
+	public void givenGzip_whenExportBooks_thenWriteGzippedNdjson() throws Exception {
+		Book book = new Book();
+		book.setId(1L);
+		book.setAuthor("Yogesh");
+		book.setTitle("Learn Java");
+		book.setPublishedDate(LocalDate.of(2025, 1, 25));
+		book.setIsbn("12345");
+
+		when(bookRepository.streamAllBy()).thenReturn(Stream.of(book));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		bookService.exportBooks(out, true);
+
+		byte[] ndjson = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes();
+		assertThat(new String(ndjson, StandardCharsets.UTF_8)).startsWith("{").endsWith("}\n").contains("\"isbn\":\"12345\"");
+	}
+
 	// JUnit test for getAllBook method
 	@DisplayName("JUnit test for getAllBook method")
 	@Test
@@ -80,9 +377,9 @@ public class BookServiceTests {
 
 		Pageable pageable = PageRequest.of(0, 5);
 		
-		Page<Book> bookPage = new PageImpl<>(List.of(book1, book2), pageable, 2);
+		Page<BookDto> bookPage = new PageImpl<>(List.of(new BookDto(book1), new BookDto(book2)), pageable, 2);
 		
-		when(bookRepository.findAll(pageable)).thenReturn(bookPage);
+		when(bookRepository.findAllBookDtos(PageRequest.of(0, 5, Sort.by("id")))).thenReturn(bookPage);
 
 		Page<BookDto> result = bookService.getAllBook(pageable);
 
@@ -93,6 +390,128 @@ public class BookServiceTests {
         assertEquals("Learn Spring", result.getContent().get(1).getTitle());
 	}
 
+	@Test
+	public void givenIndexedSort_whenGetAllBook_thenAppendIdTiebreakerInSameDirection() {
+		Pageable expected = PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "author", "id"));
+		when(bookRepository.findAllBookDtos(expected)).thenReturn(new PageImpl<>(List.of(), expected, 5));
+
+		bookService.getAllBook(PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "author")));
+		bookService.getAllBook(PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "author", "id")));
+
+		verify(bookRepository, times(2)).findAllBookDtos(expected);
+	}
+
+	@Test
+	public void givenUnindexedSort_whenGetAllBook_thenThrowIllegalArgumentException() {
+		assertThrows(IllegalArgumentException.class, () -> bookService.getAllBook(PageRequest.of(0, 5, Sort.by("isbn"))));
+		assertThrows(IllegalArgumentException.class,
+				() -> bookService.getAllBook(PageRequest.of(0, 5, Sort.by("author", "title"))));
+		assertThrows(IllegalArgumentException.class, () -> bookService.getAllBook(
+				PageRequest.of(0, 5, Sort.by(Sort.Order.asc("author"), Sort.Order.desc("id")))));
+		assertThrows(IllegalArgumentException.class,
+				() -> bookService.getBookSlice(PageRequest.of(0, 5, Sort.by(Sort.Order.asc("title").ignoreCase())), false));
+		verify(bookRepository, never()).findAllBookDtos(any(Pageable.class));
+	}
+
+	@Test
+	public void givenPublishedDateRange_whenGetAllBook_thenQueryRangeInPublishedDateOrder() {
+		LocalDate from = LocalDate.of(2024, 1, 1);
+		Pageable expected = PageRequest.of(0, 5, Sort.by("publishedDate", "id"));
+		when(bookRepository.findBookDtosByPublishedDateBetween(from, LocalDate.of(9999, 12, 31), expected))
+				.thenReturn(new PageImpl<>(List.of(), expected, 0));
+
+		bookService.getAllBook(PageRequest.of(0, 5), from, null);
+
+		verify(bookRepository).findBookDtosByPublishedDateBetween(from, LocalDate.of(9999, 12, 31), expected);
+		assertThrows(IllegalArgumentException.class,
+				() -> bookService.getAllBook(PageRequest.of(0, 5, Sort.by("author")), from, null));
+		assertThrows(IllegalArgumentException.class,
+				() -> bookService.getAllBook(PageRequest.of(0, 5), from, from.minusDays(1)));
+		assertThrows(IllegalArgumentException.class, () -> bookService.getBookSlice(PageRequest.of(0, 5), true, from, null));
+	}
+
+	// JUnit test for getBookSlice method
+	@DisplayName("JUnit test for getBookSlice method")
+	@Test
+	public void givenPageable_whenGetBookSlice_thenReturnSliceWithMaintainedTotal() {
+		Book book = new Book();
+		book.setId(1L);
+		book.setAuthor("Yogesh");
+		book.setTitle("Learn Java");
+		book.setPublishedDate(LocalDate.now());
+		book.setIsbn("12345");
+
+		Pageable pageable = PageRequest.of(0, 1);
+
+		when(bookRepository.findBookDtoSliceBy(PageRequest.of(0, 1, Sort.by("id"))))
+				.thenReturn(new SliceImpl<>(List.of(new BookDto(book)), pageable, true));
+		when(bookCountTracker.getTotal()).thenReturn(42L);
+
+		BookSlice withTotal = bookService.getBookSlice(pageable, true);
+		BookSlice withoutTotal = bookService.getBookSlice(pageable, false);
+
+		assertEquals("Yogesh", withTotal.getContent().get(0).getAuthor());
+		assertThat(withTotal.isHasNext()).isTrue();
+		assertEquals(42L, withTotal.getTotalElements());
+		assertThat(withoutTotal.getTotalElements()).isNull();
+	}
+
+	// JUnit test for getBooksAfterCursor method
+	@DisplayName("JUnit test for getBooksAfterCursor method")
+	@Test
+	public void givenCursor_whenGetBooksAfterCursor_thenReturnNextPageAndCursor() {
+		Book book1 = new Book();
+		book1.setId(11L);
+		book1.setAuthor("Yogesh");
+		book1.setTitle("Learn Java");
+		book1.setPublishedDate(LocalDate.now());
+		book1.setIsbn("12345");
+
+		Book book2 = new Book();
+		book2.setId(12L);
+		book2.setAuthor("John");
+		book2.setTitle("Learn Spring");
+		book2.setPublishedDate(LocalDate.now());
+		book2.setIsbn("67890");
+
+		String after = new BookCursor("title", "Learn C", 10L).encode();
+		when(bookRepository.findNextBookDtosByTitle("Learn C", 10L, PageRequest.of(0, 2))).thenReturn(List.of(new BookDto(book1), new BookDto(book2)));
+
+		BookCursorPage result = bookService.getBooksAfterCursor(after, PageRequest.of(0, 1));
+
+		assertEquals(1, result.getContent().size());
+		assertEquals("Learn Java", result.getContent().get(0).getTitle());
+		BookCursor nextCursor = BookCursor.decode(result.getNextCursor());
+		assertEquals("title", nextCursor.getSortKey());
+		assertEquals("Learn Java", nextCursor.getValue());
+		assertEquals(11L, nextCursor.getId());
+	}
+
+	@Test
+	public void givenLastPage_whenGetBooksAfterCursor_thenReturnNoNextCursor() {
+		Book book = new Book();
+		book.setId(1L);
+		book.setAuthor("Yogesh");
+		book.setTitle("Learn Java");
+		book.setPublishedDate(LocalDate.now());
+		book.setIsbn("12345");
+
+		when(bookRepository.findNextBookDtosById(0L, PageRequest.of(0, 6))).thenReturn(List.of(new BookDto(book)));
+
+		BookCursorPage result = bookService.getBooksAfterCursor("", PageRequest.of(0, 5));
+
+		assertEquals(1, result.getContent().size());
+		assertThat(result.getNextCursor()).isNull();
+	}
+
+	@Test
+	public void givenUnsupportedSort_whenGetBooksAfterCursor_thenThrowIllegalArgumentException() {
+		Pageable pageable = PageRequest.of(0, 5, Sort.by("isbn"));
+
+		assertThrows(IllegalArgumentException.class, () -> bookService.getBooksAfterCursor("", pageable));
+		assertThrows(IllegalArgumentException.class, () -> bookService.getBooksAfterCursor("not-a-cursor", pageable));
+	}
+
 	// JUnit test for getBookById method
 	@DisplayName("JUnit test for getBookById method")
 	@Test
@@ -105,8 +524,10 @@ public class BookServiceTests {
 		book.setTitle("Learn Java");
 		book.setPublishedDate(LocalDate.now());
 		book.setIsbn("12345");
+		book.setVersion(3L);
+		book.setUpdatedAt(Instant.parse("2025-01-25T10:15:30Z"));
 
-		when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+		when(bookRepository.findBookDtoById(bookId)).thenReturn(Optional.of(new BookDto(book)));
 
 		ResponseEntity<?> response = bookService.getBookById(bookId);
 
@@ -114,6 +535,148 @@ public class BookServiceTests {
 
 		BookDto bookDto = (BookDto) response.getBody();
 		assertThat(bookDto.getAuthor()).isEqualTo(book.getAuthor());
+		assertThat(response.getHeaders().getETag()).isEqualTo("\"3\"");
+		assertThat(response.getHeaders().getLastModified()).isEqualTo(book.getUpdatedAt().toEpochMilli());
+	}
+
+	@Test
+	public void givenCachedBook_whenGetBookByIdAgain_thenDoNotQueryRepositoryUntilInvalidated() {
+		long bookId = 1L;
+		Book book = new Book();
+		book.setId(bookId);
+		book.setAuthor("Yogesh");
+		book.setTitle("Learn Java");
+		book.setPublishedDate(LocalDate.now());
+		book.setIsbn("12345");
+
+		when(bookRepository.findBookDtoById(bookId)).thenReturn(Optional.of(new BookDto(book)));
+
+		bookService.getBookById(bookId);
+		bookService.getBookById(bookId);
+		verify(bookRepository, times(1)).findBookDtoById(bookId);
+		assertEquals(1, bookService.getCacheStats().getHitCount());
+
+		bookDtoCache.bookDeleted(bookId);
+		bookService.getBookById(bookId);
+		verify(bookRepository, times(2)).findBookDtoById(bookId);
+	}
+
+	@Test
+	public void givenDisabledCache_whenGetBookById_thenAlwaysQueryRepository() {
+		long bookId = 1L;
+		Book book = new Book();
+		book.setId(bookId);
+		book.setAuthor("Yogesh");
+		book.setTitle("Learn Java");
+		book.setPublishedDate(LocalDate.now());
+		book.setIsbn("12345");
+
+		BookDtoCache disabledCache = new BookDtoCache(false, 100, Duration.ofMinutes(1));
+		when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+
+		disabledCache.get(bookId, id -> new BookDto(bookRepository.findById(id).get()));
+		disabledCache.get(bookId, id -> new BookDto(bookRepository.findById(id).get()));
+
+		verify(bookRepository, times(2)).findById(bookId);
+		assertThat(disabledCache.getStats().isEnabled()).isFalse();
+	}
+
+	@DisplayName("The JSON cache follows book.cache.enabled and book.cache.ttl")
+	@Test
+	public void givenDisabledOrExpiredJsonCache_whenGet_thenLoadAgain() throws Exception {
+		BookDto bookDto = new BookDto();
+		bookDto.setId(1L);
+		bookDto.setIsbn("12345");
+		AtomicInteger loads = new AtomicInteger();
+		Function<Long, BookDto> loader = id -> {
+			loads.incrementAndGet();
+			return bookDto;
+		};
+
+		BookJsonCache disabledCache = new BookJsonCache(objectMapper, false, true, DataSize.ofMegabytes(1),
+				Duration.ofMinutes(1));
+		disabledCache.get(1L, loader);
+		disabledCache.get(1L, loader);
+		assertThat(loads.get()).isEqualTo(2);
+
+		BookJsonCache expiringCache = new BookJsonCache(objectMapper, true, true, DataSize.ofMegabytes(1),
+				Duration.ofMillis(20));
+		expiringCache.get(1L, loader);
+		expiringCache.get(1L, loader);
+		assertThat(loads.get()).isEqualTo(3);
+		Thread.sleep(50);
+		expiringCache.get(1L, loader);
+		assertThat(loads.get()).isEqualTo(4);
+	}
+
+	// JUnit test for getBookJsonById method
+	@DisplayName("JUnit test for getBookJsonById method")
+	@Test
+	public void givenCachedJson_whenGetBookJsonByIdAgain_thenServeSameBytesUntilUpdated() throws Exception {
+		long bookId = 1L;
+		Book book = new Book();
+		book.setId(bookId);
+		book.setAuthor("Yogesh");
+		book.setTitle("Learn Java");
+		book.setPublishedDate(LocalDate.of(2025, 1, 25));
+		book.setIsbn("12345");
+		book.setVersion(3L);
+		book.setUpdatedAt(Instant.parse("2025-01-25T10:15:30Z"));
+
+		when(bookRepository.findBookDtoById(bookId)).thenReturn(Optional.of(new BookDto(book)));
+
+		ResponseEntity<?> first = bookService.getBookJsonById(bookId, true);
+		ResponseEntity<?> second = bookService.getBookJsonById(bookId, false);
+
+		verify(bookRepository, times(1)).findBookDtoById(bookId);
+		assertThat(second.getBody()).isSameAs(first.getBody());
+		assertThat(new String((byte[]) first.getBody(), StandardCharsets.UTF_8))
+				.startsWith("{\"id\":1,\"title\":\"Learn Java\",\"author\":\"Yogesh\",").doesNotContain("version", "updatedAt");
+		// A body this small grows when gzipped, so it is sent as is
+		assertThat(first.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(first.getHeaders().getETag()).isEqualTo("\"3\"");
+		assertThat(first.getHeaders().getLastModified()).isEqualTo(book.getUpdatedAt().toEpochMilli());
+		assertThat(first.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+
+		bookJsonCache.bookUpdated(new BookDto(book));
+		bookDtoCache.bookUpdated(new BookDto(book));
+		bookService.getBookJsonById(bookId, false);
+		verify(bookRepository, times(2)).findBookDtoById(bookId);
+	}
+
+	@Test
+	public void givenLargeBookAndGzipAccepted_whenGetBookJsonById_thenReturnGzipWithItsOwnETag() throws Exception {
+		long bookId = 1L;
+		Book book = new Book();
+		book.setId(bookId);
+		book.setAuthor("Yogesh");
+		book.setTitle("Learn Java ".repeat(40));
+		book.setPublishedDate(LocalDate.of(2025, 1, 25));
+		book.setIsbn("12345");
+		book.setVersion(3L);
+
+		when(bookRepository.findBookDtoById(bookId)).thenReturn(Optional.of(new BookDto(book)));
+
+		ResponseEntity<?> gzipped = bookService.getBookJsonById(bookId, true);
+		ResponseEntity<?> identity = bookService.getBookJsonById(bookId, false);
+
+		assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(gzipped.getHeaders().getETag()).isEqualTo("\"3-gzip\"");
+		assertThat(new GZIPInputStream(new ByteArrayInputStream((byte[]) gzipped.getBody())).readAllBytes())
+				.isEqualTo((byte[]) identity.getBody());
+		assertThat(identity.getHeaders().getETag()).isEqualTo("\"3\"");
+		assertThat(identity.getHeaders().getLastModified()).isEqualTo(-1);
+		assertEquals(3L, BookETags.parseIfMatch(gzipped.getHeaders().getETag()));
+	}
+
+	@Test
+	public void givenBookId_whenBookJsonDoesNotExist_thenReturnBookNotFound() {
+		when(bookRepository.findBookDtoById(2L)).thenReturn(Optional.empty());
+
+		ResponseEntity<?> response = bookService.getBookJsonById(2L, true);
+
+		assertEquals(404, response.getStatusCode().value());
+		assertEquals("Book not found", response.getBody());
 	}
 
 	@Test
@@ -126,11 +689,14 @@ public class BookServiceTests {
 		bookDto.setPublishedDate(LocalDate.now());
 		bookDto.setIsbn("12345");
 
-		when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
+		when(bookRepository.updateBookById(eq(bookId), eq("Updated Title"), eq("Updated Author"),
+				eq(bookDto.getPublishedDate()), eq("12345"), any(Instant.class))).thenReturn(0);
 
 		ResponseEntity<?> response = bookService.updateBookById(bookId, bookDto);
 
 		assertThat(response.getBody()).isEqualTo("Book not found");
+		assertThat(meterRegistry.get("book.failures").tags("operation", "updateBookById", "outcome", BookMetrics.NOT_FOUND)
+				.counter().count()).isEqualTo(1);
 	}
 
 	// JUnit test for updateBookById method
@@ -152,7 +718,8 @@ public class BookServiceTests {
 		updatedBookDto.setPublishedDate(LocalDate.now());
 		updatedBookDto.setIsbn("12345");
 
-		when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+		when(bookRepository.updateBookById(eq(bookId), eq("Learn Java"), eq("Yogesh Updated"),
+				eq(updatedBookDto.getPublishedDate()), eq("12345"), any(Instant.class))).thenReturn(1);
 
 		ResponseEntity<?> response = bookService.updateBookById(bookId, updatedBookDto);
 
@@ -160,6 +727,69 @@ public class BookServiceTests {
 
 		BookDto savedDto = (BookDto) response.getBody();
 		assertThat(savedDto.getAuthor()).isEqualTo(updatedBookDto.getAuthor());
+		assertThat(savedDto.getId()).isEqualTo(bookId);
+		verify(bookRepository, never()).findById(bookId);
+		verify(bookSearchIndex).bookUpdated(savedDto);
+	}
+
+	// JUnit test for updateBookById method with If-Match
+	@DisplayName("JUnit test for updateBookById method with an expected version")
+	@Test
+	public void givenExpectedVersion_whenUpdateBookById_thenWriteOnlyIfVersionMatches() {
+		BookDto bookDto = new BookDto(0L, "Learn Java", "Yogesh", LocalDate.of(2020, 1, 1), "12345");
+		when(bookRepository.updateBookByIdAndVersion(eq(1L), eq(3L), eq("Learn Java"), eq("Yogesh"),
+				eq(LocalDate.of(2020, 1, 1)), eq("12345"), any(Instant.class))).thenReturn(1);
+		when(bookRepository.existsById(1L)).thenReturn(true);
+
+		ResponseEntity<?> updated = bookService.updateBookById(1L, bookDto, 3L);
+		ResponseEntity<?> stale = bookService.updateBookById(1L, bookDto, 2L);
+		ResponseEntity<?> missing = bookService.updateBookById(2L,
+				new BookDto(0L, "Learn Java", "Yogesh", LocalDate.of(2020, 1, 1), "67890"), 3L);
+
+		assertThat(updated.getStatusCode().value()).isEqualTo(200);
+		assertThat(updated.getHeaders().getETag()).isEqualTo("\"4\"");
+		assertThat(stale.getStatusCode().value()).isEqualTo(412);
+		assertThat(missing.getStatusCode().value()).isEqualTo(404);
+		assertThat(meterRegistry.get("book.failures")
+				.tags("operation", "updateBookById", "outcome", BookMetrics.PRECONDITION_FAILED).counter().count())
+				.isEqualTo(1);
+		verify(bookRepository, never()).updateBookById(eq(1L), any(), any(), any(), any(), any());
+	}
+
+	// JUnit test for patchBookById method
+	@DisplayName("JUnit test for patchBookById method")
+	@Test
+	public void givenOnlyAuthor_whenPatchBookById_thenUpdateAuthorAndReturnStoredBook() {
+		long bookId = 1L;
+		BookDto patch = new BookDto();
+		patch.setAuthor("Yogesh Updated");
+		BookDto stored = new BookDto(bookId, "Learn Java", "Yogesh Updated", LocalDate.of(2020, 1, 1), "12345");
+
+		when(bookRepository.patchBookById(eq(bookId), isNull(), eq("Yogesh Updated"), isNull(), isNull(), any(Instant.class)))
+				.thenReturn(1);
+		when(bookRepository.findBookDtoById(bookId)).thenReturn(Optional.of(stored));
+
+		ResponseEntity<?> response = bookService.patchBookById(bookId, patch);
+
+		assertThat(response.getStatusCode().value()).isEqualTo(200);
+		assertThat(response.getBody()).isEqualTo(stored);
+		verify(bookSearchIndex).bookUpdated(stored);
+	}
+
+	// JUnit test for patchBookById method
+	@DisplayName("JUnit test for patchBookById method with a missing book or no fields")
+	@Test
+	public void givenMissingBookOrEmptyPatch_whenPatchBookById_thenReturnNotFoundOrThrow() {
+		BookDto patch = new BookDto();
+		patch.setTitle("New Title");
+
+		ResponseEntity<?> response = bookService.patchBookById(1L, patch);
+
+		assertThat(response.getStatusCode().value()).isEqualTo(404);
+		verify(bookRepository, never()).findBookDtoById(1L);
+		assertThrows(IllegalArgumentException.class, () -> bookService.patchBookById(1L, new BookDto()));
+		patch.setTitle("");
+		assertThrows(IllegalArgumentException.class, () -> bookService.patchBookById(1L, patch));
 	}
 
 	// JUnit test for deleteBookById method
@@ -170,14 +800,116 @@ public class BookServiceTests {
 		Book book = new Book();
 		book.setId(bookId);
 
-		when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+		when(bookRepository.deleteBookById(bookId)).thenReturn(1);
 
 		ResponseEntity<?> response = bookService.deleteBookById(bookId);
 
 		assertThat(response.getBody()).isEqualTo("Book Deleted");
+		verify(bookRepository, never()).findById(bookId);
+		verify(bookCountTracker).bookDeleted(bookId);
+
+	}
+
+	// JUnit test for deleteBooksByIds method
+	@DisplayName("JUnit test for deleteBooksByIds method")
+	@Test
+	public void givenIdsWithMissingBook_whenDeleteBooksByIds_thenDeleteInOneStatementAndInvalidateCount() {
+		when(bookRepository.deleteBooksByIds(Set.of(1L, 2L, 3L))).thenReturn(2);
+
+		BookBulkDeleteResult result = bookService.deleteBooksByIds(List.of(1L, 2L, 3L, 3L));
 
+		assertThat(result.getRequested()).isEqualTo(3);
+		assertThat(result.getDeleted()).isEqualTo(2);
+		verify(bookSearchIndex).bookDeleted(1L);
+		verify(bookCountTracker).invalidate();
+		assertThrows(IllegalArgumentException.class, () -> bookService.deleteBooksByIds(List.of()));
 	}
 	
+	// JUnit test for addNewBook method with a registered ISBN
+	@DisplayName("JUnit test for addNewBook and updateBookById methods with a registered ISBN")
+	@Test
+	public void givenRegisteredIsbn_whenAddingOrUpdatingAnotherBook_thenThrowWithoutWriting() {
+		bookIsbnRegistry.bookLoaded(new BookDto(1L, "Learn Java", "Yogesh", LocalDate.of(2020, 1, 1), "12345"));
+		BookDto bookDto = new BookDto(0L, "Learn Spring", "Yogesh", LocalDate.of(2021, 1, 1), "12345");
+		when(bookRepository.findIdByIsbn("12345")).thenReturn(Optional.of(1L));
+
+		assertThrows(DuplicateIsbnException.class, () -> bookService.addNewBook(bookDto));
+		assertThrows(DuplicateIsbnException.class, () -> bookService.updateBookById(2L, bookDto));
+		assertThat(meterRegistry.get("book.failures").tags("operation", "addNewBook", "outcome", BookMetrics.DUPLICATE_ISBN)
+				.counter().count()).isEqualTo(1);
+		verify(bookRepository, never()).save(any(Book.class));
+		verify(bookRepository, never()).updateBookById(eq(2L), any(), any(), any(), any(), any());
+
+		when(bookRepository.updateBookById(eq(1L), eq("Learn Spring"), eq("Yogesh"), eq(LocalDate.of(2021, 1, 1)), eq("12345"),
+				any(Instant.class))).thenReturn(1);
+		assertThat(bookService.updateBookById(1L, bookDto).getStatusCode().value()).isEqualTo(200);
+	}
+
+	// JUnit test for addNewBook method with a stale registered ISBN
+	@DisplayName("JUnit test for addNewBook method with an ISBN whose book was deleted on another node")
+	@Test
+	public void givenStaleRegisteredIsbn_whenAddNewBook_thenCreateAndForgetStaleEntry() {
+		bookIsbnRegistry.bookLoaded(new BookDto(1L, "Learn Java", "Yogesh", LocalDate.of(2020, 1, 1), "12345"));
+		bookIsbnRegistry.catalogLoaded();
+		BookDto bookDto = new BookDto(0L, "Learn Spring", "Yogesh", LocalDate.of(2021, 1, 1), "12345");
+		when(bookRepository.findIdByIsbn("12345")).thenReturn(Optional.empty());
+		when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> {
+			Book book = invocation.getArgument(0);
+			book.setId(2L);
+			return book;
+		});
+
+		assertThat(bookService.addNewBook(bookDto).getId()).isEqualTo(2L);
+		assertThat(bookIsbnRegistry.findBookId("12345")).isEqualTo(2L);
+	}
+
+	// JUnit test for addNewBooks method with a loaded registry
+	@DisplayName("JUnit test for addNewBooks method with a loaded registry")
+	@Test
+	public void givenLoadedRegistry_whenAddNewBooks_thenLookUpOnlyRegisteredIsbns() {
+		bookIsbnRegistry.bookLoaded(new BookDto(1L, "Learn Java", "Yogesh", LocalDate.of(2020, 1, 1), "12345"));
+		bookIsbnRegistry.catalogLoaded();
+		BookDto duplicate = new BookDto(0L, "Learn Spring", "Yogesh", LocalDate.of(2021, 1, 1), "12345");
+		BookDto fresh = new BookDto(0L, "Learn Kotlin", "Yogesh", LocalDate.of(2022, 1, 1), "67890");
+		when(bookRepository.findExistingIsbns(List.of("12345"))).thenReturn(List.of("12345"));
+		when(bookBatchWriter.insertAll(anyList())).thenAnswer(invocation -> {
+			List<Book> books = invocation.getArgument(0);
+			books.get(0).setId(2L);
+			return books;
+		});
+
+		BookBatchResult result = bookService.addNewBooks(List.of(duplicate, fresh));
+
+		assertThat(result.getItems()).extracting(BookBatchItemResult::getStatus)
+				.containsExactly(BookBatchItemResult.DUPLICATE_ISBN, BookBatchItemResult.CREATED);
+		// The unregistered ISBN is trusted as free, the registered one is confirmed
+		verify(bookRepository, times(1)).findExistingIsbns(anyList());
+		assertThat(bookIsbnRegistry.findBookId("67890")).isEqualTo(2L);
+	}
+
+	// JUnit test for getBookByIsbn method
+	@DisplayName("JUnit test for getBookByIsbn method")
+	@Test
+	public void givenIsbn_whenGetBookByIsbn_thenUseRegistryBeforeDatabase() {
+		BookDto bookDto = new BookDto(1L, "Learn Java", "Yogesh", LocalDate.of(2020, 1, 1), "12345");
+		when(bookRepository.findBookDtoByIsbn("12345")).thenReturn(Optional.of(bookDto));
+
+		assertThat(bookService.getBookByIsbn("12345").getBody()).isEqualTo(bookDto);
+
+		bookIsbnRegistry.bookLoaded(bookDto);
+		bookIsbnRegistry.catalogLoaded();
+		when(bookRepository.findBookDtoById(1L)).thenReturn(Optional.of(bookDto));
+
+		assertThat(bookService.getBookByIsbn("12345").getBody()).isEqualTo(bookDto);
+		verify(bookRepository, times(1)).findBookDtoByIsbn(any());
+
+		// Books written by other nodes are missing from the registry but still found
+		BookDto otherNode = new BookDto(2L, "Learn Spring", "John", LocalDate.of(2021, 1, 1), "67890");
+		when(bookRepository.findBookDtoByIsbn("67890")).thenReturn(Optional.of(otherNode));
+		assertThat(bookService.getBookByIsbn("67890").getBody()).isEqualTo(otherNode);
+		assertThat(bookService.getBookByIsbn("99999").getStatusCode().value()).isEqualTo(404);
+	}
+
 	// JUnit test for getBooksByAuthorOrTile method
 	@DisplayName("JUnit test for getBooksByAuthorOrTile method")
 	@Test
@@ -198,7 +930,7 @@ public class BookServiceTests {
 		book2.setPublishedDate(LocalDate.now());
 		book2.setIsbn("12345");
 
- 		when(bookRepository.findByAuthorOrTitle(searchTxt)).thenReturn(List.of(book1, book2));
+ 		when(bookRepository.findBookDtosByAuthorOrTitle(searchTxt)).thenReturn(List.of(new BookDto(book1), new BookDto(book2)));
 
 		List<BookDto> booksDto = bookService.getBooksByAuthorOrTile(searchTxt);
 
@@ -207,4 +939,86 @@ public class BookServiceTests {
 
 	}
 
+	// JUnit test for getSuggestions method
+	@DisplayName("JUnit test for getSuggestions method")
+	@Test
+	public void givenPrefix_whenGetSuggestions_thenReturnSuggestionsFromIndex() {
+		when(bookSuggestIndex.suggest("lea", 5)).thenReturn(List.of("Learn Java", "Learn Spring"));
+
+		List<String> suggestions = bookService.getSuggestions("lea", 5);
+
+		assertThat(suggestions).containsExactly("Learn Java", "Learn Spring");
+	}
+
+	// JUnit test for getFacets method
+	@DisplayName("JUnit test for getFacets method")
+	@Test
+	public void givenBookMovedToOtherAuthorAndYear_whenGetFacets_thenCountsFollowTheUpdate() {
+		long bookId = 1L;
+		Book book = new Book();
+		book.setId(bookId);
+		book.setAuthor("Yogesh");
+		book.setTitle("Learn Java");
+		book.setPublishedDate(LocalDate.of(2024, 5, 1));
+		book.setIsbn("12345");
+		bookFacetIndex.bookLoaded(new BookDto(book));
+
+		BookDto updatedBookDto = new BookDto();
+		updatedBookDto.setAuthor("Mohit");
+		updatedBookDto.setTitle("Learn Java");
+		updatedBookDto.setPublishedDate(LocalDate.of(2025, 1, 25));
+		updatedBookDto.setIsbn("12345");
+
+		when(bookRepository.updateBookById(eq(bookId), eq("Learn Java"), eq("Mohit"), eq(updatedBookDto.getPublishedDate()),
+				eq("12345"), any(Instant.class))).thenReturn(1);
+
+		bookService.updateBookById(bookId, updatedBookDto);
+		BookFacets facets = bookService.getFacets(null, 10);
+
+		assertThat(facets.getTotal()).isEqualTo(1);
+		assertThat(facets.getAuthors()).extracting(BookFacetCount::getValue).containsExactly("Mohit");
+		assertThat(facets.getYears()).extracting(BookFacetCount::getValue).containsExactly("2025");
+		verify(bookRepository, never()).findAll();
+	}
+
+	@Test
+	public void givenInvalidTop_whenGetFacets_thenThrowIllegalArgumentException() {
+		assertThrows(IllegalArgumentException.class, () -> bookService.getFacets(null, 0));
+		assertThrows(IllegalArgumentException.class, () -> bookService.getFacets(null, BookFacetIndex.MAX_AUTHORS + 1));
+	}
+
+	// JUnit test for searchBooks method
+	@DisplayName("JUnit test for searchBooks method")
+	@Test
+	public void givenQuery_whenSearchBooks_thenReturnBooksInRankOrder() {
+		Book book1 = new Book();
+		book1.setId(1L);
+		book1.setAuthor("Yogesh");
+		book1.setTitle("Learn Java");
+		book1.setPublishedDate(LocalDate.now());
+		book1.setIsbn("12345");
+
+		Book book2 = new Book();
+		book2.setId(2L);
+		book2.setAuthor("John");
+		book2.setTitle("Java Java");
+		book2.setPublishedDate(LocalDate.now());
+		book2.setIsbn("67890");
+
+		when(bookSearchIndex.search("java", 0, 2)).thenReturn(new BookSearchIndex.SearchHits(List.of(2L, 1L), 5));
+		when(bookRepository.findBookDtosByIds(List.of(2L, 1L))).thenReturn(List.of(new BookDto(book1), new BookDto(book2)));
+
+		BookSearchResult result = bookService.searchBooks("java", 0, 2);
+
+		assertEquals(5, result.getTotalHits());
+		assertEquals("Java Java", result.getContent().get(0).getTitle());
+		assertEquals("Learn Java", result.getContent().get(1).getTitle());
+	}
+
+	@Test
+	public void givenInvalidSize_whenSearchBooks_thenThrowIllegalArgumentException() {
+		assertThrows(IllegalArgumentException.class, () -> bookService.searchBooks("java", 0, 0));
+		assertThrows(IllegalArgumentException.class, () -> bookService.searchBooks("java", -1, 10));
+	}
+
 }
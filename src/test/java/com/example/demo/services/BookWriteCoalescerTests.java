@@ -0,0 +1,146 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.BookBatchItemResult;
+import com.example.demo.dto.BookDto;
+import com.example.demo.exceptions.BookWriteTimeoutException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BookWriteCoalescerTests {
+
+	private static final Duration SUBMIT_TIMEOUT = Duration.ofSeconds(10);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final BookMetrics bookMetrics = new BookMetrics(meterRegistry);
+
+	@DisplayName("Concurrent submits within the delay are written as one batch")
+	@Test
+	public void givenConcurrentSubmits_whenWithinDelay_thenOneCommitAndOwnResultPerCaller() throws Exception {
+		List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try (BookWriteCoalescer coalescer = new BookWriteCoalescer(4, Duration.ofSeconds(5), SUBMIT_TIMEOUT, bookDtos -> {
+			batchSizes.add(bookDtos.size());
+			return created(bookDtos);
+		}, bookMetrics)) {
+			List<Future<BookBatchItemResult>> results = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				BookDto bookDto = bookDto("isbn-" + i);
+				results.add(executor.submit(() -> {
+					start.await();
+					return coalescer.submit(bookDto);
+				}));
+			}
+			start.countDown();
+
+			for (int i = 0; i < 4; i++) {
+				assertThat(results.get(i).get().getBook().getIsbn()).isEqualTo("isbn-" + i);
+			}
+		} finally {
+			executor.shutdown();
+		}
+		// The batch is full before the delay runs out
+		assertThat(batchSizes).containsExactly(4);
+		assertThat(meterRegistry.get("book.write.coalesced.batch").summary().totalAmount()).isEqualTo(4);
+	}
+
+	@DisplayName("A failed commit fails every caller in it")
+	@Test
+	public void givenWriterFails_whenSubmit_thenThrowToCaller() {
+		try (BookWriteCoalescer coalescer = new BookWriteCoalescer(10, Duration.ZERO, SUBMIT_TIMEOUT, bookDtos -> {
+			throw new IllegalStateException("Database is down");
+		}, bookMetrics)) {
+			IllegalStateException e = assertThrows(IllegalStateException.class, () -> coalescer.submit(bookDto("isbn")));
+
+			assertThat(e.getMessage()).isEqualTo("Database is down");
+		}
+	}
+
+	@DisplayName("An error thrown by a commit fails its callers and the next commit still runs")
+	@Test
+	public void givenWriterThrowsError_whenSubmitAgain_thenWriterStillRuns() {
+		AtomicBoolean failed = new AtomicBoolean();
+		try (BookWriteCoalescer coalescer = new BookWriteCoalescer(10, Duration.ZERO, SUBMIT_TIMEOUT, bookDtos -> {
+			if (failed.compareAndSet(false, true)) {
+				throw new StackOverflowError();
+			}
+			return created(bookDtos);
+		}, bookMetrics)) {
+			IllegalStateException e = assertThrows(IllegalStateException.class, () -> coalescer.submit(bookDto("isbn-1")));
+
+			assertThat(e.getCause()).isInstanceOf(StackOverflowError.class);
+			assertThat(coalescer.submit(bookDto("isbn-2")).getStatus()).isEqualTo(BookBatchItemResult.CREATED);
+		}
+	}
+
+	@DisplayName("Callers stop waiting after the submit timeout, and a book still queued is not written")
+	@Test
+	public void givenSlowCommit_whenSubmitTimesOut_thenThrowAndDropQueuedBook() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> written = Collections.synchronizedList(new ArrayList<>());
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try (BookWriteCoalescer coalescer = new BookWriteCoalescer(1, Duration.ZERO, Duration.ofMillis(200), bookDtos -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			bookDtos.forEach(bookDto -> written.add(bookDto.getIsbn()));
+			return created(bookDtos);
+		}, bookMetrics)) {
+			Future<BookBatchItemResult> writing = executor.submit(() -> coalescer.submit(bookDto("isbn-writing")));
+			// The first book holds the writer, so the second one stays queued
+			Thread.sleep(50);
+			BookWriteTimeoutException e = assertThrows(BookWriteTimeoutException.class,
+					() -> coalescer.submit(bookDto("isbn-queued")));
+			release.countDown();
+
+			assertThat(e.getMessage()).endsWith("it was not saved");
+			assertThrows(ExecutionException.class, writing::get);
+		} finally {
+			executor.shutdown();
+		}
+		assertThat(written).containsExactly("isbn-writing");
+	}
+
+	@DisplayName("Submits after close are rejected")
+	@Test
+	public void givenClosed_whenSubmit_thenReject() {
+		BookWriteCoalescer coalescer = new BookWriteCoalescer(10, Duration.ZERO, SUBMIT_TIMEOUT, this::created, bookMetrics);
+		coalescer.close();
+
+		assertThrows(IllegalStateException.class, () -> coalescer.submit(bookDto("isbn")));
+	}
+
+	private BookBatchItemResult[] created(List<BookDto> bookDtos) {
+		BookBatchItemResult[] results = new BookBatchItemResult[bookDtos.size()];
+		for (int i = 0; i < results.length; i++) {
+			results[i] = new BookBatchItemResult(i, BookBatchItemResult.CREATED, null, bookDtos.get(i));
+		}
+		return results;
+	}
+
+	private static BookDto bookDto(String isbn) {
+		BookDto bookDto = new BookDto();
+		bookDto.setIsbn(isbn);
+		return bookDto;
+	}
+
+}
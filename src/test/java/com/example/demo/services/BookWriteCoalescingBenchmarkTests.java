@@ -0,0 +1,101 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+
+import com.example.demo.dto.BookBatchItemResult;
+import com.example.demo.dto.BookDto;
+import com.example.demo.repositories.BookRepository;
+
+/**
+ * Compares commits and books per second of concurrent single-book creates
+ * written one transaction each against the same creates through
+ * {@link BookWriteCoalescer}. Run with {@code mvn test -Pbenchmarks
+ * -Dtest=BookWriteCoalescingBenchmarkTests -Dbenchmark.threads=200}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+public class BookWriteCoalescingBenchmarkTests {
+
+	private static final int BOOKS = Integer.getInteger("benchmark.books", 20_000);
+	private static final int THREADS = Integer.getInteger("benchmark.threads", 64);
+	private static final int MAX_BATCH_SIZE = Integer.getInteger("benchmark.max-batch-size", 100);
+	private static final Duration MAX_DELAY = Duration.parse(System.getProperty("benchmark.max-delay", "PT0.002S"));
+
+	@Autowired
+	private BookService bookService;
+	@Autowired
+	private BookRepository bookRepository;
+	@Autowired
+	private BookMetrics bookMetrics;
+
+	@DisplayName("Benchmark of BookService.addNewBook with and without write coalescing")
+	@Test
+	public void givenConcurrentCreates_whenCoalescedOrNot_thenReportCommitsPerSecond() throws Exception {
+		run("direct", "DIRECT-", bookDto -> bookService.addNewBook(bookDto), () -> BOOKS);
+
+		BookService target = AopTestUtils.getTargetObject(bookService);
+		AtomicInteger commits = new AtomicInteger();
+		try (BookWriteCoalescer coalescer = new BookWriteCoalescer(MAX_BATCH_SIZE, MAX_DELAY, Duration.ofMinutes(1), bookDtos -> {
+			commits.incrementAndGet();
+			return target.insertCoalesced(bookDtos);
+		}, bookMetrics)) {
+			run("coalesced", "COALESCED-", bookDto -> {
+				BookBatchItemResult result = coalescer.submit(bookDto);
+				assertThat(result.getStatus()).isEqualTo(BookBatchItemResult.CREATED);
+			}, commits::get);
+		}
+		assertThat(bookRepository.count()).isEqualTo(2L * BOOKS);
+	}
+
+	private void run(String mode, String isbnPrefix, Consumer<BookDto> create, IntSupplier commits)
+			throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		AtomicInteger next = new AtomicInteger();
+		long start = System.nanoTime();
+		try {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				workers.add(executor.submit(() -> {
+					int i;
+					while ((i = next.getAndIncrement()) < BOOKS) {
+						BookDto bookDto = new BookDto();
+						bookDto.setTitle("Title " + i);
+						bookDto.setAuthor("Author " + (i % 500));
+						bookDto.setPublishedDate(LocalDate.of(2020, 1, 1));
+						bookDto.setIsbn(isbnPrefix + i);
+						create.accept(bookDto);
+					}
+				}));
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+		int commitCount = commits.getAsInt();
+		System.out.printf("BookWriteCoalescingBenchmark mode=%s threads=%d books=%d millis=%d commits=%d "
+				+ "commitsPerSecond=%d booksPerSecond=%d booksPerCommit=%.1f%n", mode, THREADS, BOOKS, millis,
+				commitCount, commitCount * 1000L / millis, BOOKS * 1000L / millis, (double) BOOKS / commitCount);
+	}
+
+}
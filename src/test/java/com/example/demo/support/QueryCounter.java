@@ -0,0 +1,55 @@
+package com.example.demo.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counts the SQL statements Hibernate prepares against the database while an
+ * operation runs, from the session factory statistics. A JDBC batch is
+ * prepared once, so the count matches the number of round-trips. Counts are
+ * global to the session factory, so operations must not overlap with other
+ * database work.
+ */
+public class QueryCounter {
+
+	private final Statistics statistics;
+
+	public QueryCounter(EntityManagerFactory entityManagerFactory) {
+		this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		this.statistics.setStatisticsEnabled(true);
+	}
+
+	/**
+	 * Runs the operation and fails unless it issued exactly the expected number
+	 * of statements.
+	 */
+	public <T> T assertQueries(long expected, Operation<T> operation) throws Exception {
+		statistics.clear();
+		T result = operation.run();
+		assertThat(statistics.getPrepareStatementCount()).as("SQL statements issued").isEqualTo(expected);
+		return result;
+	}
+
+	/**
+	 * Runs the operation and fails if it issued more than the given number of
+	 * statements.
+	 */
+	public <T> T assertMaxQueries(long max, Operation<T> operation) throws Exception {
+		statistics.clear();
+		T result = operation.run();
+		assertThat(statistics.getPrepareStatementCount()).as("SQL statements issued").isLessThanOrEqualTo(max);
+		return result;
+	}
+
+	@FunctionalInterface
+	public interface Operation<T> {
+
+		T run() throws Exception;
+
+	}
+
+}